@@ -0,0 +1,33 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("jgribx.FileOpen")
+@Label("GRIB File Open")
+@Category("JGribX")
+@Description("Reading of all the records of a GRIB file")
+class FileOpenEvent extends Event
+{
+    @Label("Source")
+    String source;
+
+    @Label("Records")
+    int recordCount;
+
+    @Label("Skipped Records")
+    int skippedCount;
+}
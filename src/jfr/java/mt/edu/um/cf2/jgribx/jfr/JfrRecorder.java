@@ -0,0 +1,95 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx.jfr;
+
+import mt.edu.um.cf2.jgribx.GribEvents;
+
+/**
+ * Emits the events of {@link GribEvents} as JDK Flight Recorder events. This
+ * class is loaded by {@link GribEvents} when running on Java 11 or later.
+ */
+public class JfrRecorder implements GribEvents.Recorder
+{
+    @Override
+    public Object beginFileOpen()
+    {
+        FileOpenEvent event = new FileOpenEvent();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endFileOpen(Object handle, String source, int nRecords, int nRecordsSkipped)
+    {
+        FileOpenEvent event = (FileOpenEvent) handle;
+        event.source = source;
+        event.recordCount = nRecords;
+        event.skippedCount = nRecordsSkipped;
+        event.commit();
+    }
+
+    @Override
+    public Object beginRecordRead()
+    {
+        RecordReadEvent event = new RecordReadEvent();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endRecordRead(Object handle, int edition, long recordLength, boolean readData)
+    {
+        RecordReadEvent event = (RecordReadEvent) handle;
+        event.edition = edition;
+        event.recordLength = recordLength;
+        event.readData = readData;
+        event.commit();
+    }
+
+    @Override
+    public Object beginUnpack()
+    {
+        UnpackEvent event = new UnpackEvent();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endUnpack(Object handle, String packingType, int bitWidth, int nPoints)
+    {
+        UnpackEvent event = (UnpackEvent) handle;
+        event.packingType = packingType;
+        event.bitWidth = bitWidth;
+        event.pointCount = nPoints;
+        event.commit();
+    }
+
+    @Override
+    public Object beginJpeg2000()
+    {
+        Jpeg2000Event event = new Jpeg2000Event();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endJpeg2000(Object handle, int nBytes, int nPoints)
+    {
+        Jpeg2000Event event = (Jpeg2000Event) handle;
+        event.codeStreamLength = nBytes;
+        event.pointCount = nPoints;
+        event.commit();
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("jgribx.Jpeg2000Decode")
+@Label("JPEG2000 Decode")
+@Category("JGribX")
+@Description("Decoding of a JPEG2000 code stream in a GRIB-2 data section")
+class Jpeg2000Event extends Event
+{
+    @Label("Code Stream Length")
+    @DataAmount
+    int codeStreamLength;
+
+    @Label("Points")
+    int pointCount;
+}
@@ -0,0 +1,35 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("jgribx.RecordRead")
+@Label("GRIB Record Read")
+@Category("JGribX")
+@Description("Reading of a single GRIB record")
+class RecordReadEvent extends Event
+{
+    @Label("Edition")
+    int edition;
+
+    @Label("Record Length")
+    @DataAmount
+    long recordLength;
+
+    @Label("Data Decoded")
+    boolean readData;
+}
@@ -0,0 +1,33 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("jgribx.Unpack")
+@Label("GRIB Data Unpack")
+@Category("JGribX")
+@Description("Unpacking of the data section of a GRIB record")
+class UnpackEvent extends Event
+{
+    @Label("Packing Type")
+    String packingType;
+
+    @Label("Bit Width")
+    int bitWidth;
+
+    @Label("Points")
+    int pointCount;
+}
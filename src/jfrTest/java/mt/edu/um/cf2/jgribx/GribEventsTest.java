@@ -0,0 +1,94 @@
+package mt.edu.um.cf2.jgribx;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the JDK Flight Recorder events, which need Java 11 and are therefore
+ * kept apart from {@link GribTest}.
+ */
+public class GribEventsTest
+{
+    @Test
+    public void testFlightRecorderEvents() throws IOException, NoValidGribException, NotSupportedException
+    {
+        assertTrue("Events available", GribEvents.isAvailable());
+
+        byte[] record = GribTest.createGrib2Record(0, 850, 250);
+        File file = File.createTempFile("jgribx", ".grb2");
+        Path dump = Files.createTempFile("jgribx", ".jfr");
+        try
+        {
+            try (OutputStream out = new FileOutputStream(file))
+            {
+                out.write(record);
+                out.write(record);
+            }
+
+            try (Recording recording = new Recording())
+            {
+                recording.enable("jgribx.FileOpen");
+                recording.enable("jgribx.RecordRead");
+                recording.enable("jgribx.Unpack");
+                recording.start();
+                new GribFile(file.getPath());
+                recording.stop();
+                recording.dump(dump);
+            }
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+
+            List<RecordedEvent> fileOpens = getEvents(events, "jgribx.FileOpen");
+            assertEquals("File open events", 1, fileOpens.size());
+            assertEquals("Source", file.getPath(), fileOpens.get(0).getString("source"));
+            assertEquals("Records", 2, fileOpens.get(0).getInt("recordCount"));
+            assertEquals("Skipped records", 0, fileOpens.get(0).getInt("skippedCount"));
+
+            List<RecordedEvent> recordReads = getEvents(events, "jgribx.RecordRead");
+            assertEquals("Record read events", 2, recordReads.size());
+            for (RecordedEvent event : recordReads)
+            {
+                assertEquals("Edition", 2, event.getInt("edition"));
+                assertEquals("Record length", record.length, event.getLong("recordLength"));
+                assertTrue("Data decoded", event.getBoolean("readData"));
+            }
+
+            List<RecordedEvent> unpacks = getEvents(events, "jgribx.Unpack");
+            assertEquals("Unpack events", 2, unpacks.size());
+            for (RecordedEvent event : unpacks)
+            {
+                assertEquals("Packing type", "5.0", event.getString("packingType"));
+                assertEquals("Bit width", 8, event.getInt("bitWidth"));
+                assertEquals("Points", 3 * 2, event.getInt("pointCount"));
+            }
+        }
+        finally
+        {
+            file.delete();
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    private static List<RecordedEvent> getEvents(List<RecordedEvent> events, String name)
+    {
+        List<RecordedEvent> matches = new ArrayList<>();
+        for (RecordedEvent event : events)
+        {
+            if (event.getEventType().getName().equals(name))
+            {
+                matches.add(event);
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A range of bytes within a file, typically holding one GRIB record.
+ */
+public class ByteRange
+{
+    private final long offset;
+    private final long length;
+
+    /**
+     * Creates a range.
+     * @param offset the position of the first byte
+     * @param length the number of bytes
+     */
+    public ByteRange(long offset, long length)
+    {
+        if (offset < 0 || length < 0)
+        {
+            throw new IllegalArgumentException("Invalid range: " + offset + "+" + length);
+        }
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public long getOffset()
+    {
+        return offset;
+    }
+
+    public long getLength()
+    {
+        return length;
+    }
+
+    /**
+     * Returns the position after the last byte of the range.
+     * @return the end of the range (exclusive)
+     */
+    public long getEnd()
+    {
+        return offset + length;
+    }
+
+    /**
+     * Groups ranges which are adjacent or separated by small gaps, so that each
+     * group can be read with a single request.
+     * @param ranges the ranges, in any order
+     * @param maxGap the largest number of unwanted bytes to read between two
+     * ranges of a group
+     * @param maxLength the largest length of a group, unless a single range is
+     * longer
+     * @return the groups, in file order, each holding its ranges in file order
+     */
+    public static List<List<ByteRange>> coalesce(List<ByteRange> ranges, long maxGap, long maxLength)
+    {
+        List<ByteRange> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingLong(ByteRange::getOffset));
+        List<List<ByteRange>> groups = new ArrayList<>();
+        List<ByteRange> group = null;
+        long start = 0;
+        long end = 0;
+        for (ByteRange range : sorted)
+        {
+            long newEnd = Math.max(end, range.getEnd());
+            if (group == null || range.offset - end > maxGap || newEnd - start > maxLength)
+            {
+                group = new ArrayList<>();
+                groups.add(group);
+                start = range.offset;
+                newEnd = range.getEnd();
+            }
+            group.add(range);
+            end = newEnd;
+        }
+        return groups;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (!(obj instanceof ByteRange)) return false;
+        ByteRange range = (ByteRange) obj;
+        return offset == range.offset && length == range.length;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Long.hashCode(offset) * 31 + Long.hashCode(length);
+    }
+
+    @Override
+    public String toString()
+    {
+        return offset + "+" + length;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+/**
+ * A buffered stream over a file channel which can be moved to any position of
+ * the file, so that the headers of many records can be read with one stream and
+ * one buffer. The stream does not close the channel.
+ */
+class ChannelInputStream extends BufferedInputStream
+{
+    private final FileChannel channel;
+
+    ChannelInputStream(FileChannel channel)
+    {
+        super(Channels.newInputStream(channel));
+        this.channel = channel;
+    }
+
+    /**
+     * Moves the stream to the given position, discarding any buffered data.
+     * @param position the position within the file
+     * @throws IOException if the position cannot be set
+     */
+    void seek(long position) throws IOException
+    {
+        channel.position(position);
+        pos = 0;
+        count = 0;
+        markpos = -1;
+    }
+
+    /**
+     * Does nothing, since the channel belongs to the caller.
+     */
+    @Override
+    public void close()
+    {
+    }
+}
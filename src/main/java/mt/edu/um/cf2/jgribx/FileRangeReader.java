@@ -0,0 +1,73 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads ranges of a local file. Ranges are read with positional reads, so any
+ * number of threads can read from the same instance.
+ */
+public class FileRangeReader implements RangeReader
+{
+    private final File file;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+
+    /**
+     * Opens a file for reading.
+     * @param file the file
+     * @throws IOException if the file cannot be opened
+     */
+    public FileRangeReader(File file) throws IOException
+    {
+        this.file = file;
+        raf = new RandomAccessFile(file, "r");
+        channel = raf.getChannel();
+    }
+
+    @Override
+    public long getLength() throws IOException
+    {
+        return channel.size();
+    }
+
+    @Override
+    public byte[] read(long offset, int length) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer, offset + buffer.position()) < 0)
+            {
+                throw new EOFException("Range " + offset + "+" + length + " extends past the end of " + file);
+            }
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public String getSource()
+    {
+        return file.getPath();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        raf.close();
+    }
+}
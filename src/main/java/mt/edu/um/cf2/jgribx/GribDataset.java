@@ -0,0 +1,711 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+
+/**
+ * A collection of GRIB files which can be queried as a single dataset, e.g. a
+ * forecast stored as one file per lead time.
+ * <p>
+ * When a dataset is created, the headers of every record are read to build an
+ * index of the parameter, level, reference time and forecast time of each record,
+ * together with its location (file and byte offset). The data of a record is
+ * only read and decoded when the record is requested. At most a fixed number of
+ * files are kept open at any time; the least recently used file is closed when
+ * another one needs to be opened.
+ * </p>
+ * The index is not modified once the dataset has been created, so a dataset
+ * may be queried by several threads at once.
+ */
+public class GribDataset implements Closeable
+{
+    /**
+     * Default maximum number of files kept open at any time.
+     */
+    public static final int DEFAULT_MAX_OPEN_FILES = 16;
+
+
+    private final List<File> files;
+    private final List<Entry> entries = new ArrayList<>();
+    /**
+     * The entries of each parameter and level, keyed as in
+     * {@link #seriesKey(String, String, Float)}, sorted by forecast time and
+     * holding only the latest reference time for each forecast time.
+     */
+    private final Map<String, List<Entry>> series = new HashMap<>();
+    private final FilePool pool;
+    private int nRecordsSkipped;
+
+    /**
+     * Constructs a {@link GribDataset} from all the files within a directory.
+     * @param directory the directory containing the GRIB files
+     * @throws IOException if the directory or one of its files cannot be read
+     */
+    public GribDataset(File directory) throws IOException
+    {
+        this(directory, "*");
+    }
+
+    /**
+     * Constructs a {@link GribDataset} from the files within a directory whose
+     * names match a glob pattern (e.g. {@code "gfs.t00z.pgrb2.0p25.f*"}).
+     * @param directory the directory containing the GRIB files
+     * @param glob the glob pattern which file names must match
+     * @throws IOException if the directory or one of its files cannot be read
+     */
+    public GribDataset(File directory, String glob) throws IOException
+    {
+        this(listFiles(directory, glob), DEFAULT_MAX_OPEN_FILES);
+    }
+
+    /**
+     * Constructs a {@link GribDataset} from the given files.
+     * @param files the GRIB files
+     * @param maxOpenFiles the maximum number of files kept open at any time
+     * @throws IOException if one of the files cannot be read
+     */
+    public GribDataset(List<File> files, int maxOpenFiles) throws IOException
+    {
+        if (maxOpenFiles < 1)
+        {
+            throw new IllegalArgumentException("At least one file must be allowed to be open");
+        }
+        this.files = Collections.unmodifiableList(new ArrayList<>(files));
+        this.pool = new FilePool(maxOpenFiles);
+
+        for (File file : this.files)
+        {
+            indexFile(file);
+        }
+        Collections.sort(entries, Entry.BY_TIME);
+        for (Entry entry : entries)
+        {
+            addToSeries(seriesKey(entry.parameterCode, entry.levelCode, null), entry);
+            if (entry.levelValues.length > 0)
+            {
+                addToSeries(seriesKey(entry.parameterCode, entry.levelCode, entry.levelValues[0]), entry);
+            }
+        }
+        Logger.println("Indexed " + entries.size() + " records in " + files.size() + " files", Logger.INFO);
+    }
+
+    private static List<File> listFiles(File directory, String glob) throws IOException
+    {
+        File[] contents = directory.listFiles();
+        if (contents == null)
+        {
+            throw new FileNotFoundException("Cannot list directory " + directory);
+        }
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        List<File> files = new ArrayList<>();
+        for (File file : contents)
+        {
+            if (file.isFile() && matcher.matches(Paths.get(file.getName())))
+            {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * Reads the headers of all the records within a file and adds them to the index.
+     */
+    private void indexFile(File file) throws IOException
+    {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            long fileLength = raf.length();
+            long fileModified = file.lastModified();
+            long offset = findRecordStart(raf, 0);
+            ChannelInputStream stream = new ChannelInputStream(raf.getChannel());
+            while (offset >= 0 && offset < fileLength)
+            {
+                stream.seek(offset);
+                GribInputStream in = new GribInputStream(stream);
+                long next;
+                try
+                {
+                    GribRecord record = GribRecord.readFromStream(in, false);
+                    long length = record.getIS().getRecordLength();
+                    entries.add(new Entry(file, fileModified, fileLength, offset, length, record));
+                    next = offset + length;
+                }
+                catch (NotSupportedException | NoValidGribException | EOFException e)
+                {
+                    Logger.println("Skipping GRIB record at offset " + offset + " of " + file + " ("
+                            + e.getMessage() + ")", Logger.WARNING);
+                    JGribX.getMetrics().recordSkipped(e.getClass().getSimpleName());
+                    nRecordsSkipped++;
+                    next = offset + GribScanner.START_CODE.length;
+                }
+                offset = findRecordStart(raf, next);
+            }
+        }
+    }
+
+    /**
+     * Adds an entry to the end of a series, replacing the last entry if both
+     * have the same forecast time and the new one has a later reference time.
+     * Entries must be added in order of forecast and reference time.
+     */
+    private void addToSeries(String key, Entry entry)
+    {
+        List<Entry> matches = series.get(key);
+        if (matches == null)
+        {
+            matches = new ArrayList<>();
+            series.put(key, matches);
+        }
+        int last = matches.size() - 1;
+        if (last >= 0 && matches.get(last).forecastTime == entry.forecastTime)
+        {
+            if (entry.referenceTime > matches.get(last).referenceTime)
+            {
+                matches.set(last, entry);
+            }
+        }
+        else
+        {
+            matches.add(entry);
+        }
+    }
+
+    /**
+     * Returns the key of a series within {@link #series}. Series without a
+     * level value hold the entries of all the values of the level.
+     */
+    private static String seriesKey(String parameterCode, String levelCode, Float levelValue)
+    {
+        // Adding zero turns -0.0 into 0.0, the two being equal as levels
+        return levelValue == null
+                ? parameterCode + ":" + levelCode
+                : parameterCode + ":" + levelCode + ":" + (levelValue + 0.0f);
+    }
+
+    /**
+     * Returns the offset of the first valid record at or after the given offset,
+     * or -1 if there is none.
+     */
+    private static long findRecordStart(RandomAccessFile raf, long from) throws IOException
+    {
+        long start = GribScanner.findRecordStart(raf, from);
+        if (start > from)
+        {
+            Logger.println(Logger.DEBUG, "Extra %d bytes were found before record at offset %d", start - from, start);
+        }
+        return start;
+    }
+
+    /**
+     * Returns the files making up this dataset.
+     * @return the files
+     */
+    public List<File> getFiles()
+    {
+        return files;
+    }
+
+    /**
+     * Returns the index entries of all the records, sorted by forecast time.
+     * @return the index entries
+     */
+    public List<Entry> getEntries()
+    {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Returns the index entries matching the given parameter and level, sorted
+     * by forecast time. If several records exist for the same forecast time,
+     * only the one with the latest reference time is returned.
+     * @param parameterAbbrev the parameter code, e.g. "TMP"
+     * @param levelCode the level, e.g. "ISBL:850" or "SFC"
+     * @return the matching entries
+     */
+    public List<Entry> getEntries(String parameterAbbrev, String levelCode)
+    {
+        Matcher matcher = GribFile.LEVEL_PATTERN.matcher(levelCode);
+        if (!matcher.find())
+        {
+            return new ArrayList<>();
+        }
+        Float levelValue = matcher.group(2) == null ? null : (float) Integer.parseInt(matcher.group(2));
+        List<Entry> matches = series.get(seriesKey(parameterAbbrev, matcher.group(1), levelValue));
+        return matches == null ? new ArrayList<>() : new ArrayList<>(matches);
+    }
+
+    /**
+     * Returns the records matching the given parameter and level, sorted by
+     * forecast time. This reads and decodes each of the records.
+     * @param parameterAbbrev the parameter code, e.g. "TMP"
+     * @param levelCode the level, e.g. "ISBL:850" or "SFC"
+     * @return the matching records
+     * @throws IOException if a record cannot be read
+     * @throws NotSupportedException if a record contains features not yet supported
+     * @throws NoValidGribException if a record is not valid
+     */
+    public List<GribRecord> getRecords(String parameterAbbrev, String levelCode)
+            throws IOException, NotSupportedException, NoValidGribException
+    {
+        List<GribRecord> records = new ArrayList<>();
+        for (Entry entry : getEntries(parameterAbbrev, levelCode))
+        {
+            records.add(getRecord(entry));
+        }
+        return records;
+    }
+
+    /**
+     * Search for a record using the forecast time, parameter and level, in the
+     * same way as {@link GribFile#getRecord(Calendar, String, String)}.
+     * @param time Forecast time to search for
+     * @param parameterAbbrev Parameter to search for
+     * @param levelCode Level to search for
+     * @return The found record, null if no record has been found
+     * @throws IOException if the record cannot be read
+     * @throws NotSupportedException if the record contains features not yet supported
+     * @throws NoValidGribException if the record is not valid
+     */
+    public GribRecord getRecord(Calendar time, String parameterAbbrev, String levelCode)
+            throws IOException, NotSupportedException, NoValidGribException
+    {
+        Entry closest = null;
+        long deltaMin_ms = Long.MAX_VALUE;
+        for (Entry entry : getEntries(parameterAbbrev, levelCode))
+        {
+            long delta_ms = Math.abs(time.getTimeInMillis() - entry.forecastTime);
+            if (delta_ms < deltaMin_ms)
+            {
+                deltaMin_ms = delta_ms;
+                closest = entry;
+            }
+        }
+        return closest == null ? null : getRecord(closest);
+    }
+
+    /**
+     * Extracts the values of a parameter at a single location for all the
+     * forecast times within the dataset. Only the records matching the
+     * parameter and level are read.
+     * If several records exist for the same forecast time, the one with the
+     * latest reference time is used.
+     * @param parameterAbbrev the parameter code, e.g. "TMP"
+     * @param levelCode the level, e.g. "ISBL:850" or "SFC"
+     * @param latitude the latitude of the location (units: degrees)
+     * @param longitude the longitude of the location (units: degrees)
+     * @return the time series
+     * @throws IOException if a record cannot be read
+     * @throws NotSupportedException if a record contains features not yet supported
+     * @throws NoValidGribException if a record is not valid
+     */
+    public GribTimeSeries extractTimeSeries(String parameterAbbrev, String levelCode, double latitude, double longitude)
+            throws IOException, NotSupportedException, NoValidGribException
+    {
+        return extractTimeSeries(parameterAbbrev, levelCode, new double[] {latitude}, new double[] {longitude})[0];
+    }
+
+    /**
+     * Extracts the values of a parameter at several locations for all the
+     * forecast times within the dataset, reading and decoding each matching
+     * record only once.
+     * @param parameterAbbrev the parameter code, e.g. "TMP"
+     * @param levelCode the level, e.g. "ISBL:850" or "SFC"
+     * @param latitudes the latitude of each location (units: degrees)
+     * @param longitudes the longitude of each location (units: degrees)
+     * @return the time series for each location
+     * @throws IOException if a record cannot be read
+     * @throws NotSupportedException if a record contains features not yet supported
+     * @throws NoValidGribException if a record is not valid
+     * @see #extractTimeSeries(String, String, double, double)
+     */
+    public GribTimeSeries[] extractTimeSeries(String parameterAbbrev, String levelCode, double[] latitudes, double[] longitudes)
+            throws IOException, NotSupportedException, NoValidGribException
+    {
+        if (latitudes.length != longitudes.length)
+        {
+            throw new IllegalArgumentException("Number of latitudes (" + latitudes.length
+                    + ") and longitudes (" + longitudes.length + ") do not match");
+        }
+        List<Entry> series = getEntries(parameterAbbrev, levelCode);
+        long[] times = new long[series.size()];
+        float[][] values = new float[latitudes.length][series.size()];
+        for (int t = 0; t < times.length; t++)
+        {
+            Entry entry = series.get(t);
+            times[t] = entry.forecastTime;
+            GribRecord record = getRecord(entry);
+            for (int k = 0; k < latitudes.length; k++)
+            {
+                values[k][t] = (float) record.getValue(latitudes[k], longitudes[k]);
+            }
+        }
+
+        GribTimeSeries[] result = new GribTimeSeries[latitudes.length];
+        for (int k = 0; k < result.length; k++)
+        {
+            result[k] = new GribTimeSeries(times, values[k]);
+        }
+        return result;
+    }
+
+    /**
+     * Reads and decodes the record at the location given by an index entry.
+     * Decoded records are kept in the shared {@link GribFieldCache}, so
+     * subsequent requests for the same record (including those from other
+     * datasets on the same file) are served from memory. This method may be
+     * called concurrently; each record is only decoded once.
+     * @param entry the index entry
+     * @return the record
+     * @throws IOException if the record cannot be read
+     * @throws NotSupportedException if the record contains features not yet supported
+     * @throws NoValidGribException if the record is not valid
+     */
+    public GribRecord getRecord(Entry entry) throws IOException, NotSupportedException, NoValidGribException
+    {
+        GribFieldCache cache = GribFieldCache.getInstance();
+        // Threads requesting the same record wait for a single decode
+        synchronized (entry.decodeLock)
+        {
+            GribRecord record = cache.get(entry.file, entry.fileModified, entry.fileLength, entry.offset);
+            if (record == null)
+            {
+                byte[] octets = pool.read(entry.file, entry.offset, (int) entry.length);
+                record = GribRecord.readFromStream(new GribInputStream(new ByteArrayInputStream(octets)));
+                cache.put(entry.file, entry.fileModified, entry.fileLength, entry.offset, record);
+            }
+            return record;
+        }
+    }
+
+    /**
+     * Returns a sorted list of the different forecast times within the dataset.
+     * @return a sorted list of the different forecast times
+     */
+    public List<Calendar> getForecastTimes()
+    {
+        List<Calendar> times = new ArrayList<>();
+        long last = Long.MIN_VALUE;
+        for (Entry entry : entries)
+        {
+            if (entry.forecastTime != last)
+            {
+                times.add(entry.getForecastTime());
+                last = entry.forecastTime;
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Returns a sorted list of the different parameter codes within the dataset.
+     * @return a sorted list of the different parameter codes
+     */
+    public List<String> getParameterCodes()
+    {
+        TreeSet<String> codes = new TreeSet<>();
+        for (Entry entry : entries)
+        {
+            codes.add(entry.parameterCode);
+        }
+        return new ArrayList<>(codes);
+    }
+
+    /**
+     * Returns the number of records within the dataset.
+     * @return the number of records
+     */
+    public int getRecordCount()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of records skipped due to them being invalid or not
+     * supported.
+     * @return the number of records skipped
+     */
+    public int getRecordsSkippedCount()
+    {
+        return nRecordsSkipped;
+    }
+
+    /**
+     * Closes all the files which are currently open. Files are reopened if
+     * further records are requested. Files being read are closed once their
+     * reads complete, and files which cannot be closed are logged.
+     * @throws IOException never thrown, but required by {@link Closeable}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        pool.closeAll();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "GRIB dataset (" + entries.size() + " records in " + files.size() + " files)";
+    }
+
+    /**
+     * The location and identifying information of a record within a {@link GribDataset}.
+     */
+    public static class Entry
+    {
+        private static final Comparator<Entry> BY_TIME = new Comparator<Entry>()
+        {
+            @Override
+            public int compare(Entry a, Entry b)
+            {
+                int result = Long.compare(a.forecastTime, b.forecastTime);
+                if (result == 0) result = Long.compare(a.referenceTime, b.referenceTime);
+                return result;
+            }
+        };
+
+        private final File file;
+        private final long fileModified;
+        private final long fileLength;
+        private final long offset;
+        private final long length;
+        private final int edition;
+        private final String parameterCode;
+        private final String levelCode;
+        private final float[] levelValues;
+        private final long referenceTime;
+        private final long forecastTime;
+
+        /**
+         * Held while the record is decoded. This is not the entry itself, which
+         * callers may also lock.
+         */
+        private final Object decodeLock = new Object();
+
+        private Entry(File file, long fileModified, long fileLength, long offset, long length, GribRecord record)
+        {
+            this.file = file;
+            this.fileModified = fileModified;
+            this.fileLength = fileLength;
+            this.offset = offset;
+            this.length = length;
+            this.edition = record.getIS().getGribEdition();
+            this.parameterCode = record.getParameterCode();
+            this.levelCode = record.getLevelCode();
+            this.levelValues = record.getLevelValues();
+            this.referenceTime = record.getReferenceTimeMillis();
+            this.forecastTime = record.getForecastTimeMillis();
+        }
+
+        public File getFile()
+        {
+            return file;
+        }
+
+        /**
+         * Returns the offset of the record within its file.
+         * @return the offset (units: bytes)
+         */
+        public long getOffset()
+        {
+            return offset;
+        }
+
+        /**
+         * Returns the length of the record.
+         * @return the length (units: bytes)
+         */
+        public long getLength()
+        {
+            return length;
+        }
+
+        public int getEdition()
+        {
+            return edition;
+        }
+
+        public String getParameterCode()
+        {
+            return parameterCode;
+        }
+
+        public String getLevelCode()
+        {
+            return levelCode;
+        }
+
+        public float[] getLevelValues()
+        {
+            return levelValues.clone();
+        }
+
+        public Calendar getReferenceTime()
+        {
+            return GribRecord.toCalendar(referenceTime);
+        }
+
+        /**
+         * Returns the reference time of the record.
+         * @return the reference time (units: milliseconds since 1970-01-01T00:00:00Z)
+         */
+        public long getReferenceTimeMillis()
+        {
+            return referenceTime;
+        }
+
+        public Calendar getForecastTime()
+        {
+            return GribRecord.toCalendar(forecastTime);
+        }
+
+        /**
+         * Returns the forecast time of the record.
+         * @return the forecast time (units: milliseconds since 1970-01-01T00:00:00Z)
+         */
+        public long getForecastTimeMillis()
+        {
+            return forecastTime;
+        }
+
+        @Override
+        public String toString()
+        {
+            return parameterCode + " " + levelCode + Arrays.toString(levelValues) + " @ " + file.getName() + ":" + offset;
+        }
+    }
+
+    /**
+     * A bounded pool of open files, closing the least recently used file when
+     * the pool is full.
+     * <p>
+     * The pool is only locked to look up and count the users of a file. Reads
+     * are positional, so they are made concurrently, even on the same file. A
+     * file which is evicted while being read is closed by its last reader.
+     * </p>
+     */
+    private static class FilePool
+    {
+        private final Map<File, Handle> open;
+
+        private static class Handle
+        {
+            private final RandomAccessFile raf;
+            private final FileChannel channel;
+            private int users;
+            private boolean evicted;
+
+            private Handle(File file) throws IOException
+            {
+                raf = new RandomAccessFile(file, "r");
+                channel = raf.getChannel();
+            }
+
+            private void close(File file)
+            {
+                try
+                {
+                    raf.close();
+                }
+                catch (IOException e)
+                {
+                    Logger.println("Cannot close " + file + ": " + e.getMessage(), Logger.WARNING);
+                }
+            }
+        }
+
+        private FilePool(final int maxOpenFiles)
+        {
+            open = new LinkedHashMap<File, Handle>(16, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<File, Handle> eldest)
+                {
+                    if (size() <= maxOpenFiles) return false;
+                    evict(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+            };
+        }
+
+        private static void evict(File file, Handle handle)
+        {
+            handle.evicted = true;
+            if (handle.users == 0) handle.close(file);
+        }
+
+        private synchronized Handle acquire(File file) throws IOException
+        {
+            Handle handle = open.get(file);
+            if (handle == null)
+            {
+                handle = new Handle(file);
+                open.put(file, handle);
+            }
+            handle.users++;
+            return handle;
+        }
+
+        private synchronized void release(File file, Handle handle)
+        {
+            handle.users--;
+            if (handle.evicted && handle.users == 0) handle.close(file);
+        }
+
+        private byte[] read(File file, long offset, int length) throws IOException
+        {
+            Handle handle = acquire(file);
+            try
+            {
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                while (buffer.hasRemaining())
+                {
+                    if (handle.channel.read(buffer, offset + buffer.position()) < 0)
+                    {
+                        throw new EOFException("Record at offset " + offset + " extends past the end of " + file);
+                    }
+                }
+                return buffer.array();
+            }
+            finally
+            {
+                release(file, handle);
+            }
+        }
+
+        private synchronized void closeAll()
+        {
+            for (Map.Entry<File, Handle> entry : open.entrySet())
+            {
+                evict(entry.getKey(), entry.getValue());
+            }
+            open.clear();
+        }
+    }
+}
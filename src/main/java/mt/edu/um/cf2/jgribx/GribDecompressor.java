@@ -0,0 +1,153 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Detects compressed GRIB files and decompresses them on the fly.
+ * <p>
+ * The compression format is recognised by the magic number at the start of the
+ * stream. Decompression runs in a background thread, a block ahead of the
+ * records being decoded, so that decompressing and decoding overlap.
+ * </p>
+ * Gzip is supported by the JDK. Bzip2 and Zstandard are supported if Apache
+ * Commons Compress (and, for Zstandard, zstd-jni) is on the class path;
+ * otherwise such files are rejected with a {@link NotSupportedException}.
+ */
+public final class GribDecompressor
+{
+    /**
+     * The size of the blocks passed from the decompressing thread.
+     */
+    static final int BLOCK_SIZE = 256 * 1024;
+
+    /**
+     * The number of blocks decompressed ahead of the decoder.
+     */
+    static final int DEPTH = 4;
+
+    private static final int MAGIC_LENGTH = 4;
+
+    /**
+     * The compression formats which can be detected.
+     */
+    public enum Format
+    {
+        NONE(null),
+        GZIP(null),
+        BZIP2("org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream"),
+        ZSTD("org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream");
+
+        private final String streamClass;
+
+        Format(String streamClass)
+        {
+            this.streamClass = streamClass;
+        }
+    }
+
+    private GribDecompressor()
+    {
+    }
+
+    /**
+     * Detects the compression format of a stream from its first bytes. The
+     * stream is reset to its original position.
+     * @param in the stream, which must support mark/reset
+     * @return the compression format, or {@link Format#NONE} if the stream is
+     * not compressed
+     * @throws IOException if the stream cannot be read
+     */
+    public static Format detect(InputStream in) throws IOException
+    {
+        byte[] magic = new byte[MAGIC_LENGTH];
+        in.mark(MAGIC_LENGTH);
+        int n = 0;
+        int read;
+        while (n < MAGIC_LENGTH && (read = in.read(magic, n, MAGIC_LENGTH - n)) > 0)
+        {
+            n += read;
+        }
+        in.reset();
+
+        if (n >= 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B)
+        {
+            return Format.GZIP;
+        }
+        if (n >= 4 && magic[0] == 'B' && magic[1] == 'Z' && magic[2] == 'h' && magic[3] >= '1' && magic[3] <= '9')
+        {
+            return Format.BZIP2;
+        }
+        if (n >= 4 && (magic[0] & 0xFF) == 0x28 && (magic[1] & 0xFF) == 0xB5 && (magic[2] & 0xFF) == 0x2F
+                && (magic[3] & 0xFF) == 0xFD)
+        {
+            return Format.ZSTD;
+        }
+        return Format.NONE;
+    }
+
+    /**
+     * Returns a stream of the decompressed content of a stream, or of the
+     * stream itself if it is not compressed.
+     * @param in the stream
+     * @return a buffered stream of GRIB content
+     * @throws IOException if the stream cannot be read
+     * @throws NotSupportedException if the stream is compressed in a format
+     * whose decompressor is not available
+     */
+    public static InputStream decompress(InputStream in) throws IOException, NotSupportedException
+    {
+        InputStream buffered = new BufferedInputStream(in);
+        Format format = detect(buffered);
+        if (format == Format.NONE)
+        {
+            return buffered;
+        }
+        Logger.println(Logger.INFO, "Decompressing %s stream", format);
+        InputStream decompressing;
+        if (format == Format.GZIP)
+        {
+            decompressing = new GZIPInputStream(buffered, BLOCK_SIZE);
+        }
+        else
+        {
+            decompressing = open(format, buffered);
+        }
+        return new BufferedInputStream(new ReadAheadInputStream(decompressing, BLOCK_SIZE, DEPTH,
+                "jgribx-" + format.name().toLowerCase()));
+    }
+
+    private static InputStream open(Format format, InputStream in) throws IOException, NotSupportedException
+    {
+        try
+        {
+            return (InputStream) Class.forName(format.streamClass).getConstructor(InputStream.class).newInstance(in);
+        }
+        catch (InvocationTargetException e)
+        {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            if (e.getCause() instanceof LinkageError)
+            {
+                throw new NotSupportedException(format + " decompressor is missing a dependency: " + e.getCause());
+            }
+            throw new NotSupportedException(format + " decompression failed: " + e.getCause());
+        }
+        catch (ReflectiveOperationException | LinkageError e)
+        {
+            throw new NotSupportedException(format + " compressed files require Apache Commons Compress");
+        }
+    }
+}
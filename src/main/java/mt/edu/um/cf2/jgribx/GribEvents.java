@@ -0,0 +1,140 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+/**
+ * Emits profiling events around file opening, record reading, data unpacking
+ * and JPEG2000 decoding.
+ * <p>
+ * When running on Java 11 or later, the events are JDK Flight Recorder events
+ * (named {@code jgribx.*}, in the JGribX category), which are recorded whenever
+ * a flight recording with these events enabled is running. The event classes
+ * are compiled separately, since JGribX itself runs on Java 8; where they are
+ * not available, every method of this class does nothing.
+ * </p>
+ * Each {@code begin} method returns an event handle, which may be {@code null}
+ * if the event is disabled, and which must be passed to the matching
+ * {@code end} method. Events of operations which fail are not recorded.
+ */
+public final class GribEvents
+{
+    private static final String RECORDER_CLASS = "mt.edu.um.cf2.jgribx.jfr.JfrRecorder";
+
+    /**
+     * Creates and commits the events. Implemented by the Flight Recorder support.
+     */
+    public interface Recorder
+    {
+        Object beginFileOpen();
+        void endFileOpen(Object event, String source, int nRecords, int nRecordsSkipped);
+        Object beginRecordRead();
+        void endRecordRead(Object event, int edition, long recordLength, boolean readData);
+        Object beginUnpack();
+        void endUnpack(Object event, String packingType, int bitWidth, int nPoints);
+        Object beginJpeg2000();
+        void endJpeg2000(Object event, int nBytes, int nPoints);
+    }
+
+    private static final Recorder recorder = loadRecorder();
+
+    private GribEvents()
+    {
+    }
+
+    private static Recorder loadRecorder()
+    {
+        try
+        {
+            Class.forName("jdk.jfr.Event");
+            return (Recorder) Class.forName(RECORDER_CLASS).getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | LinkageError e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether Flight Recorder events can be emitted in this runtime.
+     * @return {@code true} if the events are available
+     */
+    public static boolean isAvailable()
+    {
+        return recorder != null;
+    }
+
+    public static Object beginFileOpen()
+    {
+        return recorder != null ? recorder.beginFileOpen() : null;
+    }
+
+    /**
+     * Ends a file open event.
+     * @param event the event handle
+     * @param source the path of the file, or {@code null} if read from a stream
+     * @param nRecords the number of records read
+     * @param nRecordsSkipped the number of records skipped
+     */
+    public static void endFileOpen(Object event, String source, int nRecords, int nRecordsSkipped)
+    {
+        if (event != null) recorder.endFileOpen(event, source, nRecords, nRecordsSkipped);
+    }
+
+    public static Object beginRecordRead()
+    {
+        return recorder != null ? recorder.beginRecordRead() : null;
+    }
+
+    /**
+     * Ends a record read event.
+     * @param event the event handle
+     * @param edition the GRIB edition of the record
+     * @param recordLength the length of the record (units: bytes)
+     * @param readData whether the data of the record was decoded
+     */
+    public static void endRecordRead(Object event, int edition, long recordLength, boolean readData)
+    {
+        if (event != null) recorder.endRecordRead(event, edition, recordLength, readData);
+    }
+
+    public static Object beginUnpack()
+    {
+        return recorder != null ? recorder.beginUnpack() : null;
+    }
+
+    /**
+     * Ends a data unpacking event.
+     * @param event the event handle
+     * @param packingType the packing of the data, as passed to {@link JGribXMetrics#recordDecoded}
+     * @param bitWidth the number of bits per packed value
+     * @param nPoints the number of points unpacked
+     */
+    public static void endUnpack(Object event, String packingType, int bitWidth, int nPoints)
+    {
+        if (event != null) recorder.endUnpack(event, packingType, bitWidth, nPoints);
+    }
+
+    public static Object beginJpeg2000()
+    {
+        return recorder != null ? recorder.beginJpeg2000() : null;
+    }
+
+    /**
+     * Ends a JPEG2000 decoding event.
+     * @param event the event handle
+     * @param nBytes the length of the code stream (units: bytes)
+     * @param nPoints the number of values decoded
+     */
+    public static void endJpeg2000(Object event, int nBytes, int nPoints)
+    {
+        if (event != null) recorder.endJpeg2000(event, nBytes, nPoints);
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of decoded records, shared by all the {@link GribDataset} instances
+ * within the process, so that frequently requested fields are only read and
+ * decoded once. Records of a {@link GribFile} are not cached, since a file
+ * keeps all of its records in memory already.
+ * <p>
+ * Records are identified by the path, modification time and length of their
+ * file and the byte offset of the record within it, so a record is decoded
+ * again if its file is changed. The size of each record is estimated from the
+ * number of values it holds, and the least recently used records are evicted
+ * once the total size exceeds the budget. The records are kept in order of
+ * use, so that each addition only visits the records it evicts. All methods
+ * are thread-safe.
+ * </p>
+ * Records returned by the cache are shared, so the arrays returned by
+ * {@link GribRecord#getValues()} must not be modified.
+ */
+public class GribFieldCache
+{
+    /**
+     * Default budget of the shared cache (units: bytes).
+     */
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final GribFieldCache instance = new GribFieldCache(DEFAULT_MAX_BYTES);
+
+    /** In order of use, starting from the least recently used. Guarded by this cache. */
+    private final LinkedHashMap<Key, Node> nodes = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxBytes;
+    private long size;
+    private long nHits;
+    private long nMisses;
+    private long nEvictions;
+
+    /**
+     * Constructs an empty {@link GribFieldCache}.
+     * @param maxBytes the budget of the cache (units: bytes)
+     */
+    public GribFieldCache(long maxBytes)
+    {
+        setMaxBytes(maxBytes);
+    }
+
+    /**
+     * Returns the cache shared by all datasets.
+     * @return the shared cache
+     */
+    public static GribFieldCache getInstance()
+    {
+        return instance;
+    }
+
+    /**
+     * Returns the cached record at the given location of a file.
+     * @param file the file holding the record
+     * @param fileModified the modification time of the file when it was indexed
+     * @param fileLength the length of the file when it was indexed (units: bytes)
+     * @param offset the offset of the record within the file (units: bytes)
+     * @return the record, or {@code null} if it is not cached
+     */
+    GribRecord get(File file, long fileModified, long fileLength, long offset)
+    {
+        Key key = new Key(file, fileModified, fileLength, offset);
+        synchronized (this)
+        {
+            Node node = nodes.get(key);
+            if (node == null)
+            {
+                nMisses++;
+                return null;
+            }
+            nHits++;
+            return node.record;
+        }
+    }
+
+    /**
+     * Adds a decoded record to the cache, evicting the least recently used
+     * records if the budget is exceeded. Records larger than the whole budget
+     * are not cached.
+     * @param file the file holding the record
+     * @param fileModified the modification time of the file when it was indexed
+     * @param fileLength the length of the file when it was indexed (units: bytes)
+     * @param offset the offset of the record within the file (units: bytes)
+     * @param record the decoded record
+     */
+    void put(File file, long fileModified, long fileLength, long offset, GribRecord record)
+    {
+        long weight = getWeight(record);
+        Key key = new Key(file, fileModified, fileLength, offset);
+        Node node = new Node(record, weight);
+        synchronized (this)
+        {
+            if (weight > maxBytes) return;
+            Node previous = nodes.put(key, node);
+            if (previous != null) size -= previous.weight;
+            size += weight;
+            evict();
+        }
+    }
+
+    private static long getWeight(GribRecord record)
+    {
+        float[] values = record.getValues();
+        return values != null ? 4L * values.length : record.getIS().getRecordLength();
+    }
+
+    /**
+     * Removes the least recently used records until the budget is met. Must be
+     * called while holding the lock of this cache.
+     */
+    private void evict()
+    {
+        Iterator<Map.Entry<Key, Node>> lru = nodes.entrySet().iterator();
+        while (size > maxBytes && lru.hasNext())
+        {
+            size -= lru.next().getValue().weight;
+            lru.remove();
+            nEvictions++;
+        }
+    }
+
+    /**
+     * Sets the budget of the cache, evicting records if it is exceeded.
+     * A budget of zero disables the cache.
+     * @param maxBytes the budget (units: bytes)
+     */
+    public synchronized void setMaxBytes(long maxBytes)
+    {
+        if (maxBytes < 0)
+        {
+            throw new IllegalArgumentException("Invalid cache budget: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    public synchronized long getMaxBytes()
+    {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the estimated size of the records held in the cache.
+     * @return the size (units: bytes)
+     */
+    public synchronized long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the number of records held in the cache.
+     * @return the number of records
+     */
+    public synchronized int getRecordCount()
+    {
+        return nodes.size();
+    }
+
+    public synchronized long getHitCount()
+    {
+        return nHits;
+    }
+
+    public synchronized long getMissCount()
+    {
+        return nMisses;
+    }
+
+    public synchronized long getEvictionCount()
+    {
+        return nEvictions;
+    }
+
+    /**
+     * Returns the fraction of requests served from the cache.
+     * @return the hit rate, between 0 and 1
+     */
+    public synchronized double getHitRate()
+    {
+        long nRequests = nHits + nMisses;
+        return nRequests == 0 ? 0 : (double) nHits / nRequests;
+    }
+
+    /**
+     * Removes all records from the cache and resets its statistics.
+     */
+    public synchronized void clear()
+    {
+        nodes.clear();
+        size = 0;
+        nHits = 0;
+        nMisses = 0;
+        nEvictions = 0;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return "GRIB field cache (" + nodes.size() + " records, " + size + " of " + maxBytes + " bytes, "
+                + nHits + " hits, " + nMisses + " misses, " + nEvictions + " evictions)";
+    }
+
+    private static class Key
+    {
+        private final String path;
+        private final long fileModified;
+        private final long fileLength;
+        private final long offset;
+
+        private Key(File file, long fileModified, long fileLength, long offset)
+        {
+            this.path = file.getAbsolutePath();
+            this.fileModified = fileModified;
+            this.fileLength = fileLength;
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof Key)) return false;
+            Key key = (Key) obj;
+            return offset == key.offset && fileModified == key.fileModified && fileLength == key.fileLength
+                    && path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int hash = 31 * path.hashCode() + Long.hashCode(fileModified);
+            hash = 31 * hash + Long.hashCode(fileLength);
+            return 31 * hash + Long.hashCode(offset);
+        }
+    }
+
+    private static class Node
+    {
+        private final GribRecord record;
+        private final long weight;
+
+        private Node(GribRecord record, long weight)
+        {
+            this.record = record;
+            this.weight = weight;
+        }
+    }
+}
@@ -13,10 +13,14 @@ package mt.edu.um.cf2.jgribx;
 import java.io.*;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,19 +32,29 @@ import java.util.regex.Pattern;
  * the underlying format of the records within the file. This means that this
  * class remains valid for all formats such as GRIB-1 and GRIB-2. 
  *
+ * All records are read and decoded when the file is constructed, after which
+ * neither the file nor its records are modified. A single instance can
+ * therefore be queried by any number of threads without external locking.
  */
 
 public class GribFile
 {
+    /**
+     * Matches level codes such as "ISBL:200" and "SFC"
+     */
+    static final Pattern LEVEL_PATTERN = Pattern.compile("(\\w+)(?::(\\d+))?");
+
     private int nRecordsSkipped;
     
     /**
-     * List of GRIB records
+     * List of GRIB records, which cannot be modified once the file has been read
      */
-    private List<GribRecord> records;
+    private final List<GribRecord> records;
 
    /**
-    * Constructs a {@link GribFile} object from a file.
+    * Constructs a {@link GribFile} object from a file. Compressed files are
+    * decompressed on the fly, as described in {@link GribDecompressor}. The file
+    * is read ahead in a background thread, as set by {@link JGribX#setPrefetchDepth(int)}.
     *
     * @param filepath name of the GRIB file
     *
@@ -52,11 +66,35 @@ public class GribFile
     public GribFile(String filepath) throws FileNotFoundException,
         IOException, NotSupportedException, NoValidGribException
     {
-        this(new FileInputStream(filepath));
+        this(open(filepath), filepath);
+    }
+
+    /**
+     * Opens a file for reading, closing it again if it cannot be read.
+     */
+    private static GribInputStream open(String filepath) throws IOException, NotSupportedException
+    {
+        InputStream in = new FileInputStream(filepath);
+        int depth = JGribX.getPrefetchDepth();
+        if (depth > 0)
+        {
+            in = new ReadAheadInputStream(in, depth);
+        }
+        try
+        {
+            return new GribInputStream(GribDecompressor.decompress(in));
+        }
+        catch (IOException | NotSupportedException | RuntimeException e)
+        {
+            // also stops the read-ahead thread
+            in.close();
+            throw e;
+        }
     }
 
    /**
-    * Constructs a {@link GribFile} object from an input stream.
+    * Constructs a {@link GribFile} object from an input stream. Compressed
+    * streams are decompressed on the fly, as described in {@link GribDecompressor}.
     *
     * @param in input stream with GRIB content
     *
@@ -67,8 +105,8 @@ public class GribFile
    public GribFile(InputStream in) throws IOException,
           NotSupportedException, NoValidGribException
    {
-       // note: the BufferedInputStream enables mark/reset functionality
-       this(new GribInputStream(new BufferedInputStream(in)));
+       // note: the returned stream is buffered, which enables mark/reset functionality
+       this(new GribInputStream(GribDecompressor.decompress(in)), null);
    }
 
    /**
@@ -83,9 +121,17 @@ public class GribFile
     public GribFile(GribInputStream in) throws IOException,
           NotSupportedException, NoValidGribException
     {
+        this(in, null);
+    }
+
+    private GribFile(GribInputStream in, String source) throws IOException,
+          NotSupportedException, NoValidGribException
+    {
+        Object event = GribEvents.beginFileOpen();
+
         // Initialise fields
         nRecordsSkipped = 0;
-        records = new ArrayList();
+        List<GribRecord> recordList = new ArrayList<>();
 
         /*
         * Initialise the Parameter Tables with the information in the parameter
@@ -94,54 +140,67 @@ public class GribFile
         //GribPDSParamTable.readParameterTableLookup(); done in static initializer
 
         int count = 0;
-        while (in.available() > 0)
+        try
         {
-            count++;
-            GribRecord record;
-            try
+            while (in.available() > 0)
             {
-                Logger.println("Reading next record: " + count, Logger.DEBUG);
-                record = GribRecord.readFromStream(in);
-            }
-            catch (NotSupportedException|NoValidGribException e)
-            {
-                Logger.println("Skipping GRIB record "+count+" ("+e.getMessage()+")", Logger.WARNING);
-                nRecordsSkipped++;
-                // Skip to end of current record
+                count++;
+                GribRecord record;
                 try
                 {
-                    GribRecordES.seekNext(in);
+                    final int index = count;
+                    Logger.println(() -> "Reading next record: " + index, Logger.DEBUG);
+                    record = GribRecord.readFromStream(in);
                 }
-                catch (EOFException eofe)
+                catch (NotSupportedException|NoValidGribException e)
                 {
-                    Logger.println("EOFException while seeking ES: " + eofe.getMessage(), Logger.INFO);
+                    Logger.println("Skipping GRIB record "+count+" ("+e.getMessage()+")", Logger.WARNING);
+                    JGribX.getMetrics().recordSkipped(e.getClass().getSimpleName());
+                    nRecordsSkipped++;
+                    // Skip to end of current record
+                    try
+                    {
+                        GribRecordES.seekNext(in);
+                    }
+                    catch (EOFException eofe)
+                    {
+                        Logger.println("EOFException while seeking ES: " + eofe.getMessage(), Logger.INFO);
+                    }
+                    continue;
                 }
-                continue;
-            }
-            finally
-            {
-                try
+                finally
                 {
-                    GribRecordIS.seekNext(in);
+                    try
+                    {
+                        GribRecordIS.seekNext(in);
+                    }
+                    catch (EOFException ignored) {}
                 }
-                catch (EOFException ignored) {}
-            }
 
-            Logger.println("GRIB Record "+count, Logger.INFO);
-            Logger.println("\tReference Time: "+record.getReferenceTime().getTime().toString(), Logger.INFO);
-            Logger.println("\tForecast Time: " + record.getForecastTime().getTime().toString(), Logger.INFO);
-            Logger.println("\tParameter: "+record.getParameterCode()+" ("+record.getParameterDescription()+")", Logger.INFO);
-            Logger.println("\tLevel: "+record.getLevelCode()+" ("+record.getLevelDescription()+")", Logger.INFO);
+                if (Logger.isEnabled(Logger.INFO))
+                {
+                    Logger.println("GRIB Record "+count, Logger.INFO);
+                    Logger.println("\tReference Time: "+new Date(record.getReferenceTimeMillis()), Logger.INFO);
+                    Logger.println("\tForecast Time: " + new Date(record.getForecastTimeMillis()), Logger.INFO);
+                    Logger.println("\tParameter: "+record.getParameterCode()+" ("+record.getParameterDescription()+")", Logger.INFO);
+                    Logger.println("\tLevel: "+record.getLevelCode()+" ("+record.getLevelDescription()+")", Logger.INFO);
+                }
             
-            records.add(record);
+                recordList.add(record);
+            }
+        }
+        finally
+        {
+            // also stops any background decompression if reading fails
+            in.close();
         }
 
-        in.close();
-
-        if (records.isEmpty())
+        if (recordList.isEmpty())
            throw new NoValidGribException("No valid GRIB records found.");
         else
-            Logger.println("Reached end of file: "+records.size()+" of "+count+" records read successfully", Logger.INFO);
+            Logger.println("Reached end of file: "+recordList.size()+" of "+count+" records read successfully", Logger.INFO);
+        records = Collections.unmodifiableList(recordList);
+        GribEvents.endFileOpen(event, source, records.size(), nRecordsSkipped);
     }
     
     /**
@@ -181,27 +240,22 @@ public class GribFile
         return edition;
     }
 
+    /**
+     * Return a List of different forecast times present in the GRIB file.
+     * @return a sorted list of different forecast times
+     */
     public List<Calendar> getForecastTimes()
     {
-        boolean matchFound;
-        List<Calendar> forecastTimeList = new ArrayList();
+        TreeSet<Long> times = new TreeSet<>();
         for (GribRecord record : records)
         {
-            // Compare dates
-            matchFound = false;
-            for (Calendar forecastTime : forecastTimeList)
-            {
-                if (forecastTime.compareTo(record.getForecastTime()) == 0)
-                {
-                    matchFound = true;
-                    break;
-                }
-            }
-            if (!matchFound)
-                forecastTimeList.add(record.getForecastTime());
-            
+            times.add(record.getForecastTimeMillis());
+        }
+        List<Calendar> forecastTimeList = new ArrayList<>(times.size());
+        for (long time : times)
+        {
+            forecastTimeList.add(GribRecord.toCalendar(time));
         }
-        Collections.sort(forecastTimeList);
         return forecastTimeList;
     }
     
@@ -325,7 +379,7 @@ public class GribFile
    
     /**
      * Get all the records successfully read.
-     * @return 
+     * @return an unmodifiable list of the records
      */
     public List<GribRecord> getRecords()
     {
@@ -348,41 +402,221 @@ public class GribFile
     public GribRecord getRecord(Calendar time, String parameterAbbrev, String levelCode)
     {
         // Find closest forecast time
+        long time_ms = time.getTimeInMillis();
         long delta_ms;
         long deltaMin_ms = Long.MAX_VALUE;
-        Calendar closestTime = null;
+        long closestTime = 0;
         for (GribRecord record : records)
         {
-            delta_ms = Math.abs(time.getTimeInMillis() - record.getForecastTime().getTimeInMillis());
+            delta_ms = Math.abs(time_ms - record.getForecastTimeMillis());
             if (delta_ms < deltaMin_ms)
             {
                 deltaMin_ms = delta_ms;
-                closestTime = record.getForecastTime();
+                closestTime = record.getForecastTimeMillis();
             }
         }
 
-        // Match patterns such as "ISBL:200" and "SFC"
-        Pattern pattern = Pattern.compile("(\\w+)(?::(\\d+))?");
-        Matcher matcher;
         for (GribRecord record : records)
         {
-            matcher = pattern.matcher(levelCode);
-            if (matcher.find())
+            if (record.getForecastTimeMillis() == closestTime &&
+                    record.getParameterCode().equals(parameterAbbrev) &&
+                    matchesLevel(levelCode, record.getLevelCode(), record.getLevelValues()))
             {
-                String code = matcher.group(1);
-                if (record.getForecastTime().equals(closestTime) &&
-                        record.getParameterCode().equals(parameterAbbrev) &&
-                        record.getLevelCode().equals(code) &&
-                        (matcher.group(2) == null || (record.getLevelValues()[0] == Integer.parseInt(matcher.group(2))))
-                )
-                {
-                    return record;
-                }
+                return record;
             }
         }
         
         return null;
     }
+
+    /**
+     * Checks whether a level matches a level code such as "ISBL:200" or "SFC".
+     * @param levelCode the level code to match
+     * @param code the code of the level, e.g. "ISBL"
+     * @param values the values of the level
+     * @return true if the level matches
+     */
+    static boolean matchesLevel(String levelCode, String code, float[] values)
+    {
+        Matcher matcher = LEVEL_PATTERN.matcher(levelCode);
+        if (!matcher.find())
+        {
+            return false;
+        }
+        return code.equals(matcher.group(1)) &&
+                (matcher.group(2) == null || (values.length > 0 && values[0] == Integer.parseInt(matcher.group(2))));
+    }
+
+    /**
+     * Extracts the values of a parameter at a single location for all the
+     * forecast times within the file.
+     * If several records exist for the same forecast time, the one with the
+     * latest reference time is used.
+     * @param parameterAbbrev the parameter code, e.g. "TMP"
+     * @param levelCode the level, e.g. "ISBL:850" or "SFC"
+     * @param latitude the latitude of the location (units: degrees)
+     * @param longitude the longitude of the location (units: degrees)
+     * @return the time series
+     */
+    public GribTimeSeries extractTimeSeries(String parameterAbbrev, String levelCode, double latitude, double longitude)
+    {
+        return extractTimeSeries(parameterAbbrev, levelCode, new double[] {latitude}, new double[] {longitude})[0];
+    }
+
+    /**
+     * Extracts the values of a parameter at several locations for all the
+     * forecast times within the file, visiting each record only once.
+     * @param parameterAbbrev the parameter code, e.g. "TMP"
+     * @param levelCode the level, e.g. "ISBL:850" or "SFC"
+     * @param latitudes the latitude of each location (units: degrees)
+     * @param longitudes the longitude of each location (units: degrees)
+     * @return the time series for each location
+     * @see #extractTimeSeries(String, String, double, double)
+     */
+    public GribTimeSeries[] extractTimeSeries(String parameterAbbrev, String levelCode, double[] latitudes, double[] longitudes)
+    {
+        if (latitudes.length != longitudes.length)
+        {
+            throw new IllegalArgumentException("Number of latitudes (" + latitudes.length
+                    + ") and longitudes (" + longitudes.length + ") do not match");
+        }
+        List<GribRecord> matches = new ArrayList<>();
+        for (GribRecord record : records)
+        {
+            if (record.getParameterCode().equals(parameterAbbrev) &&
+                    matchesLevel(levelCode, record.getLevelCode(), record.getLevelValues()))
+            {
+                matches.add(record);
+            }
+        }
+        Collections.sort(matches, new Comparator<GribRecord>()
+        {
+            @Override
+            public int compare(GribRecord a, GribRecord b)
+            {
+                int result = Long.compare(a.getForecastTimeMillis(), b.getForecastTimeMillis());
+                if (result == 0) result = Long.compare(a.getReferenceTimeMillis(), b.getReferenceTimeMillis());
+                return result;
+            }
+        });
+
+        // Keep the latest reference time for each forecast time
+        List<GribRecord> series = new ArrayList<>();
+        for (GribRecord record : matches)
+        {
+            int last = series.size() - 1;
+            if (last >= 0 && series.get(last).getForecastTimeMillis() == record.getForecastTimeMillis())
+            {
+                series.set(last, record);
+            }
+            else
+            {
+                series.add(record);
+            }
+        }
+
+        long[] times = new long[series.size()];
+        float[][] values = new float[latitudes.length][series.size()];
+        for (int t = 0; t < times.length; t++)
+        {
+            GribRecord record = series.get(t);
+            times[t] = record.getForecastTimeMillis();
+            for (int k = 0; k < latitudes.length; k++)
+            {
+                values[k][t] = (float) record.getValue(latitudes[k], longitudes[k]);
+            }
+        }
+
+        GribTimeSeries[] result = new GribTimeSeries[latitudes.length];
+        for (int k = 0; k < result.length; k++)
+        {
+            result[k] = new GribTimeSeries(times, values[k]);
+        }
+        return result;
+    }
+    
+    /**
+     * Gathers all the records of a parameter into a (time, level, y, x)
+     * {@link HyperCube}, held on the Java heap.
+     * @param parameterAbbrev the parameter code, e.g. "TMP"
+     * @param levelCode the level code, e.g. "ISBL" for all isobaric levels
+     * @return the hypercube, or {@code null} if no records match
+     * @see #getHyperCube(String, String, boolean)
+     */
+    public HyperCube getHyperCube(String parameterAbbrev, String levelCode)
+    {
+        return getHyperCube(parameterAbbrev, levelCode, false);
+    }
+
+    /**
+     * Gathers all the records of a parameter into a (time, level, y, x)
+     * {@link HyperCube}. Forecast times and levels are sorted in ascending order;
+     * if several records exist for the same forecast time and level, the one
+     * with the latest reference time is used.
+     * @param parameterAbbrev the parameter code, e.g. "TMP"
+     * @param levelCode the level code, e.g. "ISBL" for all isobaric levels or
+     * "ISBL:850" for a single level
+     * @param offHeap whether the values should be stored in a direct buffer
+     * @return the hypercube, or {@code null} if no records match
+     * @throws IllegalArgumentException if the matching records do not share the
+     * same regular grid
+     */
+    public HyperCube getHyperCube(String parameterAbbrev, String levelCode, boolean offHeap)
+    {
+        List<GribRecord> matches = new ArrayList<>();
+        for (GribRecord record : records)
+        {
+            if (record.getParameterCode().equals(parameterAbbrev) &&
+                    matchesLevel(levelCode, record.getLevelCode(), record.getLevelValues()))
+            {
+                matches.add(record);
+            }
+        }
+        if (matches.isEmpty()) return null;
+
+        GribRecord first = matches.get(0);
+        int nx = first.getGridSizeX();
+        int ny = first.getGridSizeY();
+        TreeSet<Long> timeSet = new TreeSet<>();
+        TreeSet<Float> levelSet = new TreeSet<>();
+        for (GribRecord record : matches)
+        {
+            float[] values = record.getValues();
+            if (record.getGridSizeX() != nx || record.getGridSizeY() != ny ||
+                    (values != null && values.length != nx * ny))
+            {
+                throw new IllegalArgumentException("Records of " + parameterAbbrev + " (" + levelCode
+                        + ") do not share the same regular grid");
+            }
+            timeSet.add(record.getForecastTimeMillis());
+            levelSet.add(getFirstLevelValue(record));
+        }
+
+        long[] times = new long[timeSet.size()];
+        int t = 0;
+        for (long time : timeSet) times[t++] = time;
+        float[] levels = new float[levelSet.size()];
+        int l = 0;
+        for (float level : levelSet) levels[l++] = level;
+
+        GribRecord[] slices = new GribRecord[times.length * levels.length];
+        for (GribRecord record : matches)
+        {
+            int k = Arrays.binarySearch(times, record.getForecastTimeMillis()) * levels.length
+                    + Arrays.binarySearch(levels, getFirstLevelValue(record));
+            if (slices[k] == null || slices[k].getReferenceTimeMillis() < record.getReferenceTimeMillis())
+            {
+                slices[k] = record;
+            }
+        }
+        return new HyperCube(times, levels, slices, nx, ny, offHeap);
+    }
+
+    private static float getFirstLevelValue(GribRecord record)
+    {
+        float[] values = record.getLevelValues();
+        return values.length > 0 ? values[0] : Float.NaN;
+    }
     
     /**
      * Return a List of different reference times present in the GRIB file.
@@ -390,16 +624,16 @@ public class GribFile
      */
     public List<Calendar> getReferenceTimes()
     {
-        List<Calendar> referenceTimeList = new ArrayList();
+        TreeSet<Long> times = new TreeSet<>();
         for (GribRecord record : records)
         {
-            if (!referenceTimeList.contains(record.getReferenceTime()))
-            {
-                // Add reference time to list
-                referenceTimeList.add(record.getReferenceTime());
-            }
+            times.add(record.getReferenceTimeMillis());
+        }
+        List<Calendar> referenceTimeList = new ArrayList<>(times.size());
+        for (long time : times)
+        {
+            referenceTimeList.add(GribRecord.toCalendar(time));
         }
-        Collections.sort(referenceTimeList);
         return referenceTimeList;
     }
     
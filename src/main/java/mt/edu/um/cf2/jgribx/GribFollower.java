@@ -0,0 +1,245 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows a GRIB file which is still being written, e.g. while a model run
+ * appends forecast steps, and passes each newly appended record to a listener.
+ * <p>
+ * The follower remembers the end of the last complete record. Each poll only
+ * reads the data appended since then, and a record is only passed on once all
+ * of it has been written, i.e. once the file reaches the end given by its
+ * indicator section and that end holds a valid end section. A record which is
+ * still being written is read again by a later poll. Records which cannot be
+ * decoded are skipped, and a record without an end section which is followed
+ * by more data is treated as damaged, the next valid record being searched for.
+ * </p>
+ * Polls can be made by the caller with {@link #poll()}, or periodically in a
+ * background thread with {@link #start(long, TimeUnit)}.
+ */
+public class GribFollower implements Closeable
+{
+    /**
+     * Receives the records appended to a followed file.
+     */
+    public interface Listener
+    {
+        /**
+         * Called once for each record appended to the file, in file order.
+         * @param record the record
+         * @param offset the position of the record within the file
+         */
+        void recordAppended(GribRecord record, long offset);
+    }
+
+    private final File file;
+    private final Listener listener;
+    private volatile long offset;
+    private ScheduledExecutorService executor;
+
+    public GribFollower(File file, Listener listener)
+    {
+        this(file, 0, listener);
+    }
+
+    /**
+     * Creates a follower which resumes from a given position, e.g. the offset
+     * returned by {@link #getOffset()} before a restart.
+     * @param file the file to follow
+     * @param offset the position after the last record already seen
+     * @param listener the listener to pass new records to
+     */
+    public GribFollower(File file, long offset, Listener listener)
+    {
+        this.file = file;
+        this.offset = offset;
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the position after the last complete record read.
+     * @return the offset (units: bytes)
+     */
+    public long getOffset()
+    {
+        return offset;
+    }
+
+    /**
+     * Reads the complete records appended since the last poll and passes them
+     * to the listener. The offset is advanced past each record before the
+     * listener is called, so a listener which fails does not receive the
+     * record again.
+     * @return the number of records passed to the listener
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized int poll() throws IOException
+    {
+        if (!file.exists()) return 0;
+        int count = 0;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            long fileLength = raf.length();
+            if (fileLength < offset)
+            {
+                Logger.println(Logger.WARNING, "%s was truncated to %d bytes, reading from the start", file, fileLength);
+                offset = 0;
+            }
+            byte[] header = new byte[GribScanner.HEADER_LENGTH];
+            while (offset < fileLength)
+            {
+                int available = (int) Math.min(header.length, fileLength - offset);
+                raf.seek(offset);
+                raf.readFully(header, 0, available);
+                long length = GribScanner.getRecordLength(header, 0, available);
+                if (length < 0)
+                {
+                    if (available < header.length) break;
+                    long start = GribScanner.findRecordStart(raf, offset + 1);
+                    if (start < 0) break;
+                    Logger.println(Logger.WARNING, "Skipped %d bytes of %s at offset %d", start - offset, file, offset);
+                    offset = start;
+                    continue;
+                }
+                if (offset + length > fileLength)
+                {
+                    // Either the record is still being written, or its header is
+                    // damaged and gives a length which will never be reached
+                    long start = GribScanner.findRecordStart(raf, offset + 1);
+                    if (start < 0)
+                    {
+                        Logger.println(() -> "Record at offset " + offset + " of " + file + " is incomplete", Logger.DEBUG);
+                        break;
+                    }
+                    Logger.println(Logger.WARNING, "Skipped damaged record of %s at offset %d", file, offset);
+                    offset = start;
+                    continue;
+                }
+
+                long recordOffset = offset;
+                if (length > Integer.MAX_VALUE)
+                {
+                    skip(recordOffset, length, "Record too long: " + length + " bytes", "RecordTooLong");
+                    continue;
+                }
+                byte[] bytes = new byte[(int) length];
+                raf.seek(offset);
+                raf.readFully(bytes);
+                GribRecord record;
+                try
+                {
+                    record = GribRecord.readFromStream(new GribInputStream(new ByteArrayInputStream(bytes)));
+                }
+                catch (NoValidGribException | IOException e)
+                {
+                    if (!endsWithEndSection(bytes))
+                    {
+                        if (offset + length == fileLength)
+                        {
+                            // The end section has not been written yet
+                            Logger.println(() -> "Record at offset " + offset + " of " + file + " has no end section yet",
+                                    Logger.DEBUG);
+                            break;
+                        }
+                        // A damaged record within the file, whose length cannot be trusted
+                        long start = GribScanner.findRecordStart(raf, offset + 1);
+                        if (start < 0) break;
+                        Logger.println(Logger.WARNING, "Skipped damaged record of %s at offset %d", file, offset);
+                        offset = start;
+                        continue;
+                    }
+                    skip(recordOffset, length, e.getMessage(), e.getClass().getSimpleName());
+                    continue;
+                }
+                catch (NotSupportedException e)
+                {
+                    skip(recordOffset, length, e.getMessage(), e.getClass().getSimpleName());
+                    continue;
+                }
+
+                offset = recordOffset + length;
+                count++;
+                listener.recordAppended(record, recordOffset);
+            }
+        }
+        return count;
+    }
+
+    private void skip(long recordOffset, long length, String message, String reason)
+    {
+        Logger.println("Skipping GRIB record at offset " + recordOffset + " of " + file + " (" + message + ")", Logger.WARNING);
+        JGribX.getMetrics().recordSkipped(reason);
+        offset = recordOffset + length;
+    }
+
+    private static boolean endsWithEndSection(byte[] bytes)
+    {
+        int end = bytes.length - GribScanner.END_CODE.length;
+        for (int k = 0; k < GribScanner.END_CODE.length; k++)
+        {
+            if (bytes[end + k] != GribScanner.END_CODE[k]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Starts polling the file periodically in a background thread. Errors are
+     * logged, and polling continues.
+     * @param period the time between polls
+     * @param unit the unit of the period
+     */
+    public synchronized void start(long period, TimeUnit unit)
+    {
+        if (executor != null)
+        {
+            throw new IllegalStateException("Already following " + file);
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r ->
+        {
+            Thread thread = new Thread(r, "jgribx-follow-" + file.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() ->
+        {
+            try
+            {
+                poll();
+            }
+            catch (IOException | RuntimeException e)
+            {
+                Logger.println("Cannot follow " + file + ": " + e, Logger.ERROR);
+            }
+        }, 0, period, unit);
+    }
+
+    /**
+     * Stops polling. A poll in progress is completed.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if (executor != null)
+        {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+/**
+ * A spatial index over the points of a grid, used to find the grid point
+ * closest to a given latitude and longitude.
+ * <p>
+ * Points are converted to Cartesian coordinates on the unit sphere and stored
+ * in a balanced k-d tree, which allows nearest-neighbour queries in
+ * O(log n) time regardless of the projection used by the grid. Since the
+ * straight-line distance between two points on the sphere increases
+ * monotonically with their great-circle distance, the closest point in the
+ * tree is also the closest point on the Earth's surface.
+ * </p>
+ * Instances are immutable and can be queried from multiple threads.
+ */
+public class GribGridIndex
+{
+    /**
+     * Cartesian coordinates (x, y, z) of each point, stored in tree order.
+     */
+    private final double[] xyz;
+
+    /**
+     * Index of each point within the grid, stored in tree order.
+     */
+    private final int[] points;
+
+    /**
+     * Constructs a {@link GribGridIndex} for the given grid points.
+     * @param longitudes the longitude of each grid point (units: degrees)
+     * @param latitudes the latitude of each grid point (units: degrees)
+     */
+    public GribGridIndex(double[] longitudes, double[] latitudes)
+    {
+        if (longitudes.length != latitudes.length)
+        {
+            throw new IllegalArgumentException("Number of longitudes (" + longitudes.length
+                    + ") and latitudes (" + latitudes.length + ") do not match");
+        }
+        int n = longitudes.length;
+        double[] coords = new double[3 * n];
+        points = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            toCartesian(latitudes[i], longitudes[i], coords, 3 * i);
+            points[i] = i;
+        }
+
+        build(coords, 0, n, 0);
+
+        // Store the coordinates in tree order to avoid an indirection while searching
+        xyz = new double[3 * n];
+        for (int i = 0; i < n; i++)
+        {
+            System.arraycopy(coords, 3 * points[i], xyz, 3 * i, 3);
+        }
+    }
+
+    /**
+     * Constructs a {@link GribGridIndex} from interleaved longitude/latitude
+     * pairs, as returned by the GRIB-1 grid definitions.
+     * @param coords longitude/latitude pairs (units: degrees)
+     * @return the index
+     */
+    public static GribGridIndex fromCoordPairs(double[] coords)
+    {
+        double[] longitudes = new double[coords.length / 2];
+        double[] latitudes = new double[coords.length / 2];
+        for (int i = 0; i < longitudes.length; i++)
+        {
+            longitudes[i] = coords[2 * i];
+            latitudes[i] = coords[2 * i + 1];
+        }
+        return new GribGridIndex(longitudes, latitudes);
+    }
+
+    /**
+     * Constructs a {@link GribGridIndex} from an array of longitude/latitude
+     * pairs, as returned by the GRIB-2 grid definitions.
+     * @param coords longitude/latitude pairs (units: degrees)
+     * @return the index
+     */
+    public static GribGridIndex fromCoords(double[][] coords)
+    {
+        double[] longitudes = new double[coords.length];
+        double[] latitudes = new double[coords.length];
+        for (int i = 0; i < coords.length; i++)
+        {
+            longitudes[i] = coords[i][0];
+            latitudes[i] = coords[i][1];
+        }
+        return new GribGridIndex(longitudes, latitudes);
+    }
+
+    /**
+     * Returns the number of points in the index.
+     * @return the number of points
+     */
+    public int size()
+    {
+        return points.length;
+    }
+
+    /**
+     * Returns the index of the grid point closest to the given location.
+     * @param latitude the latitude of the location (units: degrees)
+     * @param longitude the longitude of the location (units: degrees)
+     * @return the index of the closest grid point, or -1 if the index is empty
+     */
+    public int nearest(double latitude, double longitude)
+    {
+        if (points.length == 0) return -1;
+
+        double[] query = new double[3];
+        toCartesian(latitude, longitude, query, 0);
+
+        // best[0] holds the squared distance, best[1] the position in the tree
+        double[] best = {Double.POSITIVE_INFINITY, -1};
+        search(query, 0, points.length, 0, best);
+        return points[(int) best[1]];
+    }
+
+    private void search(double[] query, int lo, int hi, int axis, double[] best)
+    {
+        if (lo >= hi) return;
+
+        int mid = (lo + hi) >>> 1;
+        double dx = query[0] - xyz[3 * mid];
+        double dy = query[1] - xyz[3 * mid + 1];
+        double dz = query[2] - xyz[3 * mid + 2];
+        double dist = dx * dx + dy * dy + dz * dz;
+        if (dist < best[0])
+        {
+            best[0] = dist;
+            best[1] = mid;
+        }
+
+        double diff = query[axis] - xyz[3 * mid + axis];
+        int nextAxis = (axis + 1) % 3;
+        if (diff < 0)
+        {
+            search(query, lo, mid, nextAxis, best);
+            if (diff * diff < best[0]) search(query, mid + 1, hi, nextAxis, best);
+        }
+        else
+        {
+            search(query, mid + 1, hi, nextAxis, best);
+            if (diff * diff < best[0]) search(query, lo, mid, nextAxis, best);
+        }
+    }
+
+    /**
+     * Arranges the points within the given range so that the median (along the
+     * given axis) is in the middle, with smaller values before it and larger
+     * values after it, and repeats for both halves along the next axis.
+     */
+    private void build(double[] coords, int lo, int hi, int axis)
+    {
+        if (hi - lo <= 1) return;
+
+        int mid = (lo + hi) >>> 1;
+        select(coords, lo, hi - 1, mid, axis);
+
+        int nextAxis = (axis + 1) % 3;
+        build(coords, lo, mid, nextAxis);
+        build(coords, mid + 1, hi, nextAxis);
+    }
+
+    /**
+     * Partially sorts {@code points[lo..hi]} so that the k-th element is in
+     * its sorted position along the given axis (Hoare's selection algorithm).
+     */
+    private void select(double[] coords, int lo, int hi, int k, int axis)
+    {
+        while (hi > lo)
+        {
+            double pivot = coords[3 * points[(lo + hi) >>> 1] + axis];
+            int i = lo;
+            int j = hi;
+            while (i <= j)
+            {
+                while (coords[3 * points[i] + axis] < pivot) i++;
+                while (coords[3 * points[j] + axis] > pivot) j--;
+                if (i <= j)
+                {
+                    int tmp = points[i];
+                    points[i] = points[j];
+                    points[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    private static void toCartesian(double latitude, double longitude, double[] out, int offset)
+    {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        out[offset] = cosLat * Math.cos(lon);
+        out[offset + 1] = cosLat * Math.sin(lon);
+        out[offset + 2] = Math.sin(lat);
+    }
+}
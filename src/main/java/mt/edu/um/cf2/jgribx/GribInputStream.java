@@ -208,7 +208,14 @@ public class GribInputStream extends FilterInputStream
    @Override
     public long skip(long n) throws IOException
     {
-        super.skip(n);
+        // the underlying stream may skip fewer bytes than requested (e.g. up to the end of its buffer)
+        long remaining = n;
+        while (remaining > 0)
+        {
+            long skipped = super.skip(remaining);
+            if (skipped <= 0) break;
+            remaining -= skipped;
+        }
         countBits += (n*8);
         return n;
     }
@@ -294,72 +301,92 @@ public class GribInputStream extends FilterInputStream
 
     /**
      * Seek the input stream for the specified pattern.
-     * The seek functionality is implemented by reading out chunks of data at a time.
-     * Successive chunks overlap by {@code pattern.length} bytes to ensure the full pattern will appear in a chunk.
-     * If the pattern is found, the next byte in the input stream is the byte directly following the pattern.
+     * The stream is searched in chunks which are read in bulk, using {@link GribScanner#indexOf}.
+     * If the pattern is found, the next byte in the input stream is either the first byte of the
+     * pattern or the byte directly following it, depending on {@code consumePattern}.
      * @param pattern The pattern for which to seek
      * @param consumePattern Determines whether the pattern is consumed or not
      * @return Number of bytes consumed from the input stream
+     * @throws EOFException if the end of the stream is reached without finding the pattern
      * @throws IOException
      */
    public int seekBytePattern(byte[] pattern, boolean consumePattern) throws IOException
    {
-       boolean endPatternFound = false;
-       int iChunkByte = 0;
-       int nAvailableBytes = 0;
-       int iStartPos = this.getByteCounter();
-       final int N_BYTES_PER_CHUNK = 1000;
-
-       assert pattern.length > 0 && pattern.length < N_BYTES_PER_CHUNK;
+       long nBytes = seek(pattern, consumePattern, false);
+       return (int) Math.min(nBytes, Integer.MAX_VALUE);
+   }
 
-       while ((nAvailableBytes = this.available()) > pattern.length)
+    /**
+     * Seeks the start of the next valid GRIB record, skipping any start codes which
+     * are not followed by a valid indicator section, or whose record does not end
+     * with an end section where its length says it should.
+     * If a record is found, the stream is positioned at its start code.
+     * @return the number of bytes skipped
+     * @throws EOFException if the end of the stream is reached without finding a record
+     * @throws IOException
+     * @see GribScanner
+     */
+   public long seekRecordStart() throws IOException
+   {
+       // Records normally follow each other directly, so check the next header first
+       byte[] header = new byte[GribScanner.HEADER_LENGTH];
+       mark(header.length);
+       int n = readChunk(header);
+       reset();
+       if (GribScanner.findRecordStart(header, 0, n, n < header.length) == 0)
        {
-           // Limit the number of bytes to be read
-           if (nAvailableBytes > N_BYTES_PER_CHUNK)
-           {
-               nAvailableBytes = N_BYTES_PER_CHUNK;
-           }
-
-           this.mark(nAvailableBytes);
-           int[] bytes = this.readUI8(nAvailableBytes);
-           iChunkByte = 0;
+           return 0;
+       }
+       return seek(GribScanner.START_CODE, false, true);
+   }
 
-           // Search for pattern within chunk
-           while (!endPatternFound && iChunkByte <= nAvailableBytes - pattern.length)
+   private long seek(byte[] pattern, boolean consumePattern, boolean validateRecord) throws IOException
+   {
+       byte[] chunk = new byte[GribScanner.CHUNK_SIZE];
+       long nSkipped = 0;
+       while (true)
+       {
+           mark(chunk.length);
+           int n = readChunk(chunk);
+           boolean complete = n < chunk.length;
+           int i = validateRecord
+                   ? GribScanner.findRecordStart(chunk, 0, n, complete)
+                   : GribScanner.indexOf(chunk, 0, n, pattern);
+           reset();
+
+           if (i >= 0)
            {
-               endPatternFound = true;
-               // Compare next bytes with pattern
-               for (int iPattern = 0; iPattern < pattern.length; iPattern++)
-               {
-                   if (bytes[iChunkByte + iPattern] != pattern[iPattern])
-                   {
-                       endPatternFound = false;
-                       iChunkByte++;
-                       break;
-                   }
-               }
+               int offset = i + (consumePattern ? pattern.length : 0);
+               this.skip(offset);
+               return nSkipped + offset;
            }
-
-           // Backtrack stream position until it's just before/after the last byte of the pattern
-           this.reset();
-           int offset = consumePattern ? pattern.length : 0;
-           if (this.skip(iChunkByte + offset) != iChunkByte + offset)
+           if (complete)
            {
-               throw new IOException("Skipped less bytes than expected");
+               this.skip(n);
+               throw new EOFException("Reached end of stream without finding pattern");
            }
-
-           if (endPatternFound) break;
+           // Continue from a candidate which could not be validated within this chunk,
+           // or keep enough bytes to find a pattern spanning two chunks
+           int advance = i < -1 ? -2 - i : n - (pattern.length - 1);
+           this.skip(advance);
+           nSkipped += advance;
        }
+   }
 
-       if (!endPatternFound)
+   /**
+    * Reads until the buffer is full or the end of the stream is reached.
+    * @return the number of bytes read
+    */
+   private int readChunk(byte[] buffer) throws IOException
+   {
+       int n = 0;
+       int read;
+       while (n < buffer.length && (read = in.read(buffer, n, buffer.length - n)) > 0)
        {
-           throw new EOFException("Reached end of stream without finding pattern");
+           n += read;
        }
-
-       // Calculate amount of bytes consumed
-       int iEndPos = this.getByteCounter();
-
-       return iEndPos - iStartPos;
+       countBits += n * 8L;
+       return n;
    }
 
 }
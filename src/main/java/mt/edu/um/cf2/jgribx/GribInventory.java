@@ -0,0 +1,395 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * An inventory of the records within a GRIB file, in the format of the
+ * {@code .idx} files written by wgrib2 (and published by NOAA alongside its
+ * GRIB-2 files), e.g.
+ * <pre>
+ * 1:0:d=2020010100:TMP:850 mb:anl:
+ * 2:186:d=2020010100:TMP:500 mb:3 hour fcst:
+ * </pre>
+ * Each line holds the record number, the offset of the record within the file,
+ * the reference time, the parameter, the level and the forecast time.
+ * <p>
+ * An inventory gives the byte range of each record, so that selected records
+ * can be read with a {@link GribRecordFetcher} without reading the rest of the
+ * file. The length of a record is the distance to the next record, so the
+ * length of the last record is only known if the length of the file is given.
+ * </p>
+ */
+public class GribInventory
+{
+    private static final String DATE_PREFIX = "d=";
+    private static final String DATE_FORMAT = "yyyyMMddHH";
+
+    private final List<Entry> entries;
+
+    /**
+     * A line of an inventory, describing one record.
+     */
+    public static class Entry
+    {
+        private final String number;
+        private final long offset;
+        private final long length;
+        private final long referenceTime;
+        private final String parameter;
+        private final String level;
+        private final String forecast;
+
+        Entry(String number, long offset, long length, long referenceTime, String parameter, String level,
+                String forecast)
+        {
+            this.number = number;
+            this.offset = offset;
+            this.length = length;
+            this.referenceTime = referenceTime;
+            this.parameter = parameter;
+            this.level = level;
+            this.forecast = forecast;
+        }
+
+        /**
+         * Returns the record number, which is e.g. {@code 3} or, for the fields
+         * of a record holding several fields, {@code 3.2}.
+         * @return the record number
+         */
+        public String getNumber()
+        {
+            return number;
+        }
+
+        public long getOffset()
+        {
+            return offset;
+        }
+
+        /**
+         * Returns the length of the record.
+         * @return the length of the record (units: bytes), or -1 if unknown
+         */
+        public long getLength()
+        {
+            return length;
+        }
+
+        /**
+         * Returns the byte range of the record.
+         * @return the range of the record
+         * @throws IllegalStateException if the length of the record is unknown
+         */
+        public ByteRange getRange()
+        {
+            if (length < 0)
+            {
+                throw new IllegalStateException("Length of record " + number + " is unknown");
+            }
+            return new ByteRange(offset, length);
+        }
+
+        /**
+         * Returns the reference time, which has a resolution of one hour.
+         * @return the reference time (units: milliseconds since 1970-01-01T00:00:00Z)
+         */
+        public long getReferenceTimeMillis()
+        {
+            return referenceTime;
+        }
+
+        /**
+         * Returns the parameter abbreviation, e.g. {@code TMP}.
+         * @return the parameter
+         */
+        public String getParameter()
+        {
+            return parameter;
+        }
+
+        /**
+         * Returns the level as written by wgrib2, e.g. {@code 850 mb} or
+         * {@code 2 m above ground}.
+         * @return the level
+         */
+        public String getLevel()
+        {
+            return level;
+        }
+
+        /**
+         * Returns the forecast time as written by wgrib2, e.g. {@code anl} or
+         * {@code 3 hour fcst}.
+         * @return the forecast time
+         */
+        public String getForecast()
+        {
+            return forecast;
+        }
+
+        /**
+         * Returns the inventory line of this entry, without a line separator.
+         */
+        @Override
+        public String toString()
+        {
+            return number + ":" + offset + ":" + DATE_PREFIX + dateFormat().format(referenceTime) + ":" + parameter
+                    + ":" + level + ":" + forecast + ":";
+        }
+    }
+
+    private GribInventory(List<Entry> entries)
+    {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    public List<Entry> getEntries()
+    {
+        return entries;
+    }
+
+    /**
+     * Returns the entries with the given parameter and level.
+     * @param parameter the parameter abbreviation, or {@code null} to match any
+     * @param level the level as written by wgrib2, or {@code null} to match any
+     * @return the matching entries, in file order
+     */
+    public List<Entry> select(String parameter, String level)
+    {
+        List<Entry> selected = new ArrayList<>();
+        for (Entry entry : entries)
+        {
+            if ((parameter == null || parameter.equals(entry.parameter)) && (level == null || level.equals(entry.level)))
+            {
+                selected.add(entry);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Returns the byte ranges of the given entries.
+     * @param entries the entries
+     * @return the ranges, in the same order
+     * @throws IllegalStateException if the length of an entry is unknown
+     */
+    public static List<ByteRange> getRanges(List<Entry> entries)
+    {
+        List<ByteRange> ranges = new ArrayList<>(entries.size());
+        for (Entry entry : entries)
+        {
+            ranges.add(entry.getRange());
+        }
+        return ranges;
+    }
+
+    /**
+     * Reads an inventory file.
+     * @param file the inventory file
+     * @param fileLength the length of the GRIB file, or -1 if unknown
+     * @return the inventory
+     * @throws IOException if the inventory cannot be read or is not valid
+     */
+    public static GribInventory read(File file, long fileLength) throws IOException
+    {
+        try (InputStream in = new FileInputStream(file))
+        {
+            return read(in, fileLength);
+        }
+    }
+
+    /**
+     * Reads an inventory.
+     * @param in the stream holding the inventory
+     * @param fileLength the length of the GRIB file, or -1 if unknown, in which
+     * case the length of the last record is unknown
+     * @return the inventory
+     * @throws IOException if the inventory cannot be read or is not valid
+     */
+    public static GribInventory read(InputStream in, long fileLength) throws IOException
+    {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        SimpleDateFormat format = dateFormat();
+        List<String[]> lines = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null)
+        {
+            lineNumber++;
+            if (line.trim().isEmpty()) continue;
+            String[] fields = line.split(":", -1);
+            if (fields.length < 6 || !fields[2].startsWith(DATE_PREFIX))
+            {
+                throw new IOException("Invalid inventory line " + lineNumber + ": " + line);
+            }
+            lines.add(fields);
+        }
+
+        List<Entry> entries = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++)
+        {
+            String[] fields = lines.get(i);
+            try
+            {
+                long offset = Long.parseLong(fields[1]);
+                // Fields of the same record share its offset
+                long next = fileLength;
+                for (int j = i + 1; j < lines.size(); j++)
+                {
+                    long nextOffset = Long.parseLong(lines.get(j)[1]);
+                    if (nextOffset != offset)
+                    {
+                        next = nextOffset;
+                        break;
+                    }
+                }
+                long referenceTime = format.parse(fields[2].substring(DATE_PREFIX.length())).getTime();
+                entries.add(new Entry(fields[0], offset, next >= 0 ? next - offset : -1, referenceTime, fields[3],
+                        fields[4], fields[5]));
+            }
+            catch (NumberFormatException | ParseException e)
+            {
+                throw new IOException("Invalid inventory entry " + fields[0] + ": " + e.getMessage());
+            }
+        }
+        return new GribInventory(entries);
+    }
+
+    /**
+     * Creates the inventory of a GRIB file. The records are located with
+     * {@link GribScanner#scanBoundaries(RandomAccessFile)} and only their
+     * headers are decoded. Records which cannot be decoded are left out, but
+     * keep their record number.
+     * @param file the GRIB file
+     * @return the inventory
+     * @throws IOException if the file cannot be read
+     */
+    public static GribInventory create(File file) throws IOException
+    {
+        List<Entry> entries = new ArrayList<>();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            List<GribScanner.Boundary> boundaries = GribScanner.scanBoundaries(raf);
+            ChannelInputStream stream = new ChannelInputStream(raf.getChannel());
+            for (int i = 0; i < boundaries.size(); i++)
+            {
+                GribScanner.Boundary boundary = boundaries.get(i);
+                stream.seek(boundary.getOffset());
+                GribInputStream in = new GribInputStream(stream);
+                try
+                {
+                    GribRecord record = GribRecord.readFromStream(in, false);
+                    entries.add(new Entry(String.valueOf(i + 1), boundary.getOffset(), boundary.getLength(),
+                            record.getReferenceTimeMillis(), record.getParameterCode(), formatLevel(record),
+                            formatForecast(record)));
+                }
+                catch (NotSupportedException | NoValidGribException e)
+                {
+                    Logger.println("Skipping GRIB record at offset " + boundary.getOffset() + " of " + file + " ("
+                            + e.getMessage() + ")", Logger.WARNING);
+                    JGribX.getMetrics().recordSkipped(e.getClass().getSimpleName());
+                }
+            }
+        }
+        return new GribInventory(entries);
+    }
+
+    /**
+     * Writes the inventory, one line per entry.
+     * @param out the writer
+     * @throws IOException if the inventory cannot be written
+     */
+    public void write(Writer out) throws IOException
+    {
+        for (Entry entry : entries)
+        {
+            out.write(entry.toString());
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * Formats the level of a record as wgrib2 does. Levels which wgrib2 names
+     * differently from JGribX are translated, and any others are described as
+     * in {@link GribRecord#getLevelDescription()}.
+     */
+    static String formatLevel(GribRecord record)
+    {
+        String code = record.getLevelCode();
+        float[] values = record.getLevelValues();
+        String value = values.length > 1
+                ? formatNumber(values[0]) + "-" + formatNumber(values[1])
+                : values.length == 1 ? formatNumber(values[0]) : "";
+        switch (code == null ? "" : code)
+        {
+            case "SFC":  return "surface";
+            case "CBL":  return "cloud base";
+            case "CTL":  return "cloud top";
+            case "0DEG": return "0C isotherm";
+            case "ADCL": return "level of adiabatic condensation from sfc";
+            case "MWSL": return "max wind";
+            case "TRO":  return "tropopause";
+            case "MSL":  return "mean sea level";
+            case "EATM": return "entire atmosphere";
+            case "HTFL": return "highest tropospheric freezing level";
+            case "PBL":  return "planetary boundary layer";
+            case "ISBL": return value + " mb";
+            case "GPML": return value + " m above mean sea level";
+            case "HTGL": return value + " m above ground";
+            case "SIGL": return value + " sigma level";
+            case "HYBL": return value + " hybrid level";
+            case "DBLL": return value + " m below ground";
+            case "SPDL": return value + " mb above ground";
+            default:     return record.getLevelDescription();
+        }
+    }
+
+    /**
+     * Formats the forecast time of a record as wgrib2 does, in whole hours where
+     * possible and otherwise in minutes.
+     */
+    static String formatForecast(GribRecord record)
+    {
+        long minutes = (record.getForecastTimeMillis() - record.getReferenceTimeMillis()) / 60000;
+        if (minutes == 0) return "anl";
+        return minutes % 60 == 0 ? minutes / 60 + " hour fcst" : minutes + " min fcst";
+    }
+
+    private static String formatNumber(float value)
+    {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    private static SimpleDateFormat dateFormat()
+    {
+        SimpleDateFormat format = new SimpleDateFormat(DATE_FORMAT);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        format.setLenient(false);
+        return format;
+    }
+}
@@ -11,8 +11,12 @@
 package mt.edu.um.cf2.jgribx;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.TimeZone;
 import mt.edu.um.cf2.jgribx.grib1.Grib1Record;
 import mt.edu.um.cf2.jgribx.grib2.Grib2Record;
 
@@ -21,19 +25,42 @@ public abstract class GribRecord
     private GribRecordIS is;
     
     public static GribRecord readFromStream(GribInputStream in) throws IOException, NotSupportedException, NoValidGribException
+    {
+        return readFromStream(in, true);
+    }
+
+    /**
+     * Reads a GRIB record from the given {@link GribInputStream}.
+     * @param in the input stream, positioned at the start of the record
+     * @param readData whether the bitmap and data sections should be decoded.
+     * If {@code false}, these sections are skipped and the resulting record only
+     * provides the information held in the other sections (parameter, level,
+     * times, grid), which is considerably faster when building an index. The
+     * {@link #getValues()} method of such a record returns {@code null}, and
+     * the methods returning single values throw an {@link IllegalStateException}.
+     * @return the record
+     * @throws IOException
+     * @throws NotSupportedException
+     * @throws NoValidGribException
+     */
+    static GribRecord readFromStream(GribInputStream in, boolean readData) throws IOException, NotSupportedException, NoValidGribException
     {
         GribRecord record = null;
+        JGribXMetrics metrics = JGribX.getMetrics();
+        Object event = GribEvents.beginRecordRead();
         
+        long start = System.nanoTime();
         GribRecordIS is = GribRecordIS.readFromStream(in);
+        metrics.recordStage(JGribXMetrics.Stage.SCAN, System.nanoTime() - start);
         if (is == null) return null;
         
         switch (is.getGribEdition())
         {
             case 1:
-                record = Grib1Record.readFromStream(in, is);
+                record = Grib1Record.readFromStream(in, is, readData);
                 break;
             case 2:
-                record = Grib2Record.readFromStream(in, is);
+                record = Grib2Record.readFromStream(in, is, readData);
                 break;
             default:
                 throw new NoValidGribException("Unsupported GRIB edition "+is.getGribEdition());
@@ -49,6 +76,8 @@ public abstract class GribRecord
         {
             record.is = is;
         }
+        metrics.recordBytesRead(is.getRecordLength());
+        GribEvents.endRecordRead(event, is.getGribEdition(), is.getRecordLength(), readData);
         return record;
     }
     
@@ -62,7 +91,29 @@ public abstract class GribRecord
      * @return the ID corresponding to the originating centre
      */
     public abstract int getCentreId();
-    public abstract Calendar getForecastTime();
+
+    /**
+     * Returns the time at which the forecast applies.
+     * @return the forecast time (units: milliseconds since 1970-01-01T00:00:00Z)
+     */
+    public abstract long getForecastTimeMillis();
+
+    /**
+     * Returns the reference (analysis) time of the forecast.
+     * @return the reference time (units: milliseconds since 1970-01-01T00:00:00Z)
+     */
+    public abstract long getReferenceTimeMillis();
+
+    /**
+     * Returns the time at which the forecast applies, as a new UTC calendar.
+     * Prefer {@link #getForecastTimeMillis()} when comparing or sorting records.
+     * @return the forecast time
+     */
+    public Calendar getForecastTime()
+    {
+        return toCalendar(getForecastTimeMillis());
+    }
+
     public abstract String getLevelCode();
     public abstract String getLevelDescription();
     
@@ -80,7 +131,65 @@ public abstract class GribRecord
      * @return the ID corresponding to the generating process
      */
     public abstract int getProcessId();
-    public abstract Calendar getReferenceTime();
+
+    /**
+     * Returns the reference (analysis) time of the forecast, as a new UTC calendar.
+     * Prefer {@link #getReferenceTimeMillis()} when comparing or sorting records.
+     * @return the reference time
+     */
+    public Calendar getReferenceTime()
+    {
+        return toCalendar(getReferenceTimeMillis());
+    }
+
+    /**
+     * Returns the number of points along the x-axis (or along a parallel) of the
+     * grid. For quasi-regular grids, this is the number of points along the
+     * longest row.
+     * @return the number of points along the x-axis
+     */
+    public abstract int getGridSizeX();
+
+    /**
+     * Returns the number of points along the y-axis (or along a meridian) of the grid.
+     * @return the number of points along the y-axis
+     */
+    public abstract int getGridSizeY();
     public abstract double getValue(double latitude, double longitude);
     public abstract float[] getValues();
+
+    /**
+     * Converts a time to a calendar in UTC.
+     * @param millis the time (units: milliseconds since 1970-01-01T00:00:00Z)
+     * @return a new calendar holding the given time
+     */
+    public static Calendar toCalendar(long millis)
+    {
+        Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        calendar.setTimeInMillis(millis);
+        return calendar;
+    }
+
+    /**
+     * Converts a UTC date and time to milliseconds since 1970-01-01T00:00:00Z.
+     * Fields outside their usual range (e.g. hour 30) are carried over to the
+     * next field, as is the case with a lenient {@link Calendar}.
+     * @param year the year
+     * @param month the month (1-12)
+     * @param day the day of the month (1-31)
+     * @param hour the hour of the day
+     * @param minute the minute
+     * @param second the second
+     * @return the time (units: milliseconds since 1970-01-01T00:00:00Z)
+     */
+    public static long toEpochMillis(int year, int month, int day, int hour, int minute, int second)
+    {
+        return LocalDateTime.of(year, 1, 1, 0, 0)
+                .plusMonths(month - 1)
+                .plusDays(day - 1)
+                .plusHours(hour)
+                .plusMinutes(minute)
+                .plusSeconds(second)
+                .toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
 }
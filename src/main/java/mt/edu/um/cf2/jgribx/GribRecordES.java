@@ -39,6 +39,6 @@ public class GribRecordES
     public static void seekNext(GribInputStream in) throws IOException
     {
         int nBytes = in.seekBytePattern(PATTERN.getBytes(), true);
-        Logger.println("Skipped " + (nBytes - PATTERN.length()) + " bytes to end of record", Logger.INFO);
+        Logger.println(Logger.INFO, "Skipped %d bytes to end of record", nBytes - PATTERN.length());
     }
 }
@@ -0,0 +1,248 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads selected records of a file through a {@link RangeReader}, without
+ * reading the rest of the file. The ranges of the records are typically taken
+ * from an inventory of the file.
+ * <p>
+ * Ranges which are adjacent or close together are coalesced into a single read,
+ * and the coalesced reads are made concurrently, each record being decoded by
+ * the thread which read it.
+ * </p>
+ * The reads are run by an executor given to the fetcher, or else by threads
+ * belonging to the fetcher, which are kept between fetches and end once idle.
+ */
+public class GribRecordFetcher
+{
+    /**
+     * The default number of concurrent reads.
+     */
+    public static final int DEFAULT_THREADS = 4;
+
+    /**
+     * The default largest gap between two ranges which are read together
+     * (units: bytes).
+     */
+    public static final long DEFAULT_MAX_GAP = 64 * 1024;
+
+    /**
+     * The default largest length of a coalesced read (units: bytes).
+     */
+    public static final long DEFAULT_MAX_READ = 16 * 1024 * 1024;
+
+    /**
+     * How long an idle thread of a fetcher is kept (units: seconds).
+     */
+    private static final long KEEP_ALIVE = 30;
+
+    private final RangeReader reader;
+    private final Executor executor;
+    private final long maxGap;
+    private final long maxRead;
+
+    public GribRecordFetcher(RangeReader reader)
+    {
+        this(reader, DEFAULT_THREADS, DEFAULT_MAX_GAP, DEFAULT_MAX_READ);
+    }
+
+    /**
+     * Creates a fetcher.
+     * @param reader the reader of the file
+     * @param nThreads the largest number of concurrent reads
+     * @param maxGap the largest gap between two ranges which are read together
+     * (units: bytes)
+     * @param maxRead the largest length of a coalesced read (units: bytes)
+     */
+    public GribRecordFetcher(RangeReader reader, int nThreads, long maxGap, long maxRead)
+    {
+        this(reader, newExecutor(nThreads), maxGap, maxRead);
+    }
+
+    /**
+     * Creates a fetcher whose reads are run by the given executor, e.g. one
+     * shared by several fetchers. The executor is not shut down by the fetcher.
+     * @param reader the reader of the file
+     * @param executor the executor running concurrent reads
+     * @param maxGap the largest gap between two ranges which are read together
+     * (units: bytes)
+     * @param maxRead the largest length of a coalesced read (units: bytes)
+     */
+    public GribRecordFetcher(RangeReader reader, Executor executor, long maxGap, long maxRead)
+    {
+        this.reader = reader;
+        this.executor = executor;
+        this.maxGap = maxGap;
+        this.maxRead = maxRead;
+    }
+
+    private static Executor newExecutor(int nThreads)
+    {
+        if (nThreads <= 0)
+        {
+            throw new IllegalArgumentException("Invalid number of threads: " + nThreads);
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(nThreads, nThreads, KEEP_ALIVE, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r ->
+        {
+            Thread thread = new Thread(r, "jgribx-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Reads the record starting at the given offset. The indicator section is
+     * read first to find the length of the record.
+     * @param offset the position of the record
+     * @return the record
+     * @throws IOException if the record cannot be read
+     * @throws NotSupportedException if the record contains features not yet supported
+     * @throws NoValidGribException if there is no valid record at the offset
+     */
+    public GribRecord fetch(long offset) throws IOException, NotSupportedException, NoValidGribException
+    {
+        int available = (int) Math.min(GribScanner.HEADER_LENGTH, reader.getLength() - offset);
+        byte[] header = reader.read(offset, Math.max(available, 0));
+        long length = GribScanner.getRecordLength(header, 0, header.length);
+        if (length < 0)
+        {
+            throw new NoValidGribException("No valid record at offset " + offset + " of " + reader.getSource());
+        }
+        return decode(reader.read(offset, toInt(length)), 0, (int) length);
+    }
+
+    /**
+     * Reads the records held in the given ranges.
+     * @param ranges the ranges of the records
+     * @return the records, in the order of the ranges
+     * @throws IOException if a range cannot be read
+     * @throws NotSupportedException if a record contains features not yet supported
+     * @throws NoValidGribException if a range does not hold a valid record
+     */
+    public List<GribRecord> fetch(List<ByteRange> ranges) throws IOException, NotSupportedException, NoValidGribException
+    {
+        List<List<ByteRange>> groups = ByteRange.coalesce(ranges, maxGap, maxRead);
+        Logger.println(Logger.DEBUG, "Fetching %d records from %s in %d reads", ranges.size(), reader.getSource(), groups.size());
+        Map<ByteRange, GribRecord> records = new ConcurrentHashMap<>();
+        if (groups.size() == 1)
+        {
+            fetchGroup(groups.get(0), records);
+        }
+        else if (!groups.isEmpty())
+        {
+            List<FutureTask<Void>> tasks = new ArrayList<>();
+            for (List<ByteRange> group : groups)
+            {
+                FutureTask<Void> task = new FutureTask<>(() ->
+                {
+                    fetchGroup(group, records);
+                    return null;
+                });
+                tasks.add(task);
+                executor.execute(task);
+            }
+            try
+            {
+                for (FutureTask<Void> task : tasks)
+                {
+                    task.get();
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while fetching records");
+            }
+            catch (ExecutionException e)
+            {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) throw (IOException) cause;
+                if (cause instanceof NotSupportedException) throw (NotSupportedException) cause;
+                if (cause instanceof NoValidGribException) throw (NoValidGribException) cause;
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                throw new IllegalStateException(cause);
+            }
+            finally
+            {
+                // Reads left after a failure are not needed
+                for (FutureTask<Void> task : tasks)
+                {
+                    task.cancel(true);
+                }
+            }
+        }
+
+        List<GribRecord> result = new ArrayList<>(ranges.size());
+        for (ByteRange range : ranges)
+        {
+            result.add(records.get(range));
+        }
+        return result;
+    }
+
+    private void fetchGroup(List<ByteRange> group, Map<ByteRange, GribRecord> records)
+            throws IOException, NotSupportedException, NoValidGribException
+    {
+        long start = group.get(0).getOffset();
+        long end = start;
+        for (ByteRange range : group)
+        {
+            end = Math.max(end, range.getEnd());
+        }
+        byte[] bytes = reader.read(start, toInt(end - start));
+        for (ByteRange range : group)
+        {
+            if (!records.containsKey(range))
+            {
+                records.put(range, decode(bytes, (int) (range.getOffset() - start), toInt(range.getLength())));
+            }
+        }
+    }
+
+    private GribRecord decode(byte[] bytes, int offset, int length)
+            throws IOException, NotSupportedException, NoValidGribException
+    {
+        GribRecord record = GribRecord.readFromStream(
+                new GribInputStream(new ByteArrayInputStream(bytes, offset, length)));
+        if (record == null)
+        {
+            throw new NoValidGribException("No valid record in " + reader.getSource());
+        }
+        return record;
+    }
+
+    private static int toInt(long length) throws IOException
+    {
+        if (length > Integer.MAX_VALUE)
+        {
+            throw new IOException("Range too long: " + length + " bytes");
+        }
+        return (int) length;
+    }
+}
@@ -136,13 +136,13 @@ public class GribRecordIS
      * Seeks the location of the next IS header.
      * If a valid header is found, the input stream is repositioned to the
      * position just before the found header.
+     * @see GribInputStream#seekRecordStart()
      * @param in GRIB input stream to read from 
      * @throws IOException 
      */
     public static void seekNext(GribInputStream in) throws IOException
     {
-        int nBytesConsumed = in.seekBytePattern(PATTERN.getBytes(), false);
-        int nBytesSkipped = nBytesConsumed - PATTERN.length();
+        long nBytesSkipped = in.seekRecordStart();
 
         if (nBytesSkipped > 0)
         {
@@ -0,0 +1,350 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Locates GRIB records within raw bytes, e.g. to resynchronise after a corrupted
+ * record or padding between records.
+ * <p>
+ * Data is searched in bulk, eight bytes at a time, for the first byte of the
+ * pattern. A candidate start code is only accepted if it is followed by a valid
+ * edition and a plausible record length and, where the whole record is
+ * available, if the end section is found where the record length says it should
+ * be. Start codes which happen to occur within packed data are thus skipped.
+ * </p>
+ * The boundaries of all the records within a file can be found quickly with
+ * {@link #scanBoundaries(File)}, which only reads the indicator sections.
+ */
+public final class GribScanner
+{
+    /**
+     * The start code of the indicator section.
+     */
+    static final byte[] START_CODE = {'G', 'R', 'I', 'B'};
+
+    /**
+     * The end section.
+     */
+    static final byte[] END_CODE = {'7', '7', '7', '7'};
+
+    /**
+     * The number of bytes of the indicator section needed to validate a record
+     * start, which is the length of the GRIB-2 indicator section.
+     */
+    static final int HEADER_LENGTH = 16;
+
+    /**
+     * The size of the chunks in which data is searched.
+     */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Smallest possible GRIB-1 record: IS (8), PDS (28), BDS (11) and ES (4).
+     */
+    private static final int MIN_LENGTH_EDITION_1 = 51;
+
+    /**
+     * Smallest possible GRIB-2 record: IS (16), IDS (21) and ES (4).
+     */
+    private static final int MIN_LENGTH_EDITION_2 = 41;
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private GribScanner()
+    {
+    }
+
+    /**
+     * Returns the position of the first occurrence of a pattern within part of
+     * an array.
+     * @param bytes the array to search
+     * @param from the position from which to search (inclusive)
+     * @param to the position up to which to search (exclusive)
+     * @param pattern the pattern to search for
+     * @return the position of the pattern, or -1 if it is not found
+     */
+    public static int indexOf(byte[] bytes, int from, int to, byte[] pattern)
+    {
+        ByteBuffer words = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        byte first = pattern[0];
+        long broadcast = (first & 0xFFL) * ONES;
+        int last = to - pattern.length;
+        int i = from;
+        while (i <= last)
+        {
+            if (i + 8 <= to)
+            {
+                // Flag the bytes of the word which equal the first byte of the pattern.
+                // The lowest flag is exact, and corresponds to the lowest address.
+                long word = words.getLong(i) ^ broadcast;
+                long found = (word - ONES) & ~word & HIGHS;
+                if (found == 0)
+                {
+                    i += 8;
+                    continue;
+                }
+                i += Long.numberOfTrailingZeros(found) >>> 3;
+                if (i > last) break;
+            }
+            else if (bytes[i] != first)
+            {
+                i++;
+                continue;
+            }
+            if (matches(bytes, i, pattern)) return i;
+            i++;
+        }
+        return -1;
+    }
+
+    private static boolean matches(byte[] bytes, int offset, byte[] pattern)
+    {
+        for (int k = 0; k < pattern.length; k++)
+        {
+            if (bytes[offset + k] != pattern[k]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the length of the record whose indicator section starts at the
+     * given position, if the indicator section is valid.
+     * @param bytes the array holding the indicator section
+     * @param offset the position of the start code
+     * @param available the number of bytes available from {@code offset}, which
+     * must be at least {@link #HEADER_LENGTH} for GRIB-2 records
+     * @return the length of the record (units: bytes), or -1 if the indicator
+     * section is not valid
+     */
+    static long getRecordLength(byte[] bytes, int offset, int available)
+    {
+        if (available < 8 || !matches(bytes, offset, START_CODE)) return -1;
+        switch (bytes[offset + 7])
+        {
+            case 1:
+            {
+                long length = ((bytes[offset + 4] & 0xFFL) << 16) | ((bytes[offset + 5] & 0xFFL) << 8)
+                        | (bytes[offset + 6] & 0xFFL);
+                return length >= MIN_LENGTH_EDITION_1 ? length : -1;
+            }
+            case 2:
+            {
+                if (available < HEADER_LENGTH) return -1;
+                long length = 0;
+                for (int k = 8; k < 16; k++)
+                {
+                    length = (length << 8) | (bytes[offset + k] & 0xFFL);
+                }
+                return length >= MIN_LENGTH_EDITION_2 ? length : -1;
+            }
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Searches part of an array for the start of a valid record.
+     * @param bytes the array to search
+     * @param from the position from which to search (inclusive)
+     * @param to the position up to which data is available (exclusive)
+     * @param complete whether the data ends at {@code to}, so that a start code
+     * without a full indicator section after it cannot be a record
+     * @return the position of the record, -1 if none is found, or {@code -2 - i}
+     * if a candidate at position i cannot be validated without more data
+     */
+    static int findRecordStart(byte[] bytes, int from, int to, boolean complete)
+    {
+        int i = from;
+        while ((i = indexOf(bytes, i, to, START_CODE)) >= 0)
+        {
+            int available = to - i;
+            if (available < HEADER_LENGTH && !complete)
+            {
+                return -2 - i;
+            }
+            long length = getRecordLength(bytes, i, available);
+            if (length > 0 && (length > available || matches(bytes, (int) (i + length - 4), END_CODE)))
+            {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the start of the next valid record in a file, checking that each
+     * candidate ends with an end section at the position given by its length.
+     * @param raf the file
+     * @param from the position from which to search
+     * @return the position of the record, or -1 if none is found
+     * @throws IOException if the file cannot be read
+     */
+    public static long findRecordStart(RandomAccessFile raf, long from) throws IOException
+    {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        byte[] end = new byte[END_CODE.length];
+        long fileLength = raf.length();
+        long position = from;
+        while (position < fileLength)
+        {
+            raf.seek(position);
+            int n = read(raf, buffer);
+            boolean complete = position + n >= fileLength;
+            int i = 0;
+            while (true)
+            {
+                i = indexOf(buffer, i, n, START_CODE);
+                if (i < 0 || (n - i < HEADER_LENGTH && !complete)) break;
+                long length = getRecordLength(buffer, i, n - i);
+                long start = position + i;
+                if (length > 0 && start + length <= fileLength)
+                {
+                    raf.seek(start + length - END_CODE.length);
+                    raf.readFully(end);
+                    if (matches(end, 0, END_CODE))
+                    {
+                        return start;
+                    }
+                }
+                i++;
+            }
+            if (complete) break;
+            // Continue from a candidate which could not be validated, or keep
+            // enough bytes to find a start code spanning two chunks
+            position += i >= 0 ? i : n - (START_CODE.length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * The location of a record within a file.
+     */
+    public static class Boundary
+    {
+        private final long offset;
+        private final long length;
+        private final int edition;
+
+        Boundary(long offset, long length, int edition)
+        {
+            this.offset = offset;
+            this.length = length;
+            this.edition = edition;
+        }
+
+        /**
+         * Returns the position of the start code of the record.
+         * @return the offset of the record within its file (units: bytes)
+         */
+        public long getOffset()
+        {
+            return offset;
+        }
+
+        /**
+         * Returns the length of the record, as given by its indicator section.
+         * @return the length of the record (units: bytes)
+         */
+        public long getLength()
+        {
+            return length;
+        }
+
+        public int getEdition()
+        {
+            return edition;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "GRIB-" + edition + " record at " + offset + " (" + length + " bytes)";
+        }
+    }
+
+    /**
+     * Finds the boundaries of all the records within a file.
+     * @param file the file
+     * @return the boundaries, in file order
+     * @throws IOException if the file cannot be read
+     * @see #scanBoundaries(RandomAccessFile)
+     */
+    public static List<Boundary> scanBoundaries(File file) throws IOException
+    {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            return scanBoundaries(raf);
+        }
+    }
+
+    /**
+     * Finds the boundaries of all the records within a file. Only the indicator
+     * section of each record is read, after which the scan jumps ahead by the
+     * record length, so the time taken depends on the number of records rather
+     * than the size of the file. If an indicator section is not found where
+     * expected, the file is searched for the next valid record, as in
+     * {@link #findRecordStart(RandomAccessFile, long)}. A record extending past
+     * the end of the file is not included.
+     * @param raf the file
+     * @return the boundaries, in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static List<Boundary> scanBoundaries(RandomAccessFile raf) throws IOException
+    {
+        List<Boundary> boundaries = new ArrayList<>();
+        FileChannel channel = raf.getChannel();
+        long fileLength = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        long position = findRecordStart(raf, 0);
+        while (position >= 0 && position < fileLength)
+        {
+            header.clear();
+            while (header.hasRemaining() && channel.read(header, position + header.position()) > 0);
+            long length = getRecordLength(header.array(), 0, header.position());
+            if (length < 0)
+            {
+                Logger.println(Logger.WARNING, "No valid record at offset %d, searching for the next record", position);
+                position = findRecordStart(raf, position + 1);
+                continue;
+            }
+            if (position + length > fileLength)
+            {
+                Logger.println(Logger.WARNING, "Record at offset %d is truncated", position);
+                break;
+            }
+            boundaries.add(new Boundary(position, length, header.get(7)));
+            position += length;
+        }
+        return boundaries;
+    }
+
+    private static int read(RandomAccessFile raf, byte[] buffer) throws IOException
+    {
+        int n = 0;
+        int read;
+        while (n < buffer.length && (read = raf.read(buffer, n, buffer.length - n)) > 0)
+        {
+            n += read;
+        }
+        return n;
+    }
+}
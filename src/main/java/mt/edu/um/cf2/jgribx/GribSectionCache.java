@@ -0,0 +1,146 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache which interns decoded GRIB sections using their raw bytes as key.
+ * <p>
+ * GRIB files typically repeat the same section (e.g. the grid definition)
+ * for every record. Interning these sections allows identical sections to be
+ * shared by all the records (and files) which use them, so that anything
+ * derived from a section (e.g. a grid's search tree or expansion) only needs to
+ * be computed once.
+ * </p>
+ * <p>
+ * The cache holds at most a fixed number of sections, {@value #DEFAULT_MAX_SIZE}
+ * unless set by the system property {@value #MAX_SIZE_PROPERTY}, and evicts the
+ * least recently used section when full. An evicted section stays valid, and
+ * is kept alive for as long as the records using it are; it is simply no longer
+ * shared with records read afterwards.
+ * </p>
+ * Cached sections must not be modified once they have been added.
+ *
+ * @param <T> the type of section being cached
+ */
+public class GribSectionCache<T>
+{
+    /**
+     * The default maximum number of sections held.
+     */
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    /**
+     * System property setting the maximum number of sections held by each cache.
+     */
+    public static final String MAX_SIZE_PROPERTY = "jgribx.sectionCache.maxSize";
+
+    private final Map<Key, T> sections;
+
+    public GribSectionCache()
+    {
+        this(Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Creates a cache.
+     * @param maxSize the maximum number of sections held
+     */
+    public GribSectionCache(final int maxSize)
+    {
+        if (maxSize < 0)
+        {
+            throw new IllegalArgumentException("Invalid cache size: " + maxSize);
+        }
+        sections = new LinkedHashMap<Key, T>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, T> eldest)
+            {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the section previously interned for the given raw bytes.
+     * @param octets the raw bytes of the section
+     * @return the interned section, or {@code null} if none is held
+     */
+    public synchronized T get(byte[] octets)
+    {
+        return sections.get(new Key(octets));
+    }
+
+    /**
+     * Interns a section decoded from the given raw bytes.
+     * If an identical section is already held (possibly interned by another
+     * thread), the existing instance is returned instead.
+     * @param octets the raw bytes of the section
+     * @param section the section decoded from {@code octets}
+     * @return the interned section
+     */
+    public synchronized T intern(byte[] octets, T section)
+    {
+        Key key = new Key(octets);
+        T existing = sections.get(key);
+        if (existing != null) return existing;
+        sections.put(key, section);
+        return section;
+    }
+
+    /**
+     * Returns the number of distinct sections currently held.
+     * @return the number of distinct sections
+     */
+    public synchronized int size()
+    {
+        return sections.size();
+    }
+
+    /**
+     * Removes all interned sections.
+     */
+    public synchronized void clear()
+    {
+        sections.clear();
+    }
+
+    private static final class Key
+    {
+        private final byte[] octets;
+        private final int hash;
+
+        private Key(byte[] octets)
+        {
+            this.octets = octets;
+            this.hash = Arrays.hashCode(octets);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key key = (Key) obj;
+            return hash == key.hash && Arrays.equals(octets, key.octets);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The bundled parameter tables, precompiled into a single binary resource so
+ * that they can be loaded with one read instead of being parsed line by line.
+ * <p>
+ * The bundle is generated at build time by running {@link #main(String[])} on
+ * the resource directory (see the {@code compileTables} task of the build),
+ * and holds every {@code .gpt} and {@code .txt} table found there, keyed by
+ * file name. If the bundle is not on the class path (e.g. when running from
+ * the source tree), or if it is disabled by setting the system property
+ * {@value #DISABLE_PROPERTY} to {@code true}, {@link #getTable(String)} returns
+ * {@code null} and callers fall back to parsing the text tables.
+ * </p>
+ * The binary format is a magic number and version, followed by a pool of
+ * strings and, for each table, its name and its entries as indexes into the
+ * pool.
+ */
+public class GribTableBundle
+{
+    /**
+     * Class path location of the bundle.
+     */
+    public static final String RESOURCE = "/jgribx-tables.bin";
+
+    /**
+     * System property which, when set to {@code true}, disables the bundle.
+     */
+    public static final String DISABLE_PROPERTY = "jgribx.tables.disableBundle";
+
+    private static final int MAGIC = 0x4A475854;    // "JGXT"
+    private static final int VERSION = 1;
+
+    private static final Pattern LIST_PATTERN = Pattern.compile("(\\d+)\\s*:\\s*(.*?)\\s*:\\s*(.*?)\\s*:\\s*(\\w*)");
+
+    private static volatile Map<String, Table> tables;
+
+    /**
+     * A parameter table held as parallel arrays, one entry per listed parameter.
+     */
+    public static class Table
+    {
+        private final int[] numbers;
+        private final String[] codes;
+        private final String[] descriptions;
+        private final String[] units;
+
+        Table(int[] numbers, String[] codes, String[] descriptions, String[] units)
+        {
+            this.numbers = numbers;
+            this.codes = codes;
+            this.descriptions = descriptions;
+            this.units = units;
+        }
+
+        private Table(List<String[]> entries)
+        {
+            int n = entries.size();
+            numbers = new int[n];
+            codes = new String[n];
+            descriptions = new String[n];
+            units = new String[n];
+            for (int i = 0; i < n; i++)
+            {
+                String[] entry = entries.get(i);
+                numbers[i] = Integer.parseInt(entry[0]);
+                descriptions[i] = entry[1];
+                units[i] = entry[2];
+                codes[i] = entry[3];
+            }
+        }
+
+        public int size()
+        {
+            return numbers.length;
+        }
+
+        public int getNumber(int i)
+        {
+            return numbers[i];
+        }
+
+        public String getCode(int i)
+        {
+            return codes[i];
+        }
+
+        public String getDescription(int i)
+        {
+            return descriptions[i];
+        }
+
+        public String getUnits(int i)
+        {
+            return units[i];
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof Table)) return false;
+            Table table = (Table) obj;
+            return Arrays.equals(numbers, table.numbers) && Arrays.equals(codes, table.codes)
+                    && Arrays.equals(descriptions, table.descriptions) && Arrays.equals(units, table.units);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Arrays.hashCode(numbers);
+        }
+    }
+
+    /**
+     * Returns a table from the bundle, loading the bundle on first use.
+     * @param name the file name of the table, e.g. {@code grib1-table2.gpt}
+     * @return the table, or {@code null} if the bundle is not available or
+     * does not hold the table
+     */
+    public static Table getTable(String name)
+    {
+        Map<String, Table> loaded = tables;
+        if (loaded == null)
+        {
+            synchronized (GribTableBundle.class)
+            {
+                loaded = tables;
+                if (loaded == null)
+                {
+                    tables = loaded = loadBundle();
+                }
+            }
+        }
+        return loaded.get(name);
+    }
+
+    private static Map<String, Table> loadBundle()
+    {
+        if (Boolean.getBoolean(DISABLE_PROPERTY)) return Collections.emptyMap();
+        try (InputStream in = GribTableBundle.class.getResourceAsStream(RESOURCE))
+        {
+            if (in == null)
+            {
+                Logger.println("Table bundle not found, reading text tables", Logger.DEBUG);
+                return Collections.emptyMap();
+            }
+            return readBundle(in);
+        }
+        catch (IOException e)
+        {
+            Logger.println("Cannot read table bundle: " + e.getMessage(), Logger.ERROR);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Reads a bundle. The stream is read fully into memory before the tables
+     * are decoded.
+     * @param in the stream holding the bundle
+     * @return the tables, keyed by name
+     * @throws IOException if the bundle cannot be read or is not valid
+     */
+    static Map<String, Table> readBundle(InputStream in) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        byte[] buffer = new byte[64 * 1024];
+        int n;
+        while ((n = in.read(buffer)) > 0)
+        {
+            bytes.write(buffer, 0, n);
+        }
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+        if (data.readInt() != MAGIC)
+        {
+            throw new IOException("Not a table bundle");
+        }
+        int version = data.readInt();
+        if (version != VERSION)
+        {
+            throw new IOException("Unsupported table bundle version: " + version);
+        }
+
+        String[] pool = new String[data.readInt()];
+        for (int i = 0; i < pool.length; i++)
+        {
+            pool[i] = data.readUTF();
+        }
+
+        int nTables = data.readInt();
+        Map<String, Table> bundle = new HashMap<>(nTables * 2);
+        for (int t = 0; t < nTables; t++)
+        {
+            String name = pool[data.readChar()];
+            int size = data.readInt();
+            int[] numbers = new int[size];
+            String[] codes = new String[size];
+            String[] descriptions = new String[size];
+            String[] units = new String[size];
+            for (int i = 0; i < size; i++)
+            {
+                numbers[i] = data.readInt();
+                codes[i] = pool[data.readChar()];
+                descriptions[i] = pool[data.readChar()];
+                units[i] = pool[data.readChar()];
+            }
+            bundle.put(name, new Table(numbers, codes, descriptions, units));
+        }
+        return Collections.unmodifiableMap(bundle);
+    }
+
+    /**
+     * Writes a bundle holding the given tables.
+     * @param tables the tables, keyed by name
+     * @param out the stream to write to
+     * @throws IOException if the bundle cannot be written
+     */
+    static void writeBundle(Map<String, Table> tables, DataOutputStream out) throws IOException
+    {
+        Map<String, Integer> pool = new LinkedHashMap<>();
+        for (Map.Entry<String, Table> entry : tables.entrySet())
+        {
+            intern(pool, entry.getKey());
+            Table table = entry.getValue();
+            for (int i = 0; i < table.size(); i++)
+            {
+                intern(pool, table.codes[i]);
+                intern(pool, table.descriptions[i]);
+                intern(pool, table.units[i]);
+            }
+        }
+        if (pool.size() > Character.MAX_VALUE)
+        {
+            throw new IOException("Too many strings for a table bundle: " + pool.size());
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(pool.size());
+        for (String s : pool.keySet())
+        {
+            out.writeUTF(s);
+        }
+        out.writeInt(tables.size());
+        for (Map.Entry<String, Table> entry : tables.entrySet())
+        {
+            Table table = entry.getValue();
+            out.writeChar(pool.get(entry.getKey()));
+            out.writeInt(table.size());
+            for (int i = 0; i < table.size(); i++)
+            {
+                out.writeInt(table.numbers[i]);
+                out.writeChar(pool.get(table.codes[i]));
+                out.writeChar(pool.get(table.descriptions[i]));
+                out.writeChar(pool.get(table.units[i]));
+            }
+        }
+        out.flush();
+    }
+
+    private static void intern(Map<String, Integer> pool, String s)
+    {
+        if (!pool.containsKey(s)) pool.put(s, pool.size());
+    }
+
+    /**
+     * Reads a text table, in the {@code .gpt} format if its name ends with
+     * {@code .gpt}, or in the GRIB-2 parameter list format otherwise.
+     * @param name the file name of the table
+     * @param in the stream holding the table
+     * @return the table
+     * @throws IOException if the table cannot be read
+     */
+    public static Table readTextTable(String name, InputStream in) throws IOException
+    {
+        return name.endsWith(".gpt") ? readGptTable(in) : readParameterList(in);
+    }
+
+    /**
+     * Reads a GRIB-1 parameter table in the {@code .gpt} format, in which each
+     * line holds the number, description, units and abbreviation of a parameter,
+     * separated by commas. Descriptions may themselves contain commas.
+     * @param in the stream holding the table
+     * @return the table
+     * @throws IOException if the table cannot be read
+     */
+    public static Table readGptTable(InputStream in) throws IOException
+    {
+        List<String[]> entries = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null)
+        {
+            int first = line.indexOf(',');
+            int last = line.lastIndexOf(',');
+            int middle = last > first ? line.lastIndexOf(',', last - 1) : -1;
+            if (first < 0 || middle < first) continue;
+            String number = line.substring(0, first).trim();
+            try
+            {
+                Integer.parseInt(number);
+            }
+            catch (NumberFormatException e)
+            {
+                continue;
+            }
+            entries.add(new String[] {
+                    number,
+                    middle > first ? line.substring(first + 1, middle).trim() : "",
+                    line.substring(middle + 1, last).trim(),
+                    line.substring(last + 1).trim()});
+        }
+        return new Table(entries);
+    }
+
+    /**
+     * Reads a GRIB-2 parameter list, in which each line holds the number,
+     * description, units and abbreviation of a parameter, separated by colons.
+     * @param in the stream holding the list
+     * @return the table
+     * @throws IOException if the list cannot be read
+     */
+    public static Table readParameterList(InputStream in) throws IOException
+    {
+        List<String[]> entries = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null)
+        {
+            Matcher m = LIST_PATTERN.matcher(line);
+            if (m.find())
+            {
+                entries.add(new String[] {m.group(1), m.group(2), m.group(3), m.group(4)});
+            }
+        }
+        return new Table(entries);
+    }
+
+    /**
+     * Compiles all the text tables in a directory into a bundle.
+     * @param args the directory holding the tables, and the bundle to write
+     * @throws IOException if a table cannot be read or the bundle cannot be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.err.println("Usage: GribTableBundle <table directory> <output file>");
+            System.exit(1);
+        }
+        File[] files = new File(args[0]).listFiles((dir, name) -> name.endsWith(".gpt") || name.endsWith(".txt"));
+        if (files == null)
+        {
+            throw new IOException("Cannot list " + args[0]);
+        }
+        Arrays.sort(files);
+
+        Map<String, Table> bundle = new LinkedHashMap<>();
+        for (File file : files)
+        {
+            try (InputStream in = new FileInputStream(file))
+            {
+                bundle.put(file.getName(), readTextTable(file.getName(), in));
+            }
+        }
+
+        File output = new File(args[1]);
+        if (output.getParentFile() != null) output.getParentFile().mkdirs();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(output)))
+        {
+            writeBundle(bundle, out);
+        }
+        System.out.println("Wrote " + bundle.size() + " tables to " + output);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+/**
+ * The values of a parameter at a single location over a range of forecast times,
+ * as returned by {@link GribFile#extractTimeSeries(String, String, double, double)}
+ * and {@link GribDataset#extractTimeSeries(String, String, double, double)}.
+ * A time series cannot be modified; the arrays it returns are copies.
+ */
+public class GribTimeSeries
+{
+    private final long[] times;
+    private final float[] values;
+
+    /**
+     * Creates a time series holding the given arrays, which are not copied.
+     * The times may be shared by the series of several locations, since the
+     * arrays are never handed out.
+     */
+    GribTimeSeries(long[] times, float[] values)
+    {
+        this.times = times;
+        this.values = values;
+    }
+
+    /**
+     * Returns the forecast times, in ascending order.
+     * @return a copy of the forecast times (units: milliseconds since 1970-01-01T00:00:00Z)
+     */
+    public long[] getTimes()
+    {
+        return times.clone();
+    }
+
+    /**
+     * Returns a single forecast time.
+     * @param i the index of the forecast time
+     * @return the forecast time (units: milliseconds since 1970-01-01T00:00:00Z)
+     */
+    public long getTime(int i)
+    {
+        return times[i];
+    }
+
+    /**
+     * Returns the value at each forecast time. Values which are not available
+     * (e.g. because the location lies outside the grid) are set to NaN.
+     * @return a copy of the values
+     */
+    public float[] getValues()
+    {
+        return values.clone();
+    }
+
+    /**
+     * Returns the value at a single forecast time.
+     * @param i the index of the forecast time
+     * @return the value, or NaN if it is not available
+     */
+    public float getValue(int i)
+    {
+        return values[i];
+    }
+
+    /**
+     * Returns the number of forecast times.
+     * @return the number of forecast times
+     */
+    public int size()
+    {
+        return times.length;
+    }
+}
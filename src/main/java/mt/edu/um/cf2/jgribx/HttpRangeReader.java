@@ -0,0 +1,178 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads ranges of a remote file with HTTP range requests, e.g. from object
+ * storage, so that selected records can be read without downloading the whole
+ * file. Each range is fetched with its own request, so ranges can be fetched
+ * concurrently.
+ */
+public class HttpRangeReader implements RangeReader
+{
+    /**
+     * The default connect and read timeout (units: milliseconds).
+     */
+    public static final int DEFAULT_TIMEOUT = 30000;
+
+    /**
+     * Matches the {@code Content-Range} of a partial response, e.g.
+     * {@code bytes 0-499/1234} or {@code bytes 0-499/*}
+     */
+    private static final Pattern CONTENT_RANGE_PATTERN = Pattern.compile("bytes\\s+(\\d+)-(\\d+)/(\\d+|\\*)");
+
+    private final URL url;
+    private final int timeout;
+    private volatile long length = -1;
+
+    public HttpRangeReader(URL url)
+    {
+        this(url, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates a reader for a remote file. No request is made until data is read.
+     * @param url the URL of the file
+     * @param timeout the connect and read timeout (units: milliseconds)
+     */
+    public HttpRangeReader(URL url, int timeout)
+    {
+        this.url = url;
+        this.timeout = timeout;
+    }
+
+    private HttpURLConnection connect(String method) throws IOException
+    {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        return connection;
+    }
+
+    /**
+     * Returns the length of the file, as given by the {@code Content-Length} of
+     * a {@code HEAD} request. The length is requested once.
+     */
+    @Override
+    public long getLength() throws IOException
+    {
+        if (length < 0)
+        {
+            HttpURLConnection connection = connect("HEAD");
+            try
+            {
+                int code = connection.getResponseCode();
+                if (code != HttpURLConnection.HTTP_OK)
+                {
+                    throw new IOException("HEAD " + url + " failed: " + code + " " + connection.getResponseMessage());
+                }
+                long contentLength = connection.getContentLengthLong();
+                if (contentLength < 0)
+                {
+                    throw new IOException("No Content-Length for " + url);
+                }
+                length = contentLength;
+            }
+            finally
+            {
+                connection.disconnect();
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public byte[] read(long offset, int length) throws IOException
+    {
+        byte[] bytes = new byte[length];
+        if (length == 0) return bytes;
+        HttpURLConnection connection = connect("GET");
+        connection.setRequestProperty("Range", "bytes=" + offset + "-" + (offset + length - 1));
+        int code = connection.getResponseCode();
+        if (code == 416)
+        {
+            connection.disconnect();
+            throw new EOFException("Range " + offset + "+" + length + " extends past the end of " + url);
+        }
+        if (code != HttpURLConnection.HTTP_PARTIAL)
+        {
+            // A server ignoring the range would send the whole file
+            connection.disconnect();
+            throw new IOException("Range request to " + url + " failed: " + code + " " + connection.getResponseMessage());
+        }
+        checkContentRange(connection, offset, length);
+        try (InputStream in = connection.getInputStream())
+        {
+            int n = 0;
+            int read;
+            while (n < length && (read = in.read(bytes, n, length - n)) > 0)
+            {
+                n += read;
+            }
+            if (n < length)
+            {
+                throw new EOFException("Range " + offset + "+" + length + " of " + url + " ended after " + n + " bytes");
+            }
+        }
+        Logger.println(() -> "Fetched " + length + " bytes at offset " + offset + " of " + url, Logger.DEBUG);
+        return bytes;
+    }
+
+    /**
+     * Checks that a partial response holds the requested range, since a server
+     * (or a cache in between) may answer with another part of the file.
+     */
+    private void checkContentRange(HttpURLConnection connection, long offset, int length) throws IOException
+    {
+        String contentRange = connection.getHeaderField("Content-Range");
+        Matcher matcher = contentRange == null ? null : CONTENT_RANGE_PATTERN.matcher(contentRange.trim());
+        if (matcher == null || !matcher.matches())
+        {
+            connection.disconnect();
+            throw new IOException("Invalid Content-Range from " + url + ": " + contentRange);
+        }
+        long start = Long.parseLong(matcher.group(1));
+        long end = Long.parseLong(matcher.group(2));
+        if (start != offset || end < start)
+        {
+            connection.disconnect();
+            throw new IOException("Range " + offset + "+" + length + " of " + url + " was answered with " + contentRange);
+        }
+        if (end < offset + length - 1)
+        {
+            connection.disconnect();
+            throw new EOFException("Range " + offset + "+" + length + " extends past the end of " + url);
+        }
+    }
+
+    @Override
+    public String getSource()
+    {
+        return url.toString();
+    }
+
+    /**
+     * Does nothing, since no connection is kept open between reads.
+     */
+    @Override
+    public void close()
+    {
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * The values of a parameter over several forecast times and levels, stored as
+ * a (time, level, y, x) cube in a single contiguous array, as built by
+ * {@link GribFile#getHyperCube(String, String, boolean)}.
+ * <p>
+ * The value at (t, l, y, x) is located at
+ * {@code t * getTimeStride() + l * getLevelStride() + y * getRowStride() + x}.
+ * The points of each field are kept in the order in which they are stored in
+ * the data section. Fields which are not available for a given time and level
+ * are filled with NaN.
+ * </p>
+ */
+public class HyperCube
+{
+    private final long[] times;
+    private final float[] levels;
+    private final int nx;
+    private final int ny;
+    private final FloatBuffer buffer;
+
+    /**
+     * Constructs a {@link HyperCube} from a set of records and copies their
+     * values into it. The records are copied in parallel, each into its own
+     * slice of the cube.
+     * @param times the forecast times (units: milliseconds since 1970-01-01T00:00:00Z)
+     * @param levels the level values
+     * @param records the record for each (time, level) pair, indexed by
+     * {@code t * levels.length + l}; {@code null} where no record is available
+     * @param nx the number of points along the x-axis
+     * @param ny the number of points along the y-axis
+     * @param offHeap whether the values should be stored in a direct buffer
+     */
+    HyperCube(long[] times, float[] levels, final GribRecord[] records, int nx, int ny, boolean offHeap)
+    {
+        this.times = times;
+        this.levels = levels;
+        this.nx = nx;
+        this.ny = ny;
+
+        long size = (long) times.length * levels.length * nx * ny;
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Hypercube of " + size + " values is too large");
+        }
+        if (offHeap)
+        {
+            buffer = ByteBuffer.allocateDirect((int) size * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        }
+        else
+        {
+            buffer = FloatBuffer.allocate((int) size);
+        }
+
+        final int fieldSize = nx * ny;
+        IntStream.range(0, records.length).parallel().forEach(k ->
+        {
+            // Each slice is written through its own view so that positions are not shared
+            FloatBuffer slice = buffer.duplicate();
+            slice.position(k * fieldSize);
+            float[] values = records[k] == null ? null : records[k].getValues();
+            if (values == null)
+            {
+                float[] missing = new float[fieldSize];
+                Arrays.fill(missing, Float.NaN);
+                slice.put(missing);
+            }
+            else
+            {
+                slice.put(values, 0, fieldSize);
+            }
+        });
+    }
+
+    /**
+     * Returns the forecast times along the first axis, in ascending order.
+     * @return a copy of the forecast times (units: milliseconds since 1970-01-01T00:00:00Z)
+     */
+    public long[] getTimes()
+    {
+        return times.clone();
+    }
+
+    /**
+     * Returns a single forecast time along the first axis.
+     * @param t the index of the forecast time
+     * @return the forecast time (units: milliseconds since 1970-01-01T00:00:00Z)
+     */
+    public long getTime(int t)
+    {
+        return times[t];
+    }
+
+    /**
+     * Returns the level values along the second axis, in ascending order.
+     * @return a copy of the level values
+     */
+    public float[] getLevels()
+    {
+        return levels.clone();
+    }
+
+    /**
+     * Returns a single level value along the second axis.
+     * @param l the index of the level
+     * @return the level value
+     */
+    public float getLevel(int l)
+    {
+        return levels[l];
+    }
+
+    public int getSizeT()
+    {
+        return times.length;
+    }
+
+    public int getSizeLevel()
+    {
+        return levels.length;
+    }
+
+    public int getSizeY()
+    {
+        return ny;
+    }
+
+    public int getSizeX()
+    {
+        return nx;
+    }
+
+    /**
+     * Returns the distance between consecutive forecast times within the array.
+     * @return the number of values per forecast time
+     */
+    public int getTimeStride()
+    {
+        return levels.length * ny * nx;
+    }
+
+    /**
+     * Returns the distance between consecutive levels within the array.
+     * @return the number of values per level
+     */
+    public int getLevelStride()
+    {
+        return ny * nx;
+    }
+
+    /**
+     * Returns the distance between consecutive rows within the array.
+     * @return the number of values per row
+     */
+    public int getRowStride()
+    {
+        return nx;
+    }
+
+    /**
+     * Returns the position of a value within the array.
+     * @param t the time index
+     * @param l the level index
+     * @param y the row index
+     * @param x the column index
+     * @return the position of the value
+     */
+    public int getIndex(int t, int l, int y, int x)
+    {
+        return t * getTimeStride() + l * getLevelStride() + y * nx + x;
+    }
+
+    /**
+     * Returns a single value.
+     * @param t the time index
+     * @param l the level index
+     * @param y the row index
+     * @param x the column index
+     * @return the value
+     */
+    public float get(int t, int l, int y, int x)
+    {
+        return buffer.get(getIndex(t, l, y, x));
+    }
+
+    /**
+     * Returns the values at all levels for a single time and grid point, e.g.
+     * to build a sounding.
+     * @param t the time index
+     * @param y the row index
+     * @param x the column index
+     * @return the value at each level
+     */
+    public float[] getProfile(int t, int y, int x)
+    {
+        float[] profile = new float[levels.length];
+        int index = getIndex(t, 0, y, x);
+        for (int l = 0; l < profile.length; l++)
+        {
+            profile[l] = buffer.get(index);
+            index += getLevelStride();
+        }
+        return profile;
+    }
+
+    /**
+     * Returns a read-only view of all the values. The view is backed by a
+     * direct buffer if the cube was built off-heap.
+     * @return the values, in (time, level, y, x) order
+     */
+    public FloatBuffer getBuffer()
+    {
+        return buffer.asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics which are accumulated in memory, to be read periodically by a
+ * monitoring system. Stage timings are kept as histograms with power-of-two
+ * buckets, from which approximate percentiles are derived.
+ */
+public class InMemoryMetrics implements JGribXMetrics
+{
+    private final Map<Stage, Histogram> histograms = new EnumMap<>(Stage.class);
+    private final LongAdder bytesRead = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> decodedByPackingType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> decodedByGridType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> skippedByReason = new ConcurrentHashMap<>();
+
+    public InMemoryMetrics()
+    {
+        for (Stage stage : Stage.values())
+        {
+            histograms.put(stage, new Histogram());
+        }
+    }
+
+    @Override
+    public void recordStage(Stage stage, long nanos)
+    {
+        histograms.get(stage).add(nanos);
+    }
+
+    @Override
+    public void recordBytesRead(long nBytes)
+    {
+        bytesRead.add(nBytes);
+    }
+
+    @Override
+    public void recordDecoded(String packingType, String gridType)
+    {
+        increment(decodedByPackingType, packingType);
+        increment(decodedByGridType, gridType);
+    }
+
+    @Override
+    public void recordSkipped(String reason)
+    {
+        increment(skippedByReason, reason);
+    }
+
+    private static void increment(ConcurrentMap<String, LongAdder> counters, String key)
+    {
+        counters.computeIfAbsent(String.valueOf(key), k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Returns the number of times a stage was recorded.
+     * @param stage the stage
+     * @return the number of records which went through the stage
+     */
+    public long getCount(Stage stage)
+    {
+        return histograms.get(stage).count.sum();
+    }
+
+    /**
+     * Returns the total time spent in a stage.
+     * @param stage the stage
+     * @return the total time (units: nanoseconds)
+     */
+    public long getTotalNanos(Stage stage)
+    {
+        return histograms.get(stage).total.sum();
+    }
+
+    /**
+     * Returns an approximate percentile of the time spent in a stage per record.
+     * The result is the upper bound of the histogram bucket holding the
+     * percentile, so it is at most twice the exact value.
+     * @param stage the stage
+     * @param percentile the percentile, between 0 and 100
+     * @return the percentile (units: nanoseconds), or 0 if the stage was not recorded
+     */
+    public long getPercentileNanos(Stage stage, double percentile)
+    {
+        if (percentile < 0 || percentile > 100)
+        {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+        return histograms.get(stage).getPercentile(percentile);
+    }
+
+    /**
+     * Returns the total number of bytes read.
+     * @return the number of bytes
+     */
+    public long getBytesRead()
+    {
+        return bytesRead.sum();
+    }
+
+    /**
+     * Returns the number of records decoded for each packing type.
+     * @return the counts, keyed by packing type
+     */
+    public Map<String, Long> getDecodedByPackingType()
+    {
+        return snapshot(decodedByPackingType);
+    }
+
+    /**
+     * Returns the number of records decoded for each grid type.
+     * @return the counts, keyed by grid type
+     */
+    public Map<String, Long> getDecodedByGridType()
+    {
+        return snapshot(decodedByGridType);
+    }
+
+    /**
+     * Returns the number of records skipped for each reason.
+     * @return the counts, keyed by reason
+     */
+    public Map<String, Long> getSkippedByReason()
+    {
+        return snapshot(skippedByReason);
+    }
+
+    private static Map<String, Long> snapshot(ConcurrentMap<String, LongAdder> counters)
+    {
+        Map<String, Long> counts = new TreeMap<>();
+        counters.forEach((key, counter) -> counts.put(key, counter.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Resets all timings and counters.
+     */
+    public void reset()
+    {
+        histograms.values().forEach(Histogram::reset);
+        bytesRead.reset();
+        decodedByPackingType.clear();
+        decodedByGridType.clear();
+        skippedByReason.clear();
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (Stage stage : Stage.values())
+        {
+            sb.append(String.format("%-8s count=%d total=%.3fms p50=%dns p99=%dns%n", stage, getCount(stage),
+                    getTotalNanos(stage) / 1e6, getPercentileNanos(stage, 50), getPercentileNanos(stage, 99)));
+        }
+        sb.append("bytes read=").append(getBytesRead()).append(System.lineSeparator());
+        sb.append("decoded by packing type=").append(getDecodedByPackingType()).append(System.lineSeparator());
+        sb.append("decoded by grid type=").append(getDecodedByGridType()).append(System.lineSeparator());
+        sb.append("skipped=").append(getSkippedByReason());
+        return sb.toString();
+    }
+
+    private static class Histogram
+    {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+
+        /**
+         * Bucket i holds values in [2^(i-1), 2^i), and bucket 0 holds zero.
+         */
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+        private void add(long nanos)
+        {
+            if (nanos < 0) nanos = 0;
+            count.increment();
+            total.add(nanos);
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(nanos));
+        }
+
+        private long getPercentile(double percentile)
+        {
+            long n = count.sum();
+            if (n == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++)
+            {
+                seen += buckets.get(i);
+                if (seen >= rank)
+                {
+                    return i == 0 ? 0 : i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        private void reset()
+        {
+            count.reset();
+            total.reset();
+            for (int i = 0; i < buckets.length(); i++)
+            {
+                buckets.set(i, 0);
+            }
+        }
+    }
+}
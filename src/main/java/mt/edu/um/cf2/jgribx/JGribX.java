@@ -18,6 +18,15 @@ public class JGribX
     */
     private static final String VERSION = "0.5.0";
     
+    /**
+     * The default number of blocks read ahead when reading files.
+     */
+    public static final int DEFAULT_PREFETCH_DEPTH = 4;
+    
+    private static volatile JGribXMetrics metrics = JGribXMetrics.NOOP;
+    
+    private static volatile int prefetchDepth = DEFAULT_PREFETCH_DEPTH;
+    
     public static void setLoggingLevel(int level)
     {
         Logger.setLevel(level);
@@ -39,6 +48,47 @@ public class JGribX
         return RES_PATH;
     }
     
+    /**
+     * Installs the metrics which receive timings and counters from the decoding
+     * pipeline.
+     * @param metrics the metrics, or {@code null} to discard them
+     */
+    public static void setMetrics(JGribXMetrics metrics)
+    {
+        JGribX.metrics = metrics != null ? metrics : JGribXMetrics.NOOP;
+    }
+    
+    /**
+     * Returns the installed metrics.
+     * @return the metrics, {@link JGribXMetrics#NOOP} if none are installed
+     */
+    public static JGribXMetrics getMetrics()
+    {
+        return metrics;
+    }
+    
+    /**
+     * Sets the number of blocks which are read ahead in a background thread
+     * while the records already read are decoded, when a {@link GribFile} is
+     * read from a file. See {@link ReadAheadInputStream}.
+     * @param depth the number of blocks, or 0 to read files synchronously
+     */
+    public static void setPrefetchDepth(int depth)
+    {
+        if (depth < 0)
+            throw new IllegalArgumentException("Invalid prefetch depth: " + depth);
+        prefetchDepth = depth;
+    }
+    
+    /**
+     * Returns the number of blocks which are read ahead when reading files.
+     * @return the number of blocks, 0 if files are read synchronously
+     */
+    public static int getPrefetchDepth()
+    {
+        return prefetchDepth;
+    }
+    
     /**
      * Returns the current version of JGribX
      * @return 
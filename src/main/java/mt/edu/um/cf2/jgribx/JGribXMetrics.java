@@ -0,0 +1,87 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+/**
+ * Receives timings and counters from the decoding pipeline, so that they can
+ * be fed into a monitoring system. An implementation is installed with
+ * {@link JGribX#setMetrics(JGribXMetrics)}; by default, {@link #NOOP} discards
+ * everything.
+ * <p>
+ * All methods do nothing by default, so implementations only need to override
+ * the ones they are interested in. Methods may be called concurrently from
+ * several threads, and should return quickly.
+ * </p>
+ * @see InMemoryMetrics
+ */
+public interface JGribXMetrics
+{
+    /**
+     * The stages of reading a record. The data stages are nested:
+     * {@link #JPEG2000} and {@link #SCALING} are also counted in {@link #UNPACK}.
+     */
+    enum Stage
+    {
+        /** Finding the start of a record and reading its indicator section. */
+        SCAN,
+        /** Reading the sections preceding the bitmap and data sections. */
+        HEADER,
+        /** Reading the bitmap and data sections. */
+        UNPACK,
+        /** Decoding a JPEG2000 code stream. */
+        JPEG2000,
+        /** Applying the reference value and scale factors, where this is a separate pass over the data. */
+        SCALING
+    }
+
+    /**
+     * Metrics which discard everything.
+     */
+    JGribXMetrics NOOP = new JGribXMetrics() {};
+
+    /**
+     * Records the time spent in a stage for a single record.
+     * @param stage the stage
+     * @param nanos the elapsed time (units: nanoseconds)
+     */
+    default void recordStage(Stage stage, long nanos)
+    {
+    }
+
+    /**
+     * Records the bytes read for a record.
+     * @param nBytes the number of bytes
+     */
+    default void recordBytesRead(long nBytes)
+    {
+    }
+
+    /**
+     * Records a record whose data was decoded.
+     * @param packingType the packing of the data, e.g. {@code simple} or
+     * {@code 5.40} for GRIB-2 Data Representation Template 5.40
+     * @param gridType the type of grid, as the name of the grid definition class
+     */
+    default void recordDecoded(String packingType, String gridType)
+    {
+    }
+
+    /**
+     * Records a record which was skipped because it could not be read.
+     * @param reason the kind of failure for which the record was skipped, which
+     * is one of a small set of values, e.g. the simple name of the exception
+     * class, so that it can be used as a metric key; details such as the
+     * exception message are only logged
+     */
+    default void recordSkipped(String reason)
+    {
+    }
+}
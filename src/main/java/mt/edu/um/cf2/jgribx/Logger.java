@@ -15,11 +15,23 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.function.Supplier;
 
+/**
+ * Logs messages to the console or to a local file. The logging mode and level
+ * may be changed at any time, and messages may be printed from any thread.
+ * <p>
+ * Messages which are expensive to build should be passed as a {@link Supplier}
+ * or as a format string with arguments, or guarded with {@link #isEnabled(int)},
+ * so that no time is spent building them when they would be discarded. The
+ * arguments of a format string are still boxed into an array on every call,
+ * so messages logged for each record use a {@link Supplier} instead.
+ * </p>
+ */
 public class Logger
 {
     public enum LoggingMode {OFF,CONSOLE,LOCAL,REMOTE};
-    private static LoggingMode mode;
+    private static volatile LoggingMode mode;
     
     private static PrintWriter pw;
     
@@ -36,7 +48,7 @@ public class Logger
     /** Designates finer-grained informational events that are useful for tracing a problem. */
     public static final int TRACE   = 5;
     
-    private static int level;
+    private static volatile int level;
     
     public static void setLoggingMode(LoggingMode mode)
     {
@@ -48,9 +60,26 @@ public class Logger
          level = lvl;
     }
     
+    /**
+     * Returns whether messages of the given level are currently printed.
+     * @param lvl the level of the message
+     * @return {@code true} if messages of this level are printed
+     */
+    public static boolean isEnabled(int lvl)
+    {
+        return isEnabled(lvl, mode);
+    }
+    
+    private static boolean isEnabled(int lvl, LoggingMode current)
+    {
+        return lvl <= level && current != null && current != LoggingMode.OFF;
+    }
+    
     public static void print(String msg, int lvl)
     {
-        if (lvl > level) return;
+        // The mode is read once, so that it cannot change between the check and its use
+        LoggingMode current = mode;
+        if (!isEnabled(lvl, current)) return;
         switch (lvl)
         {
             case FATAL:
@@ -74,7 +103,7 @@ public class Logger
             default:
                 break;
         }
-        switch (mode)
+        switch (current)
         {
             case OFF:
                 break;
@@ -82,9 +111,12 @@ public class Logger
                 System.out.print(msg);
                 break;
             case LOCAL:
-                if (pw == null)
-                    pw = openLogFile(new File("log.txt"));
-                pw.print(msg);
+                synchronized (Logger.class)
+                {
+                    if (pw == null)
+                        pw = openLogFile(new File("log.txt"));
+                    pw.print(msg);
+                }
                 break;
             case REMOTE:
                 throw new UnsupportedOperationException("The current version of Logger does not yet support remote logging");
@@ -93,15 +125,42 @@ public class Logger
     
     public static void println(String msg, int lvl)
     {
+        if (!isEnabled(lvl)) return;
         print(msg+"\r\n",lvl);
     }
     
+    /**
+     * Prints a message which is only built if messages of the given level are
+     * currently printed.
+     * @param msg supplies the message
+     * @param lvl the level of the message
+     */
+    public static void println(Supplier<String> msg, int lvl)
+    {
+        if (!isEnabled(lvl)) return;
+        print(msg.get()+"\r\n",lvl);
+    }
+    
+    /**
+     * Prints a message built with {@link String#format(String, Object...)},
+     * which is only formatted if messages of the given level are currently printed.
+     * @param lvl the level of the message
+     * @param format the format string
+     * @param args the arguments referenced by the format string
+     */
+    public static void println(int lvl, String format, Object... args)
+    {
+        if (!isEnabled(lvl)) return;
+        print(String.format(format, args)+"\r\n",lvl);
+    }
+    
     public static void println(int lvl)
     {
+        if (!isEnabled(lvl)) return;
         print("\r\n",lvl);
     }
     
-    public static void flush()
+    public static synchronized void flush()
     {
         if (pw != null)
             pw.flush();
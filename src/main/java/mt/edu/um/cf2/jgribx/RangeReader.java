@@ -0,0 +1,48 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Random access to the bytes of a GRIB file, which may be local or remote.
+ * Implementations must allow ranges to be read concurrently by several threads.
+ *
+ * @see FileRangeReader
+ * @see HttpRangeReader
+ * @see GribRecordFetcher
+ */
+public interface RangeReader extends Closeable
+{
+    /**
+     * Returns the length of the file.
+     * @return the length of the file (units: bytes)
+     * @throws IOException if the length cannot be determined
+     */
+    long getLength() throws IOException;
+
+    /**
+     * Reads a range of bytes.
+     * @param offset the position of the first byte
+     * @param length the number of bytes to read
+     * @return the bytes, of exactly the given length
+     * @throws java.io.EOFException if the range extends past the end of the file
+     * @throws IOException if the range cannot be read
+     */
+    byte[] read(long offset, int length) throws IOException;
+
+    /**
+     * Returns a description of the file being read, for messages.
+     * @return the path or URL of the file
+     */
+    String getSource();
+}
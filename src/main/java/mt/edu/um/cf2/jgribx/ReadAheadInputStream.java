@@ -0,0 +1,233 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An input stream which reads its source in a background thread, a block at a
+ * time, so that the source is read (and e.g. decompressed) while the data
+ * already read is being decoded. This is worthwhile where reads are slow, e.g.
+ * on network file systems, and is used by {@link GribFile#GribFile(String)}
+ * with the depth set by {@link JGribX#setPrefetchDepth(int)}.
+ * <p>
+ * At most a fixed number of blocks (the prefetch depth) are held waiting to be
+ * read, after which the background thread waits for the blocks to be consumed.
+ * Consumed blocks are reused. Errors reading the source are thrown once all the
+ * blocks read before the error have been consumed. Closing the stream stops the
+ * background thread and closes the source.
+ * </p>
+ * Unlike most streams, {@link #available()} may block until the next block has
+ * been read, and only returns 0 at the end of the stream.
+ */
+public class ReadAheadInputStream extends InputStream
+{
+    /**
+     * The default size of the blocks read.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    /**
+     * Marks the end of the source.
+     */
+    private static final byte[] END = new byte[0];
+
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private final InputStream source;
+    private final int blockSize;
+    private final BlockingQueue<byte[]> blocks;
+    private final BlockingQueue<byte[]> free;
+    private final Thread reader;
+
+    private volatile boolean closed;
+    private volatile IOException error;
+
+    private byte[] block = new byte[0];
+    private int pos;
+    private boolean ended;
+
+    /**
+     * Starts reading a stream in the background, in blocks of the default size.
+     * @param source the stream to read
+     * @param depth the maximum number of blocks read ahead
+     */
+    public ReadAheadInputStream(InputStream source, int depth)
+    {
+        this(source, DEFAULT_BLOCK_SIZE, depth, "jgribx-read-ahead");
+    }
+
+    /**
+     * Starts reading a stream in the background.
+     * @param source the stream to read
+     * @param blockSize the size of each block read (units: bytes)
+     * @param depth the maximum number of blocks read ahead
+     * @param name the name of the background thread
+     */
+    public ReadAheadInputStream(InputStream source, int blockSize, int depth, String name)
+    {
+        if (blockSize <= 0 || depth <= 0)
+        {
+            throw new IllegalArgumentException("Invalid block size or depth: " + blockSize + ", " + depth);
+        }
+        this.source = source;
+        this.blockSize = blockSize;
+        blocks = new ArrayBlockingQueue<>(depth);
+        // One more block than the depth may be in use by the consumer
+        free = new ArrayBlockingQueue<>(depth + 1);
+        reader = new Thread(this::readSource, name);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void readSource()
+    {
+        try
+        {
+            while (!closed)
+            {
+                byte[] buffer = free.poll();
+                if (buffer == null) buffer = new byte[blockSize];
+                int n = 0;
+                int read;
+                IOException failure = null;
+                try
+                {
+                    while (n < buffer.length && (read = source.read(buffer, n, buffer.length - n)) >= 0)
+                    {
+                        n += read;
+                    }
+                }
+                catch (IOException e)
+                {
+                    // Pass on the data read before the error first
+                    failure = e;
+                }
+                if (n > 0)
+                {
+                    put(n < buffer.length ? Arrays.copyOf(buffer, n) : buffer);
+                }
+                if (failure != null) throw failure;
+                if (n < buffer.length) break;
+            }
+        }
+        catch (IOException e)
+        {
+            error = e;
+        }
+        catch (InterruptedException e)
+        {
+            // Closed while waiting for space in the queue
+        }
+        finally
+        {
+            try
+            {
+                put(END);
+            }
+            catch (InterruptedException ignored) {}
+            try
+            {
+                source.close();
+            }
+            catch (IOException e)
+            {
+                Logger.println("Cannot close read-ahead source: " + e.getMessage(), Logger.WARNING);
+            }
+        }
+    }
+
+    private void put(byte[] buffer) throws InterruptedException
+    {
+        while (!closed)
+        {
+            if (blocks.offer(buffer, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) return;
+        }
+    }
+
+    /**
+     * Makes sure that the current block has data left, waiting for the next
+     * block if needed.
+     * @return {@code false} at the end of the stream
+     */
+    private boolean fill() throws IOException
+    {
+        if (closed) throw new IOException("Stream closed");
+        while (pos == block.length)
+        {
+            if (ended) return false;
+            if (block.length == blockSize) free.offer(block);
+            try
+            {
+                block = blocks.take();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for data");
+            }
+            pos = 0;
+            if (block == END)
+            {
+                ended = true;
+                if (error != null) throw error;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        return fill() ? block[pos++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        if (len == 0) return 0;
+        if (!fill()) return -1;
+        int n = Math.min(len, block.length - pos);
+        System.arraycopy(block, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException
+    {
+        if (n <= 0 || !fill()) return 0;
+        int skipped = (int) Math.min(n, block.length - pos);
+        pos += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException
+    {
+        return fill() ? block.length - pos : 0;
+    }
+
+    @Override
+    public void close()
+    {
+        if (closed) return;
+        closed = true;
+        reader.interrupt();
+        blocks.clear();
+    }
+}
@@ -477,6 +477,43 @@ public class Grib1GDSLatLon extends Grib1RecordGDS
     }
 
 
+   /**
+    * Get the index of the grid point closest to the given location.
+    * The index is computed directly from the grid increments. Longitudes are
+    * taken modulo 360 degrees, so they may be given in either -180..180 or
+    * 0..360, and points of global grids wrap around the date line.
+    *
+    * @param latitude latitude of the location
+    * @param longitude longitude of the location
+    * @return index of the closest grid point, or -1 if the location lies
+    * outside the grid
+    */
+    @Override
+    public int getNearestPointIndex(double latitude, double longitude)
+    {
+        int j = (int) Math.round((latitude - grid_lat1) / grid_dy);
+        if (j < 0 || j >= grid_ny) return -1;
+
+        if (grid_dx == 0) return -1;
+        double period = 360.0 / Math.abs(grid_dx);  // number of increments around a parallel
+        double x = ((longitude - grid_lon1) / grid_dx) % period;
+        if (x < 0) x += period;
+        if (x > period - 0.5) x -= period;   // closer to the first point when approached from the other side
+        int i = (int) Math.round(x);
+        if (i >= grid_nx && Math.abs(grid_nx - period) < 0.5) i -= grid_nx;
+        if (i < 0 || i >= grid_nx) return -1;
+
+        if ((grid_scan & 0x20) != 0x20)
+        {
+            // Adjacent points in i direction are consecutive
+            return grid_nx * j + i;
+        }
+        else
+        {
+            return grid_ny * i + j;
+        }
+    }
+
    /**
     * Get a string representation of this GDS.
     * TODO include more information about this projection
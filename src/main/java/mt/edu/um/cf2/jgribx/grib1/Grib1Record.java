@@ -11,10 +11,12 @@
 package mt.edu.um.cf2.jgribx.grib1;
 
 import java.io.IOException;
-import java.util.Calendar;
+import mt.edu.um.cf2.jgribx.GribEvents;
 import mt.edu.um.cf2.jgribx.GribInputStream;
 import mt.edu.um.cf2.jgribx.GribRecord;
 import mt.edu.um.cf2.jgribx.GribRecordIS;
+import mt.edu.um.cf2.jgribx.JGribX;
+import mt.edu.um.cf2.jgribx.JGribXMetrics;
 import mt.edu.um.cf2.jgribx.Logger;
 import mt.edu.um.cf2.jgribx.NoValidGribException;
 import mt.edu.um.cf2.jgribx.NotSupportedException;
@@ -74,10 +76,31 @@ public class Grib1Record extends GribRecord
      */
     public static Grib1Record readFromStream(GribInputStream in, GribRecordIS is) throws IOException,
         NotSupportedException, NoValidGribException
+    {
+        return readFromStream(in, is, true);
+    }
+
+    /**
+     * Constructs a <tt>GribRecord</tt> object from a bit input stream.
+     *
+     * @param in bit input stream with GRIB record content
+     * @param is
+     * @param readData whether the BMS and BDS should be read, or skipped, in
+     * which case the record provides no values
+     * @return 
+     *
+     * @throws IOException           if stream can not be opened etc.
+     * @throws NotSupportedException 
+     * @throws NoValidGribException  if stream contains no valid GRIB file
+     */
+    public static Grib1Record readFromStream(GribInputStream in, GribRecordIS is, boolean readData) throws IOException,
+        NotSupportedException, NoValidGribException
     {
         Grib1Record record = new Grib1Record();
         
         record.is = is;                                 // read Indicator Section
+        JGribXMetrics metrics = JGribX.getMetrics();
+        long start = System.nanoTime();
         
         /* Read PDS */
         in.resetBitCounter();
@@ -96,7 +119,16 @@ public class Grib1Record extends GribRecord
         {
            throw new NoValidGribException("GribRecord: No GDS included.");
         }
+        metrics.recordStage(JGribXMetrics.Stage.HEADER, System.nanoTime() - start);
+
+        if (!readData)
+        {
+            // Skip the BMS and BDS, up to the end section
+            in.skip(is.getRecordLength() - is.getLength() - record.pds.length - record.gds.length - 4);
+            return record;
+        }
 
+        start = System.nanoTime();
         if (record.pds.bmsExists())
         {
             in.resetBitCounter();
@@ -107,9 +139,13 @@ public class Grib1Record extends GribRecord
 
         /* Read BDS */
         in.resetBitCounter();
+        Object event = GribEvents.beginUnpack();
         record.bds = new Grib1RecordBDS(in, record.bms, record.gds, record.pds);
+        GribEvents.endUnpack(event, "simple", record.bds.getNumBits(), record.bds.getValues().length);
         if (in.getByteCounter() != record.bds.length)
             throw new NoValidGribException("Incorrect BDS length");
+        metrics.recordStage(JGribXMetrics.Stage.UNPACK, System.nanoTime() - start);
+        metrics.recordDecoded("simple", record.gds.getClass().getSimpleName());
 
         // number of values
         // rdg - added the check for a constant field - otherwise this fails
@@ -146,11 +182,23 @@ public class Grib1Record extends GribRecord
     }
     
     @Override
-    public Calendar getForecastTime()
+    public long getForecastTimeMillis()
     {
-        return this.pds.forecastTime;
+        return pds.getForecastTimeMillis();
     }
     
+    @Override
+    public int getGridSizeX()
+    {
+        return gds.getGridNX();
+    }
+
+    @Override
+    public int getGridSizeY()
+    {
+        return gds.getGridNY();
+    }
+
     /**
      * Get the grid definition section of this GRIB record.
      *
@@ -247,11 +295,12 @@ public class Grib1Record extends GribRecord
     /**
      * Get data/parameter values as an array of float.
      *
-     * @return  array of parameter values
+     * @return  array of parameter values, or {@code null} if the BDS was not read
      */
     @Override
     public float[] getValues()
     {
+       if (bds == null) return null;
        if (!(bds.getIsConstant())){
           return bds.getValues();
        }
@@ -273,9 +322,11 @@ public class Grib1Record extends GribRecord
      *
      * @return  array of parameter values
      * @throws NoValidGribException 
+     * @throws IllegalStateException if the BDS was not read
      */
     public float getValue(int i, int j) throws NoValidGribException
     {
+       checkData();
        if (i >= 0 && i < gds.getGridNX() && j >= 0 && j < gds.getGridNY()){
           return bds.getValue(gds.getGridNX()*j + i);
        }
@@ -285,21 +336,12 @@ public class Grib1Record extends GribRecord
      @Override
      public double getValue(double latitude, double longitude)
      {
+         checkData();
          double value = Double.NaN;
-         int i = (int) Math.round((longitude - gds.getGridLon1()) / gds.getGridDX());
-         int j = (int) Math.round((latitude - gds.getGridLat1()) / gds.getGridDY());
 
          try
          {
-             if ((gds.grid_scan & 0x20) != 0x20)
-             {
-                 // Adjacent points in i direction are consecutive
-                 value = bds.getValue(gds.grid_nx*j + i);
-             }
-             else
-             {
-                 value = bds.getValue(gds.grid_ny*i + j);
-             }
+             value = bds.getValue(gds.getNearestPointIndex(latitude, longitude));
          }
          catch (NoValidGribException e)
          {
@@ -309,6 +351,14 @@ public class Grib1Record extends GribRecord
          return value;
      }
 
+    private void checkData()
+    {
+        if (bds == null)
+        {
+            throw new IllegalStateException("data was not read");
+        }
+    }
+
     /**
      * Get the unit for the parameter.
      *
@@ -352,12 +402,12 @@ public class Grib1Record extends GribRecord
      /**
       * Get the analysis or forecast time of this GRIB record.
       *
-      * @return analysis or forecast time
+      * @return analysis or forecast time (units: milliseconds since 1970-01-01T00:00:00Z)
       */
      @Override
-     public Calendar getReferenceTime()
+     public long getReferenceTimeMillis()
      {
-        return this.pds.getReferenceTime();
+        return pds.getReferenceTimeMillis();
      }
 
      /**
@@ -10,10 +10,13 @@
  */
 package mt.edu.um.cf2.jgribx.grib1;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import mt.edu.um.cf2.jgribx.Bytes2Number;
+import mt.edu.um.cf2.jgribx.GribGridIndex;
 import mt.edu.um.cf2.jgribx.GribInputStream;
+import mt.edu.um.cf2.jgribx.GribSectionCache;
 import mt.edu.um.cf2.jgribx.NoValidGribException;
 import mt.edu.um.cf2.jgribx.NotSupportedException;
 
@@ -67,6 +70,10 @@ import mt.edu.um.cf2.jgribx.NotSupportedException;
 
 public abstract class Grib1RecordGDS
 {
+    /**
+     * Grid definitions which have already been decoded, keyed by their raw bytes.
+     */
+    private static final GribSectionCache<Grib1RecordGDS> cache = new GribSectionCache<>();
     
     protected double latitudeFirst;
     protected double latitudeLast;
@@ -162,6 +169,11 @@ public abstract class Grib1RecordGDS
     */
    protected double grid_rotang;
 
+   /**
+    * Spatial index over the grid points, built on first use.
+    */
+   private volatile GribGridIndex gridIndex;
+
    // *** constructors *******************************************************
     public Grib1RecordGDS(GribInputStream in) throws IOException
     {
@@ -183,7 +195,45 @@ public abstract class Grib1RecordGDS
         /* [7-xx] */
     }
     
+    /**
+     * Reads a GDS from the given {@link GribInputStream}.
+     * Identical grid definitions are only decoded once and the same instance is
+     * returned for all records (and files) which share it.
+     * @param in the input stream, positioned at the start of the GDS
+     * @return the (possibly shared) GDS
+     * @throws IOException
+     * @throws NoValidGribException if the GDS is not valid
+     * @throws NotSupportedException if the grid type is not supported
+     */
     public static Grib1RecordGDS readFromStream(GribInputStream in) throws IOException, NoValidGribException, NotSupportedException
+    {
+        /* [1-3] Length of section in octets */
+        in.mark(3);
+        int length = in.readUINT(3);
+        in.reset();
+
+        byte[] octets = in.read(length);
+        Grib1RecordGDS gds = cache.get(octets);
+        if (gds == null)
+        {
+            GribInputStream sectionIn = new GribInputStream(new ByteArrayInputStream(octets));
+            gds = readFromSection(sectionIn);
+            if (sectionIn.getByteCounter() != gds.length)
+                throw new NoValidGribException("Incorrect GDS length");
+            gds = cache.intern(octets, gds);
+        }
+        return gds;
+    }
+
+    /**
+     * Removes all grid definitions shared between records.
+     */
+    public static void clearCache()
+    {
+        cache.clear();
+    }
+
+    private static Grib1RecordGDS readFromSection(GribInputStream in) throws IOException, NoValidGribException, NotSupportedException
     {
         Grib1RecordGDS gds = null;
         
@@ -199,9 +249,12 @@ public abstract class Grib1RecordGDS
                 break;
             case 1:
                 throw new NotSupportedException("Mercator projection is not yet supported");
-//            case 3:
-//                gds = new GribGDSLambert(in, header);
-//                break;
+            case 3:
+                gds = new GribGDSLambert(in, in.read(6));
+                break;
+            case 5:
+                gds = new GribGDSPolarStereo(in, in.read(6));
+                break;
             default:
                 throw new NotSupportedException("Unknown GDS type: "+type);               
         }
@@ -377,6 +430,60 @@ public abstract class Grib1RecordGDS
     */
    public abstract String toString();
       
+   /**
+    * Get a spatial index over the grid points of this GDS.
+    * The index is built from {@link #getGridCoords()} the first time it is
+    * needed and is then shared by all records using this GDS.
+    *
+    * @return spatial index
+    */
+   public GribGridIndex getGridIndex()
+   {
+      GribGridIndex index = gridIndex;
+      if (index == null)
+      {
+         synchronized (this)
+         {
+            index = gridIndex;
+            if (index == null)
+            {
+               index = GribGridIndex.fromCoordPairs(getGridCoords());
+               gridIndex = index;
+            }
+         }
+      }
+      return index;
+   }
+
+   /**
+    * Get the index of the grid point closest to the given location.
+    * Grids which have a closed-form projection override this to compute the
+    * index directly instead of using the spatial index.
+    *
+    * @param latitude latitude of the location
+    * @param longitude longitude of the location
+    * @return index of the closest grid point, or -1 if the location lies
+    * outside the grid
+    */
+   public int getNearestPointIndex(double latitude, double longitude)
+   {
+      return getGridIndex().nearest(latitude, longitude);
+   }
+
+   /**
+    * Normalizes a longitude to the range -180..180
+    *
+    * @param longitude longitude in degrees
+    * @return normalized longitude in degrees
+    */
+   protected static double normalizeLongitude(double longitude)
+   {
+      longitude %= 360.0;
+      if (longitude >= 180.0) longitude -= 360.0;
+      if (longitude < -180.0) longitude += 360.0;
+      return longitude;
+   }
+
    /**
     * NOTE: This method must remain here, so we don't 
     * break backward compability - thus this method
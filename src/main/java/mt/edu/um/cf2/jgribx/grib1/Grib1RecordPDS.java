@@ -13,9 +13,9 @@ package mt.edu.um.cf2.jgribx.grib1;
 import java.io.IOException;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
-import java.util.TimeZone;
 import mt.edu.um.cf2.jgribx.Bytes2Number;
 import mt.edu.um.cf2.jgribx.GribInputStream;
+import mt.edu.um.cf2.jgribx.GribRecord;
 import mt.edu.um.cf2.jgribx.Logger;
 import mt.edu.um.cf2.jgribx.NotSupportedException;
 
@@ -62,20 +62,20 @@ public class Grib1RecordPDS
     protected Grib1Level level;
 
     /**
-     * Model Run/Analysis/Reference time.
-     *
+     * Model Run/Analysis/Reference time (units: milliseconds since 1970-01-01T00:00:00Z)
      */
-    protected Calendar baseTime;
+    protected long baseTime;
 
     /**
      * Forecast time. Also used as starting time when times represent a period
+     * (units: milliseconds since 1970-01-01T00:00:00Z)
      */
-    protected Calendar forecastTime;
+    protected long forecastTime;
 
     /**
-     * Ending time when times represent a period
+     * Ending time when times represent a period (units: milliseconds since 1970-01-01T00:00:00Z)
      */
-    protected Calendar forecastTime2;
+    protected long forecastTime2;
 
     /**
      * String used in building a string to represent the time(s) for this PDS
@@ -128,9 +128,6 @@ public class Grib1RecordPDS
     {
         int offset = 0;
         int offset2 = 0;
-        
-        // All defined times are in UTC
-        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
 
         /* [1-3] Section Length */
         length = in.readUINT(3);
@@ -220,8 +217,8 @@ public class Grib1RecordPDS
         level = Grib1Level.getLevel(levelType, levelData);
 
         // octets 13-17 (base time of forecast in UTC)
-        baseTime = new GregorianCalendar(100 * (century - 1) + centuryYear,
-                month - 1, day, hour, minute);
+        baseTime = GribRecord.toEpochMillis(100 * (century - 1) + centuryYear,
+                month, day, hour, minute, 0);
 
         // get info for forecast time
 
@@ -344,10 +341,10 @@ public class Grib1RecordPDS
         }
 
         // octets 13-17 (time of forecast)
-        this.forecastTime = new GregorianCalendar(year1 + 100 * (century - 1),
-                month1 - 1, day1, hour1, minute1);
-        this.forecastTime2 = new GregorianCalendar(year2 + 100 * (century - 1),
-                month2 - 1, day2, hour2, minute2);
+        this.forecastTime = GribRecord.toEpochMillis(year1 + 100 * (century - 1),
+                month1, day1, hour1, minute1, 0);
+        this.forecastTime2 = GribRecord.toEpochMillis(year2 + 100 * (century - 1),
+                month2, day2, hour2, minute2, 0);
     }
 
     /**
@@ -540,7 +537,38 @@ public class Grib1RecordPDS
      */
     public Calendar getReferenceTime()
     {
-        return this.baseTime;
+        return GribRecord.toCalendar(baseTime);
+    }
+
+    /**
+     * Get the reference time of the forecast.
+     *
+     * @return milliseconds since 1970-01-01T00:00:00Z
+     */
+    public long getReferenceTimeMillis()
+    {
+        return baseTime;
+    }
+
+    /**
+     * Get the time of the forecast (or the start of the period, when times
+     * represent a period).
+     *
+     * @return milliseconds since 1970-01-01T00:00:00Z
+     */
+    public long getForecastTimeMillis()
+    {
+        return forecastTime;
+    }
+
+    /**
+     * Get the end of the period, when times represent a period.
+     *
+     * @return milliseconds since 1970-01-01T00:00:00Z
+     */
+    public long getForecastTime2Millis()
+    {
+        return forecastTime2;
     }
 
     /**
@@ -549,7 +577,9 @@ public class Grib1RecordPDS
      * @return date and time
      */
     public Calendar getLocalForecastTime() {
-        return this.forecastTime;
+        Calendar localTime = new GregorianCalendar();
+        localTime.setTimeInMillis(forecastTime);
+        return localTime;
     }
 
     /**
@@ -567,36 +597,16 @@ public class Grib1RecordPDS
      * @return date and time
      */
     public Calendar getGMTBaseTime() {
-
-        Calendar gmtTime = (Calendar) baseTime.clone();
-        // hopefully this DST offset adjusts to DST automatically
-        int dstOffset = gmtTime.get(Calendar.DST_OFFSET) / 3600000;
-        int gmtOffset = gmtTime.get(Calendar.ZONE_OFFSET) / 3600000;//ms to hours
-        Logger.println("offset is " + gmtOffset, Logger.DEBUG);
-        Logger.println("dst offset is " + dstOffset, Logger.DEBUG);
-        //put offset back
-        gmtTime.set(Calendar.HOUR, gmtTime.get(Calendar.HOUR) - gmtOffset - dstOffset);
-        Logger.println("new time is " + gmtTime.getTime(), Logger.DEBUG);
-        return gmtTime;
+        return GribRecord.toCalendar(baseTime);
     }
 
     /**
-     * Get the time of the forecast. FIXME calls to this method somehow affect
-     * forecastTime (should be solved now, confirm)
+     * Get the time of the forecast in GMT.
      *
      * @return date and time
      */
     public Calendar getGMTForecastTime() {
-        Calendar gmtTime = (Calendar) forecastTime.clone();
-        Logger.println("forecast time = " + gmtTime.getTime(), Logger.DEBUG);
-        // hopefully this DST offset adjusts to DST automatically
-        int dstOffset = gmtTime.get(Calendar.DST_OFFSET) / 3600000;
-        int gmtOffset = gmtTime.get(Calendar.ZONE_OFFSET) / 3600000;//ms to hours
-        Logger.println("offset is " + gmtOffset, Logger.DEBUG);
-        Logger.println("dst offset is " + dstOffset, Logger.DEBUG);
-        gmtTime.set(Calendar.HOUR, gmtTime.get(Calendar.HOUR) - gmtOffset - dstOffset);//put offset back
-        Logger.println("new time is " + gmtTime.getTime(), Logger.DEBUG);
-        return gmtTime;
+        return GribRecord.toCalendar(forecastTime);
     }
 
     /**
@@ -624,16 +634,18 @@ public class Grib1RecordPDS
      * @return string representation of the Header for this PDS
      */
     public String headerToString() {
-        String time1 = this.forecastTime.get(Calendar.DAY_OF_MONTH) + "."
-                + (this.forecastTime.get(Calendar.MONTH) + 1) + "."
-                + this.forecastTime.get(Calendar.YEAR) + "  "
-                + this.forecastTime.get(Calendar.HOUR_OF_DAY) + ":"
-                + this.forecastTime.get(Calendar.MINUTE);
-        String time2 = this.forecastTime2.get(Calendar.DAY_OF_MONTH) + "."
-                + (this.forecastTime.get(Calendar.MONTH) + 1) + "."
-                + this.forecastTime.get(Calendar.YEAR) + "  "
-                + this.forecastTime.get(Calendar.HOUR_OF_DAY) + ":"
-                + this.forecastTime.get(Calendar.MINUTE);
+        Calendar start = GribRecord.toCalendar(forecastTime);
+        Calendar end = GribRecord.toCalendar(forecastTime2);
+        String time1 = start.get(Calendar.DAY_OF_MONTH) + "."
+                + (start.get(Calendar.MONTH) + 1) + "."
+                + start.get(Calendar.YEAR) + "  "
+                + start.get(Calendar.HOUR_OF_DAY) + ":"
+                + start.get(Calendar.MINUTE);
+        String time2 = end.get(Calendar.DAY_OF_MONTH) + "."
+                + (end.get(Calendar.MONTH) + 1) + "."
+                + end.get(Calendar.YEAR) + "  "
+                + end.get(Calendar.HOUR_OF_DAY) + ":"
+                + end.get(Calendar.MINUTE);
         String timeStr;
         if (timeRange == null) {
             timeStr = "time: " + time1;
@@ -728,13 +740,13 @@ public class Grib1RecordPDS
         if (gridId > pds.gridId) {
             return -1;
         }
-        if (baseTime.getTime().getTime() > pds.baseTime.getTime().getTime()) {
+        if (baseTime > pds.baseTime) {
             return -1;
         }
-        if (forecastTime.getTime().getTime() > pds.forecastTime.getTime().getTime()) {
+        if (forecastTime > pds.forecastTime) {
             return -1;
         }
-        if (forecastTime2.getTime().getTime() > pds.forecastTime2.getTime().getTime()) {
+        if (forecastTime2 > pds.forecastTime2) {
             return -1;
         }
         if (centreId > pds.centreId) {
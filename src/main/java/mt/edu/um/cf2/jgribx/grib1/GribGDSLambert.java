@@ -602,8 +602,16 @@ public class GribGDSLambert extends Grib1RecordGDS
       latin2r = Math.toRadians(grid_latin2);
 
       // compute the common parameters
-      n = Math.log(Math.cos(latin1r) / Math.cos(latin2r)) /
-          Math.log(Math.tan(pi4 + latin2r / 2) / Math.tan(pi4 + latin1r / 2));
+      if (Math.abs(grid_latin1 - grid_latin2) < 1e-6)
+      {
+         // tangent cone - the general formula below reduces to 0/0
+         n = Math.sin(latin1r);
+      }
+      else
+      {
+         n = Math.log(Math.cos(latin1r) / Math.cos(latin2r)) /
+             Math.log(Math.tan(pi4 + latin2r / 2) / Math.tan(pi4 + latin1r / 2));
+      }
       f = (Math.cos(latin1r) * Math.pow(Math.tan(pi4 + latin1r / 2), n)) / n;
       rho = EARTH_RADIUS * f *
                   Math.pow(Math.tan(pi4 + Math.toRadians(grid_lat1) / 2),-n);
@@ -612,7 +620,7 @@ public class GribGDSLambert extends Grib1RecordGDS
 
       // compute the starting x and starting y coordinates for this projection
       // the grid_lon2 here is the lov - the reference longitude
-      theta = n * Math.toRadians(grid_lon1 - grid_lon2);
+      theta = n * Math.toRadians(normalizeLongitude(grid_lon1 - grid_lon2));
       grid_startx = rho * Math.sin(theta);
       grid_starty = rhoRef - rho * Math.cos(theta);
    }
@@ -639,62 +647,90 @@ public class GribGDSLambert extends Grib1RecordGDS
     */
    public double[] getGridCoords()
    {
-      double rho;
-      double theta;
-      double pi2;
-      // peg - variables: pi4, latin1r and latin2r never used
-      //double pi4;
-      //double latin1r;
-      //double latin2r;
-      double lat;
-      double lon;
-      double x;
-      double y;
-
-      double[] coords;
-      pi2=Math.PI/2;
-      //pi4=Math.PI/4;
-      //latin1r = Math.toRadians(grid_latin1);
-      //latin2r = Math.toRadians(grid_latin2);
-
       // need space for a lat and lon for each grid point
-      coords = new double[grid_ny * grid_nx * 2];
+      double[] coords = new double[grid_ny * grid_nx * 2];
+      double[] latLon = new double[2];
 
       // compute the lat and lon for each grid point
       // note - grid points are NOT the indices of the arrays, they are computed
       //        from the projection
-
       int k = 0;
-
       for (int j = 0; j < grid_ny; j++)
       {
-         y = grid_starty + grid_dy*j;
          for (int i = 0; i < grid_nx; i++)
          {
-            x = grid_startx + grid_dx*i;
-
-            theta = Math.atan(x/(rhoRef - y));
-            rho = Math.sqrt(Math.pow(x,2.0)+Math.pow((rhoRef-y),2.0));
-            if (n < 0) {
-               rho = -rho;
-            }
-            lon = grid_lon2 + Math.toDegrees(theta/n);
-            lat = Math.toDegrees(2.0 *
-                     Math.atan(Math.pow(EARTH_RADIUS * f / rho, 1 / n)) - pi2);
-
-            // move x-coordinates to the range -180..180
-            if (lon >= 180.0) lon = lon - 360.0;
-            if (lon < -180.0) lon = lon + 360.0;
-            if (lat > 90.0 || lat < -90.0)
+            toLatLon(i, j, latLon);
+            if (latLon[0] > 90.0 || latLon[0] < -90.0)
                Logger.println("GribGDSLambert: latitude out of range (-90 to 90).", Logger.ERROR);
-            //coords[grid_nx * y + x] =
-            coords[k++] = lon;
-            coords[k++] = lat;
+            coords[k++] = latLon[1];
+            coords[k++] = latLon[0];
          }
       }
       return coords;
    }
 
+   /**
+    * Get the (fractional) grid indices of a location, using the forward
+    * Lambert conformal projection.
+    *
+    * adapted from J.P. Snyder, Map Projections - A Working Manual,
+    * U.S. Geological Survey Professional Paper 1395, 1987, eq. 15-1 to 15-3
+    *
+    * @param latitude latitude of the location
+    * @param longitude longitude of the location
+    * @return grid indices i (x-axis) and j (y-axis)
+    */
+   public double[] getGridIJ(double latitude, double longitude)
+   {
+      double rho = EARTH_RADIUS * f *
+                   Math.pow(Math.tan(Math.PI / 4 + Math.toRadians(latitude) / 2), -n);
+      double theta = n * Math.toRadians(normalizeLongitude(longitude - grid_lon2));
+      double x = rho * Math.sin(theta);
+      double y = rhoRef - rho * Math.cos(theta);
+      return new double[] {(x - grid_startx) / grid_dx, (y - grid_starty) / grid_dy};
+   }
+
+   /**
+    * Get the latitude and longitude of a (fractional) grid position, using
+    * the inverse Lambert conformal projection.
+    *
+    * adapted from J.P. Snyder, Map Projections - A Working Manual,
+    * U.S. Geological Survey Professional Paper 1395, 1987, eq. 14-10 to 14-11
+    *
+    * @param i grid index along the x-axis
+    * @param j grid index along the y-axis
+    * @return latitude and longitude of the grid position
+    */
+   public double[] getLatLon(double i, double j)
+   {
+      double[] latLon = new double[2];
+      toLatLon(i, j, latLon);
+      return latLon;
+   }
+
+   @Override
+   public int getNearestPointIndex(double latitude, double longitude)
+   {
+      double[] ij = getGridIJ(latitude, longitude);
+      int i = (int) Math.round(ij[0]);
+      int j = (int) Math.round(ij[1]);
+      if (i < 0 || i >= grid_nx || j < 0 || j >= grid_ny)
+         return -1;
+      return grid_nx * j + i;
+   }
+
+   private void toLatLon(double i, double j, double[] latLon)
+   {
+      double x = grid_startx + grid_dx * i;
+      double y = grid_starty + grid_dy * j;
+      double sign = n < 0 ? -1.0 : 1.0;
+      double rho = sign * Math.sqrt(x * x + (rhoRef - y) * (rhoRef - y));
+      double theta = Math.atan2(sign * x, sign * (rhoRef - y));
+
+      latLon[0] = Math.toDegrees(2.0 * Math.atan(Math.pow(EARTH_RADIUS * f / rho, 1 / n)) - Math.PI / 2);
+      latLon[1] = normalizeLongitude(grid_lon2 + Math.toDegrees(theta / n));
+   }
+
    /**
     * Get a string representation of this GDS.
     *
@@ -412,99 +412,139 @@ public class GribGDSPolarStereo extends Grib1RecordGDS
     * adapted from J.P. Snyder, Map Projections - A Working Manual,
     * U.S. Geological Survey Professional Paper 1395, 1987
     * Maintained his symbols, so the code matches his work.
-    * Somewhat hard to follow, if interested, suggest looking up quick reference
-    * at http://mathworld.wolfram.com/LambertConformalConicProjection.html
     *
-    * Origin is where Lov intersects 60 degrees (from note 2 of Table D) north
-    * or south (determined by bit 1 of the Projection Center Flag).
-    *
-    * This assumes a central scale factor of 1.
-    *
-    * @return latitide/longitude as doubles
+    * Origin is the pole on the projection plane, with the grid lengths
+    * being true at 60 degrees (from note 2 of Table D) north or south
+    * (determined by bit 1 of the Projection Center Flag).
     */
    private void prepProjection()
    {
-      double k;
-      // peg - variables pi2 and pi4 never used
-      //double pi2;
-      //double pi4; 
-      double cosLat1;
-      double sinLat1;
-      double cos60;
-      double sin60;
-      double dLonr;
-
-      cosLat1 = Math.cos(Math.toRadians(grid_lat1));
-      sinLat1 = Math.sin(Math.toRadians(grid_lat1));
-      cos60 = Math.cos(Math.toRadians(latitude_ts));
-      sin60 = Math.sin(Math.toRadians(latitude_ts));
-      dLonr = Math.toRadians(grid_lon1 - grid_lon2); //lon2 is lov
-
-      k = 2.0 * SCALE_FACTOR /
-          (1 + (sin60 * sinLat1) + cos60 * cosLat1 * Math.cos(dLonr));
-      grid_startx = EARTH_RADIUS * k * cosLat1 * Math.sin(dLonr);
-      grid_starty = EARTH_RADIUS * k *
-                    ((cos60*sinLat1) - (sin60 * cosLat1 * Math.cos(dLonr)));
-
+      double[] xy = toProjection(grid_lat1, grid_lon1);
+      grid_startx = xy[0];
+      grid_starty = xy[1];
    }
 
-
-
    /**
     * Get grid coordinates in longitude/latitude
     *
     * adapted from J.P. Snyder, Map Projections - A Working Manual,
     * U.S. Geological Survey Professional Paper 1395, 1987
     * Maintained his symbols, so the code matches his work.
-    * Somewhat hard to follow, if interested, suggest looking up quick reference
-    * at http://mathworld.wolfram.com/PolarStereoConicProjection.html
     *
-    * assumes scale factor of 1.0
-    *
-    * rdg - may not be correct yet - did not align with display software I
-    * was using, but they implemented using a center point, vice LOV
-    * TODO verify projection implementation
-    * 
     * @see net.sourceforge.jgrib.GribRecordGDS#getGridCoords() 
     * @return longitide/latitude as doubles
     */
    public double[] getGridCoords()
    {
       int count = 0;
-      double rho, c, cosC, sinC, cos60, sin60, lon, lat, x, y;
       double[] coords = new double[grid_nx * grid_ny * 2];
-      cos60 = Math.cos(Math.toRadians(latitude_ts));
-      sin60 = Math.sin(Math.toRadians(latitude_ts));
+      double[] latLon = new double[2];
 
       for (int j = 0; j < grid_ny; j++)
       {
-         y = grid_starty + grid_dy*j;
          for (int i = 0; i < grid_nx; i++)
          {
-            x = grid_startx + grid_dx*i;
-
-            rho = Math.sqrt(x*x + y*y);
-            c = 2.0 * Math.atan(rho/(2.0 * EARTH_RADIUS * SCALE_FACTOR));
-            cosC = Math.cos(Math.toRadians(c));
-            sinC = Math.sin(Math.toRadians(c));
-
-            lon = Math.asin(cosC * sin60 + (y * sinC * cos60 / rho));
-            lat = grid_lon2 + Math.atan(x * sinC / (rho * cos60 * cosC - y * cos60 * sinC));
-
-            // move x-coordinates to the range -180..180
-            if (lon >= 180.0) lon = lon - 360.0;
-            if (lon < -180.0) lon = lon + 360.0;
-            if (lat > 90.0 || lat < -90.0)
+            toLatLon(i, j, latLon);
+            if (latLon[0] > 90.0 || latLon[0] < -90.0)
             {
                Logger.println("GribGDSPolarStereo: latitude out of range (-90 to 90).", Logger.ERROR);
             }
-            coords[count++] = lon;
-            coords[count++] = lat;
+            coords[count++] = latLon[1];
+            coords[count++] = latLon[0];
          }
       }
       return coords;
    }
 
+   /**
+    * Get the (fractional) grid indices of a location, using the forward
+    * polar stereographic projection.
+    *
+    * adapted from J.P. Snyder, Map Projections - A Working Manual,
+    * U.S. Geological Survey Professional Paper 1395, 1987, eq. 21-33 to 21-35
+    *
+    * @param latitude latitude of the location
+    * @param longitude longitude of the location
+    * @return grid indices i (x-axis) and j (y-axis)
+    */
+   public double[] getGridIJ(double latitude, double longitude)
+   {
+      double[] xy = toProjection(latitude, longitude);
+      return new double[] {(xy[0] - grid_startx) / grid_dx, (xy[1] - grid_starty) / grid_dy};
+   }
+
+   /**
+    * Get the latitude and longitude of a (fractional) grid position, using
+    * the inverse polar stereographic projection.
+    *
+    * adapted from J.P. Snyder, Map Projections - A Working Manual,
+    * U.S. Geological Survey Professional Paper 1395, 1987, eq. 20-14 to 20-17
+    *
+    * @param i grid index along the x-axis
+    * @param j grid index along the y-axis
+    * @return latitude and longitude of the grid position
+    */
+   public double[] getLatLon(double i, double j)
+   {
+      double[] latLon = new double[2];
+      toLatLon(i, j, latLon);
+      return latLon;
+   }
+
+   @Override
+   public int getNearestPointIndex(double latitude, double longitude)
+   {
+      double[] ij = getGridIJ(latitude, longitude);
+      int i = (int) Math.round(ij[0]);
+      int j = (int) Math.round(ij[1]);
+      if (i < 0 || i >= grid_nx || j < 0 || j >= grid_ny)
+         return -1;
+      return grid_nx * j + i;
+   }
+
+   /**
+    * Radius of the projection at the equator, i.e. 2R * k0 where the scale
+    * factor k0 makes the grid lengths true at latitude_ts.
+    */
+   private double getEquatorRadius()
+   {
+      return EARTH_RADIUS * SCALE_FACTOR * (1 + Math.sin(Math.toRadians(Math.abs(latitude_ts))));
+   }
+
+   private double[] toProjection(double latitude, double longitude)
+   {
+      double dLonr = Math.toRadians(normalizeLongitude(longitude - grid_lon2)); //lon2 is lov
+      double latr = Math.toRadians(latitude);
+      if (latitude_ts > 0)
+      {
+         double rho = getEquatorRadius() * Math.tan(Math.PI / 4 - latr / 2);
+         return new double[] {rho * Math.sin(dLonr), -rho * Math.cos(dLonr)};
+      }
+      else
+      {
+         double rho = getEquatorRadius() * Math.tan(Math.PI / 4 + latr / 2);
+         return new double[] {rho * Math.sin(dLonr), rho * Math.cos(dLonr)};
+      }
+   }
+
+   private void toLatLon(double i, double j, double[] latLon)
+   {
+      double x = grid_startx + grid_dx * i;
+      double y = grid_starty + grid_dy * j;
+      double rho = Math.sqrt(x * x + y * y);
+      double c = 2.0 * Math.atan(rho / getEquatorRadius());
+      if (latitude_ts > 0)
+      {
+         latLon[0] = Math.toDegrees(Math.PI / 2 - c);
+         latLon[1] = normalizeLongitude(grid_lon2 + Math.toDegrees(Math.atan2(x, -y)));
+      }
+      else
+      {
+         latLon[0] = Math.toDegrees(c - Math.PI / 2);
+         latLon[1] = normalizeLongitude(grid_lon2 + Math.toDegrees(Math.atan2(x, y)));
+      }
+   }
+
    /**
     * @return Value of x start point as double
     */
@@ -47,7 +47,7 @@ package mt.edu.um.cf2.jgribx.grib1;
 import mt.edu.um.cf2.jgribx.grib1.Grib1Parameter;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -56,8 +56,9 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import mt.edu.um.cf2.jgribx.GribTableBundle;
 import mt.edu.um.cf2.jgribx.Logger;
 import mt.edu.um.cf2.jgribx.NotSupportedException;
 import mt.edu.um.cf2.jgribx.SmartStringArray;
@@ -132,6 +133,12 @@ public class GribPDSParamTable
     */
    protected Grib1Parameter[] parameters = null;
 
+   /**
+    * Whether the parameters of this table have been read, so that they may be
+    * used by other threads
+    */
+   private volatile boolean loaded = false;
+
    /**
     * List of parameter tables
     */
@@ -151,6 +158,11 @@ public class GribPDSParamTable
     * Used to store names of files
     */
    private static Map fileTabMap = new HashMap();
+
+   /**
+    * Parameter tables read from files, keyed by centre, subcentre and table version
+    */
+   private static final ConcurrentMap<Integer, Grib1Parameter[]> fileTables = new ConcurrentHashMap<>();
    
    /**
     * Default constructor
@@ -704,59 +716,75 @@ public class GribPDSParamTable
    }
    
    /**
-    * Gets parameter information from a locally stored file corresponding to the specified centre, subcentre and table version
+    * Gets parameter information from a parameter table file corresponding to the specified centre, subcentre and table version.
+    * A table is read only once, from a user-supplied file in the {@code res} directory if one exists, or
+    * otherwise from the tables bundled with the library. Tables may also be registered using
+    * {@link #registerParameterTable(int, int, int, InputStream)}.
     * <br><br>
     * 24/04/2017 - Andrew Spiteri - first version
     * @param centre
     * @param subcentre
     * @param tableVersion
     * @param entryNum
-    * @return 
+    * @return the parameter, or {@code null} if it is not found
     */
    public static Grib1Parameter getParameterFromFile(int centre, int subcentre, int tableVersion, int entryNum)
    {
-       Grib1Parameter param = null;
-       String filename = "res/"+centre+"_"+subcentre+"_"+tableVersion+".gpt";
-       File tableFile = new File(filename);
-       Logger.println("Accessing parameter "+entryNum+" in table file: ", Logger.INFO);
-       if (!tableFile.exists())
+       if (entryNum < 0 || entryNum >= Grib1Parameter.TABLE_SIZE) return null;
+       int key = getFileTableKey(centre, subcentre, tableVersion);
+       Grib1Parameter[] table = fileTables.get(key);
+       if (table == null)
+       {
+           table = readParameterFile(centre, subcentre, tableVersion);
+           Grib1Parameter[] existing = fileTables.putIfAbsent(key, table);
+           if (existing != null) table = existing;
+       }
+       return table[entryNum];
+   }
+
+   /**
+    * Registers a parameter table in the {@code .gpt} format for the specified centre, subcentre and
+    * table version, replacing any table previously read for them.
+    * @param centre
+    * @param subcentre
+    * @param tableVersion
+    * @param in the stream holding the table
+    * @throws IOException if the table cannot be read
+    */
+   public static void registerParameterTable(int centre, int subcentre, int tableVersion, InputStream in) throws IOException
+   {
+       fileTables.put(getFileTableKey(centre, subcentre, tableVersion), Grib1Parameter.readTable(in));
+   }
+
+   private static int getFileTableKey(int centre, int subcentre, int tableVersion)
+   {
+       return (centre << 16) | (subcentre << 8) | tableVersion;
+   }
+
+   private static Grib1Parameter[] readParameterFile(int centre, int subcentre, int tableVersion)
+   {
+       String filename = centre + "_" + subcentre + "_" + tableVersion + ".gpt";
+       File tableFile = new File("res/" + filename);
+       GribTableBundle.Table bundled = GribTableBundle.getTable(filename);
+       if (bundled != null && !tableFile.exists())
        {
-           Logger.println("Cannot find "+tableFile.getAbsolutePath(), Logger.WARNING);
-           return null;
+           return Grib1Parameter.toArray(bundled);
        }
-       try (BufferedReader reader = new BufferedReader(new FileReader(tableFile)))
+       try (InputStream in = tableFile.exists() ? new FileInputStream(tableFile)
+               : GribPDSParamTable.class.getResourceAsStream("/" + filename))
        {
-           String line;
-           Pattern pattern = Pattern.compile("(\\d+)\\s*,(.*?)\\s*,(.*?)\\s*,(\\w*)");
-           Matcher m;
-           while ((line = reader.readLine()) != null)
+           if (in == null)
            {
-               m = pattern.matcher(line);
-               if (m.find())
-               {
-                   int entry = Integer.parseInt(m.group(1));
-                   if (entry == entryNum)
-                   {
-                       String paramDesc = m.group(2);
-                       String paramUnits = m.group(3);
-                       String paramName = m.group(4);
-                       param = new Grib1Parameter(entry, paramName, paramDesc, paramUnits);
-                       break;
-                   }
-               }
+               Logger.println("Cannot find parameter table " + filename, Logger.WARNING);
+               return new Grib1Parameter[Grib1Parameter.TABLE_SIZE];
            }
-       }
-       catch (FileNotFoundException e)
-       {
-           Logger.println("Cannot find "+tableFile.getAbsolutePath(), Logger.ERROR);
-           return null;
+           return Grib1Parameter.readTable(in);
        }
        catch (IOException e)
        {
-           Logger.println("Cannot read "+tableFile.getAbsolutePath(), Logger.ERROR);
-           return null;
+           Logger.println("Cannot read parameter table " + filename + ": " + e.getMessage(), Logger.ERROR);
+           return new Grib1Parameter[Grib1Parameter.TABLE_SIZE];
        }
-       return param;
    }
 
    /**
@@ -864,11 +892,27 @@ public class GribPDSParamTable
       return url;
    }
 
+   /**
+    * Read parameter table, if it has not been read yet. Tables are read once
+    * only, even when requested concurrently.
+    */
+   private void readParameterTable()
+   {
+      if (loaded) return;
+      // The map of loaded files is shared by all tables
+      synchronized (GribPDSParamTable.class)
+      {
+         if (loaded) return;
+         loadParameterTable();
+         loaded = true;
+      }
+   }
+
    /**
     * Read parameter table
     */
    //public void readParameterTable(String aFileName)
-   private void readParameterTable()
+   private void loadParameterTable()
 //         throws IOException
    {
 
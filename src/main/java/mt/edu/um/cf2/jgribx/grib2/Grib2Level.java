@@ -111,7 +111,7 @@ public class Grib2Level
                 level.code = "SPDL";
                 level.name = "level at specified pressure difference from ground to level";
                 level.units = "hPa";
-                level.value = value;
+                level.value = value / 100;
                 level.description = level.value + " " + level.units + " pressure difference from ground";
                 break;
             case 109:
@@ -10,15 +10,14 @@
  */
 package mt.edu.um.cf2.jgribx.grib2;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
 
+import mt.edu.um.cf2.jgribx.GribTableBundle;
 import mt.edu.um.cf2.jgribx.Logger;
 
 public class Grib2Parameter
@@ -30,8 +29,12 @@ public class Grib2Parameter
     private String desc;
     private String units;
     
-    private static List<Grib2Parameter> paramList = new ArrayList();
-    private static boolean defaultLoaded = false;
+    /**
+     * Loaded parameters, keyed by {@link #getKey(int, int, int)}. The map is
+     * replaced as a whole, and never modified once published.
+     */
+    private static volatile Map<Integer, Grib2Parameter> parameters = Collections.emptyMap();
+    private static volatile boolean defaultLoaded = false;
     
     public Grib2Parameter(ProductDiscipline discipline, ParameterCategory category, int index, String abbrev, String desc, String units)
     {
@@ -43,68 +46,90 @@ public class Grib2Parameter
         this.units = units;
     }
     
-    public static void loadDefaultParameters()
+    /**
+     * Loads the default parameter tables. The tables are only loaded once, even
+     * if this method is called concurrently by several threads.
+     */
+    public static synchronized void loadDefaultParameters()
     {
-        String filename;
+        if (defaultLoaded) return;
+        Map<Integer, Grib2Parameter> loaded = new HashMap<>(Grib2Parameter.parameters);
 
-        Logger.println("Number of product disciplines: " + ProductDiscipline.getValues().size(), Logger.DEBUG);
+        Logger.println(Logger.DEBUG, "Number of product disciplines: %d", ProductDiscipline.getValues().size());
 
-        
         for (ProductDiscipline discipline : ProductDiscipline.getValues())
         {
             List<ParameterCategory> categories = discipline.getParameterCategories();
-            Logger.println("Number of " + discipline + " parameter categories: " + categories.size(),
-                    Logger.DEBUG);
+            Logger.println(Logger.DEBUG, "Number of %s parameter categories: %d", discipline, categories.size());
             for (ParameterCategory category : categories)
             {
-                filename = "/" + discipline + "-" + category.toString() + ".txt";                
-                Logger.println("Resource path: " + filename, Logger.INFO);
-                InputStream is = Grib2Parameter.class.getResourceAsStream(filename);
-                if (is == null)
+                String filename = discipline + "-" + category.toString() + ".txt";
+                GribTableBundle.Table table = readTable(filename);
+                if (table == null) continue;
+                for (int i = 0; i < table.size(); i++)
                 {
-                    Logger.println("Cannot find " + filename, Logger.ERROR);
-                    continue;
-                }
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(is)))
-                {
-                    String line;
-                    Pattern pattern = Pattern.compile("(\\d+)\\s*:\\s*(.*?)\\s*:\\s*(.*?)\\s*:\\s*(\\w*)");
-                    Matcher m;
-                    while ((line = reader.readLine()) != null)
+                    int index = table.getNumber(i);
+                    int key = getKey(discipline.getValue(), category.getValue(), index);
+                    if (!loaded.containsKey(key))
                     {
-                        m = pattern.matcher(line);
-                        if (m.find())
-                        {
-                            int index = Integer.parseInt(m.group(1));
-                            String paramDesc = m.group(2);
-                            String paramUnits = m.group(3);
-                            String paramName = m.group(4);
-                            paramList.add(new Grib2Parameter(discipline, category, index, paramName, paramDesc, paramUnits));
-                        }
+                        loaded.put(key, new Grib2Parameter(discipline, category, index,
+                                table.getCode(i), table.getDescription(i), table.getUnits(i)));
                     }
                 }
-                catch (IOException e)
-                {
-                    Logger.println("Cannot read " + filename, Logger.ERROR);
-                }
             }
         }
+        parameters = Collections.unmodifiableMap(loaded);
         defaultLoaded = true;
     }
-    
-    public static Grib2Parameter getParameter(ProductDiscipline discipline, int category, int index)
+
+    /**
+     * Returns a parameter table from the table bundle, or parses the text
+     * table if the bundle is not available.
+     */
+    private static GribTableBundle.Table readTable(String filename)
     {
-        for (Grib2Parameter parameter : paramList)
+        GribTableBundle.Table table = GribTableBundle.getTable(filename);
+        if (table != null) return table;
+
+        Logger.println(Logger.INFO, "Resource path: /%s", filename);
+        try (InputStream is = Grib2Parameter.class.getResourceAsStream("/" + filename))
         {
-            if ((parameter.discipline.equals(discipline)) &&
-                    (parameter.category.getValue() == category) &&
-                    (parameter.index == index)
-                )
+            if (is == null)
             {
-                return parameter;
+                Logger.println("Cannot find /" + filename, Logger.ERROR);
+                return null;
             }
+            return GribTableBundle.readParameterList(is);
         }
-        return null;
+        catch (IOException e)
+        {
+            Logger.println("Cannot read /" + filename, Logger.ERROR);
+            return null;
+        }
+    }
+
+    /**
+     * Packs a discipline, category and parameter number into a single key.
+     * Each of these is a single octet in the GRIB-2 format.
+     */
+    private static int getKey(int discipline, int category, int index)
+    {
+        return (discipline << 16) | (category << 8) | index;
+    }
+    
+    /**
+     * Returns the parameter with the given discipline, category and number,
+     * loading the default parameter tables if these have not been loaded yet.
+     * @param discipline the product discipline
+     * @param category the parameter category
+     * @param index the parameter number
+     * @return the parameter, or {@code null} if it is not known
+     */
+    public static Grib2Parameter getParameter(ProductDiscipline discipline, int category, int index)
+    {
+        if (!defaultLoaded)
+            loadDefaultParameters();
+        return parameters.get(getKey(discipline.getValue(), category, index));
     }
     
     public static boolean isDefaultLoaded()
@@ -12,15 +12,16 @@ package mt.edu.um.cf2.jgribx.grib2;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.List;
+import mt.edu.um.cf2.jgribx.GribEvents;
 import mt.edu.um.cf2.jgribx.GribInputStream;
 import mt.edu.um.cf2.jgribx.GribRecord;
 import mt.edu.um.cf2.jgribx.GribRecordIS;
+import mt.edu.um.cf2.jgribx.JGribX;
+import mt.edu.um.cf2.jgribx.JGribXMetrics;
 import mt.edu.um.cf2.jgribx.Logger;
 import mt.edu.um.cf2.jgribx.NoValidGribException;
 import mt.edu.um.cf2.jgribx.NotSupportedException;
-import mt.edu.um.cf2.jgribx.grib2.Grib2RecordGDS.ScanMode;
 
 /**
  *
@@ -38,6 +39,22 @@ public class Grib2Record extends GribRecord
     protected List<Grib2RecordDS> dsList = new ArrayList();
     
     public static Grib2Record readFromStream(GribInputStream in, GribRecordIS is) throws IOException, NotSupportedException, NoValidGribException
+    {
+        return readFromStream(in, is, true);
+    }
+
+    /**
+     * Reads a GRIB-2 record from the given {@link GribInputStream}.
+     * @param in the input stream, positioned after the IS
+     * @param is the IS of the record
+     * @param readData whether the BMS and DS should be read, or skipped, in
+     * which case the record provides no values
+     * @return the record
+     * @throws IOException
+     * @throws NotSupportedException
+     * @throws NoValidGribException
+     */
+    public static Grib2Record readFromStream(GribInputStream in, GribRecordIS is, boolean readData) throws IOException, NotSupportedException, NoValidGribException
     {
         Grib2Record record = new Grib2Record();
         long recordLength = is.getRecordLength() - is.getLength();
@@ -45,6 +62,9 @@ public class Grib2Record extends GribRecord
         Grib2RecordDRS drs = null;
         Grib2RecordGDS gds = null;
         Grib2RecordBMS bms = null;
+        JGribXMetrics metrics = JGribX.getMetrics();
+        long headerNanos = 0;
+        long unpackNanos = 0;
         while (recordLength > 4)
         {
             int section;
@@ -62,6 +82,7 @@ public class Grib2Record extends GribRecord
             in.reset();
             in.resetBitCounter();
             
+            long start = System.nanoTime();
             switch (section)
             {
                 case 1:
@@ -82,15 +103,36 @@ public class Grib2Record extends GribRecord
                     record.drsList.add(drs);
                     break;
                 case 6:
+                    if (!readData)
+                    {
+                        in.skip(sectionLength);
+                        break;
+                    }
                     bms = Grib2RecordBMS.readFromStream(in);
                     record.bmsList.add(bms);
                     break;
                 case 7:
-                    record.dsList.add(Grib2RecordDS.readFromStream(in, drs, gds, bms));
+                    if (!readData)
+                    {
+                        in.skip(sectionLength);
+                        break;
+                    }
+                    Object event = GribEvents.beginUnpack();
+                    Grib2RecordDS ds = Grib2RecordDS.readFromStream(in, drs, gds, bms);
+                    GribEvents.endUnpack(event, "5." + drs.packingType, drs.nBits, ds.data.length);
+                    record.dsList.add(ds);
                     break;
                 default:
                     throw new NoValidGribException("Invalid section encountered");
             }
+            if (section < 6)
+            {
+                headerNanos += System.nanoTime() - start;
+            }
+            else
+            {
+                unpackNanos += System.nanoTime() - start;
+            }
             if (in.getByteCounter() != sectionLength)
             {
                 Logger.println("Indicated length (" + sectionLength + ") of Section " + section +
@@ -98,6 +140,12 @@ public class Grib2Record extends GribRecord
             }
             recordLength -= sectionLength;
         }
+        metrics.recordStage(JGribXMetrics.Stage.HEADER, headerNanos);
+        if (readData && drs != null && gds != null)
+        {
+            metrics.recordStage(JGribXMetrics.Stage.UNPACK, unpackNanos);
+            metrics.recordDecoded("5." + drs.packingType, gds.getClass().getSimpleName());
+        }
         return record;
     }
     
@@ -108,11 +156,11 @@ public class Grib2Record extends GribRecord
     }
     
     @Override
-    public Calendar getForecastTime()
+    public long getForecastTimeMillis()
     {
         if (pdsList.size() > 1)
             Logger.println("Record contains multiple PDS's", Logger.WARNING);
-        return pdsList.get(0).getForecastTime();
+        return pdsList.get(0).getForecastTimeMillis();
     }
     
     @Override
@@ -174,7 +222,7 @@ public class Grib2Record extends GribRecord
     }
     
     @Override
-    public Calendar getReferenceTime()
+    public long getReferenceTimeMillis()
     {
         return ids.referenceTime;
     }
@@ -182,43 +230,63 @@ public class Grib2Record extends GribRecord
     @Override
     public double getValue(double latitude, double longitude)
     {
-        double value;
-        
         if (gdsList.size() > 1)
             Logger.println("Record contains multiple GDS instances", Logger.WARNING);
         Grib2RecordGDS gds = gdsList.get(0);
-//        double[] xcoords = gds.getGridXCoords();
-//        double[] ycoords = gds.getGridYCoords();
-        
-        int j = (int) Math.round((latitude - gds.getGridLatStart()) / gds.getGridDeltaY());     // j = index_closest_latitude
-        int i = (int) Math.round((longitude - gds.getGridLonStart()) / gds.getGridDeltaX());    // i = index_closest_longitude
-        
-//        double closest_latitude = ycoords[index_closest_latitude];
-//        double closest_longitude = xcoords[index_closest_longitude];
-        
-        ScanMode scanMode = gds.scanMode;
-        
-        if (scanMode.iDirectionEvenRowsOffset || scanMode.iDirectionOddRowsOffset || scanMode.jDirectionOffset || !scanMode.rowsNiNjPoints || scanMode.rowsZigzag)
-            System.err.println("Unsupported scan mode found");
-        
-        
-        if (scanMode.iDirectionConsecutive)
-        {
-            value = dsList.get(0).data[gds.gridNi*j + i];
-        }
-        else
+
+        int index = gds.getNearestPointIndex(latitude, longitude);
+        float[] data = getData();
+        if (index < 0 || index >= data.length)
         {
-            value = dsList.get(0).data[gds.gridNj*i + j];
+            Logger.println("Cannot find a value for the given lat-long", Logger.ERROR);
+            return Double.NaN;
         }
-        
-        return value;
+        return data[index];
+    }
+
+    @Override
+    public int getGridSizeX()
+    {
+        return gdsList.get(0).getGridSizeX();
     }
 
+    @Override
+    public int getGridSizeY()
+    {
+        return gdsList.get(0).getGridSizeY();
+    }
+
+    /**
+     * Returns the values of this record, in the order in which they are stored
+     * in the data section.
+     * @return the values, or {@code null} if the data section was not read
+     */
     @Override
     public float[] getValues()
     {
-        // TODO To be implemented
-        return null;
+        if (dsList.isEmpty()) return null;
+        return dsList.get(0).data;
+    }
+
+    /**
+     * Returns the values of this record on a regular grid. The values of
+     * quasi-regular (reduced) grids are linearly interpolated along each row
+     * to the number of points along the longest row.
+     * @return the values, row by row
+     * @throws IllegalStateException if the data section was not read
+     */
+    public float[] getRegularGridValues()
+    {
+        return gdsList.get(0).expandToRegularGrid(getData());
+    }
+
+    private float[] getData()
+    {
+        if (dsList.isEmpty())
+        {
+            throw new IllegalStateException("data was not read");
+        }
+        return dsList.get(0).data;
     }
 
     /**
@@ -12,7 +12,10 @@ package mt.edu.um.cf2.jgribx.grib2;
 
 import java.io.IOException;
 import static mt.edu.um.cf2.jgribx.Bytes2Number.INT_SM;
+import mt.edu.um.cf2.jgribx.GribEvents;
 import mt.edu.um.cf2.jgribx.GribInputStream;
+import mt.edu.um.cf2.jgribx.JGribX;
+import mt.edu.um.cf2.jgribx.JGribXMetrics;
 import mt.edu.um.cf2.jgribx.Logger;
 import mt.edu.um.cf2.jgribx.NoValidGribException;
 import mt.edu.um.cf2.jgribx.NotSupportedException;
@@ -345,6 +348,7 @@ public class Grib2RecordDS
             }
         }
         
+        long start = System.nanoTime();
         if (drs.missingValueManagement == 0)
         {
             for (int i = 0; i < data.length; i++)
@@ -369,6 +373,7 @@ public class Grib2RecordDS
             }
             data = tmp;
         }
+        JGribX.getMetrics().recordStage(JGribXMetrics.Stage.SCALING, System.nanoTime() - start);
         
         // bit map is used
         if (bms.indicator != Indicator.BITMAP_NONE)
@@ -402,7 +407,11 @@ public class Grib2RecordDS
         {
             jpegDecoder = new Grib2JpegDecoder(drs.nBits, false);
             byte[] buf = in.read(dsLength - 5);
+            Object event = GribEvents.beginJpeg2000();
+            long start = System.nanoTime();
             jpegDecoder.decode(buf);
+            JGribX.getMetrics().recordStage(JGribXMetrics.Stage.JPEG2000, System.nanoTime() - start);
+            GribEvents.endJpeg2000(event, buf.length, jpegDecoder.getGdata().length);
         }
 
         float[] result = new float[gds.nDataPoints];
@@ -416,6 +425,7 @@ public class Grib2RecordDS
         }
 
         int[] idata = jpegDecoder.getGdata();
+        long start = System.nanoTime();
         if (bms.bitmap == null)
         {
             // Check data length
@@ -450,6 +460,7 @@ public class Grib2RecordDS
                 }
             }
         }
+        JGribX.getMetrics().recordStage(JGribXMetrics.Stage.SCALING, System.nanoTime() - start);
         return result;
     }
 
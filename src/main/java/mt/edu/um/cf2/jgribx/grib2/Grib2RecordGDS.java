@@ -11,10 +11,16 @@
 package mt.edu.um.cf2.jgribx.grib2;
 
 import mt.edu.um.cf2.jgribx.*;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 public abstract class Grib2RecordGDS
 {
+    /**
+     * Grid definitions which have already been decoded, keyed by their raw bytes.
+     */
+    private static final GribSectionCache<Grib2RecordGDS> cache = new GribSectionCache<>();
+
     protected double lat1;
     protected double lat2;
     protected double lon1;
@@ -29,9 +35,39 @@ public abstract class Grib2RecordGDS
     protected int gridNi;
     protected int gridNj;
     protected int[] quasiRegularGridPoints;
+    /**
+     * Number of octets used by each entry of the optional list of numbers of points
+     */
+    protected int pointListOctets;
     private int gridType;
     protected int earthShape;
+    /**
+     * Radius of the Earth used for projections (units: m)
+     */
+    protected double earthRadius;
     protected ScanMode scanMode;
+
+    /**
+     * Index of the first point of each row within the data section, followed
+     * by the total number of points (quasi-regular grids only)
+     */
+    private int[] rowOffsets;
+
+    /**
+     * Number of points along the longest row (quasi-regular grids only)
+     */
+    private int maxRowSize;
+
+    /**
+     * Spatial index over the grid points, built on first use.
+     */
+    private volatile GribGridIndex gridIndex;
+
+    /**
+     * Interpolation weights used to expand a quasi-regular grid to a regular
+     * grid, built on first use.
+     */
+    private volatile RegularGridExpansion regularGridExpansion;
     
     protected class ScanMode
     {
@@ -82,7 +118,7 @@ public abstract class Grib2RecordGDS
         nDataPoints = in.readUINT(4);
 
         /* [11] Number of Octets (for optional list of numbers defining number of points) */
-        in.skip(1);
+        pointListOctets = in.readUINT(1);
 
         /* [12] Interpretation */
         in.skip(1);
@@ -94,7 +130,47 @@ public abstract class Grib2RecordGDS
         // This part will be processed by constructors of child classes
     }
     
+    /**
+     * Reads a GDS from the given {@link GribInputStream}.
+     * Identical grid definitions are only decoded once and the same instance is
+     * returned for all records (and files) which share it.
+     * @param in the input stream, positioned at the start of the GDS
+     * @return the (possibly shared) GDS
+     * @throws IOException
+     * @throws NotSupportedException if the grid definition template is not supported
+     */
     public static Grib2RecordGDS readFromStream(GribInputStream in) throws IOException, NotSupportedException
+    {
+        /* [1-4] Length of section in octets */
+        in.mark(4);
+        int length = in.readUINT(4);
+        in.reset();
+
+        byte[] octets = in.read(length);
+        Grib2RecordGDS gds = cache.get(octets);
+        if (gds == null)
+        {
+            GribInputStream sectionIn = new GribInputStream(new ByteArrayInputStream(octets));
+            gds = readFromSection(sectionIn);
+            if (sectionIn.getByteCounter() != length)
+            {
+                Logger.println("Indicated length (" + length + ") of GDS does not match actual amount of bytes read ("
+                        + sectionIn.getByteCounter() + ")", Logger.ERROR);
+            }
+            gds = cache.intern(octets, gds);
+        }
+        return gds;
+    }
+
+    /**
+     * Removes all grid definitions shared between records.
+     */
+    public static void clearCache()
+    {
+        cache.clear();
+    }
+
+    private static Grib2RecordGDS readFromSection(GribInputStream in) throws IOException, NotSupportedException
     {
         Grib2RecordGDS gds = null;
         
@@ -133,6 +209,26 @@ public abstract class Grib2RecordGDS
                 // Latitude/Longitude (also called Equidistant Cylindrical or Plate Caree)
                 gds = new Grib2RecordGDSLatLon(in);
                 break;
+            case 1:
+                // Rotated Latitude/Longitude
+                gds = new Grib2RecordGDSRotatedLatLon(in);
+                break;
+            case 10:
+                // Mercator
+                gds = new Grib2RecordGDSMercator(in);
+                break;
+            case 20:
+                // Polar Stereographic Projection (Can be North or South)
+                gds = new Grib2RecordGDSPolarStereo(in);
+                break;
+            case 30:
+                // Lambert Conformal (Can be Secant or Tangent, Conical or Bi-polar)
+                gds = new Grib2RecordGDSLambert(in);
+                break;
+            case 40:
+                // Gaussian Latitude/Longitude
+                gds = new Grib2RecordGDSGaussian(in);
+                break;
             default:
                 throw new NotSupportedException("Unsupported grid type: "+gridType);
         }
@@ -140,6 +236,287 @@ public abstract class Grib2RecordGDS
         return gds;
     }
     
+    /**
+     * Reads the shape of the Earth (octets 15-30, common to all supported grid
+     * definition templates) and determines the radius to be used for projections.
+     * Oblate spheroids are approximated by a sphere with the radius of the
+     * semi-major axis.
+     * @param in the input stream, positioned at octet 15 of the GDS
+     * @throws IOException
+     */
+    protected void readShapeOfEarth(GribInputStream in) throws IOException
+    {
+        /* [15] Shape of the Earth */
+        earthShape = in.readUINT(1);
+
+        /* [16-30] Scale factors and scaled values of the radius and axes */
+        int radiusScaleFactor = in.readUINT(1);
+        int radiusScaledValue = in.readUINT(4);
+        int majorScaleFactor = in.readUINT(1);
+        int majorScaledValue = in.readUINT(4);
+        in.skip(5);     // minor axis is not needed for a spherical approximation
+
+        boolean spherical = true;
+        switch (earthShape)
+        {
+            case 0:
+                earthRadius = 6367470.0;
+                break;
+            case 1:
+                earthRadius = radiusScaledValue / Math.pow(10, radiusScaleFactor);
+                break;
+            case 2:
+                earthRadius = 6378160.0;
+                spherical = false;
+                break;
+            case 3:
+                // Axes are specified in km
+                earthRadius = majorScaledValue / Math.pow(10, majorScaleFactor) * 1000.0;
+                spherical = false;
+                break;
+            case 4:
+            case 5:
+                earthRadius = 6378137.0;
+                spherical = false;
+                break;
+            case 6:
+                earthRadius = 6371229.0;
+                break;
+            case 7:
+                earthRadius = majorScaledValue / Math.pow(10, majorScaleFactor);
+                spherical = false;
+                break;
+            case 8:
+                earthRadius = 6371200.0;
+                break;
+            default:
+                Logger.println("Unsupported shape of the Earth (" + earthShape + "). Assuming a radius of 6367.47 km.",
+                        Logger.WARNING);
+                earthRadius = 6367470.0;
+                break;
+        }
+        if (!spherical)
+        {
+            Logger.println("GRIB record assumes Earth is an oblate spheroid. This is approximated by a sphere.",
+                    Logger.DEBUG);
+        }
+    }
+
+    /**
+     * Reads the optional list of numbers of points along each row (or column),
+     * which directly follows the grid definition template of quasi-regular grids.
+     * @param in the input stream, positioned at the start of the list
+     * @param nRows the number of entries in the list
+     * @throws IOException
+     */
+    protected void readPointList(GribInputStream in, int nRows) throws IOException
+    {
+        quasiRegularGridPoints = new int[nRows];
+        rowOffsets = new int[nRows + 1];
+        maxRowSize = 0;
+        for (int i = 0; i < nRows; i++)
+        {
+            quasiRegularGridPoints[i] = in.readUINT(pointListOctets);
+            rowOffsets[i + 1] = rowOffsets[i] + quasiRegularGridPoints[i];
+            maxRowSize = Math.max(maxRowSize, quasiRegularGridPoints[i]);
+        }
+        if (rowOffsets[nRows] != nDataPoints)
+        {
+            Logger.println("Number of data points (" + nDataPoints + ") does not match the list of numbers of points ("
+                    + rowOffsets[nRows] + ")", Logger.WARNING);
+        }
+    }
+
+    /**
+     * Returns whether this is a quasi-regular (reduced) grid, i.e. one in which
+     * the number of points varies from row to row.
+     * @return true if this is a quasi-regular grid
+     */
+    public boolean isReduced()
+    {
+        return quasiRegularGridPoints != null;
+    }
+
+    /**
+     * Returns the number of points along the given row.
+     * @param j the row index
+     * @return the number of points
+     */
+    public int getRowSize(int j)
+    {
+        return isReduced() ? quasiRegularGridPoints[j] : gridNi;
+    }
+
+    /**
+     * Returns the index (within the data section) of the first point of the given row.
+     * @param j the row index
+     * @return the index of the first point of the row
+     */
+    public int getRowOffset(int j)
+    {
+        return isReduced() ? rowOffsets[j] : gridNi * j;
+    }
+
+    /**
+     * Returns the number of points along the longest row, which is the number
+     * of columns of the regular grid returned by {@link #expandToRegularGrid(float[])}.
+     * @return the number of points along the longest row
+     */
+    public int getMaxRowSize()
+    {
+        return isReduced() ? maxRowSize : gridNi;
+    }
+
+    /**
+     * Returns whether the rows of a quasi-regular grid go all the way around
+     * the Earth, in which case the last point of each row is followed by the first.
+     * @return true if the rows are periodic
+     */
+    protected boolean isPeriodic()
+    {
+        return getLongitudeSpan() + 360.0 / getMaxRowSize() > 360.0 - 1e-3;
+    }
+
+    /**
+     * Returns the difference in longitude between the first and last points of
+     * each row, measured in the scanning direction.
+     * @return the longitude span, in the range [0, 360[ (units: degrees)
+     */
+    protected double getLongitudeSpan()
+    {
+        double span = scanMode.iDirectionPositive ? lon2 - lon1 : lon1 - lon2;
+        span %= 360.0;
+        if (span < 0) span += 360.0;
+        return span;
+    }
+
+    /**
+     * Expands the values of a quasi-regular grid to a regular grid having
+     * {@link #getMaxRowSize()} points along each row, by linear interpolation
+     * along each row. The interpolation weights are computed once and shared
+     * by all records using this GDS.
+     * @param values the values of each grid point, as stored in the data section
+     * @return the values on the regular grid, row by row, or {@code values}
+     * itself if this is already a regular grid
+     */
+    public float[] expandToRegularGrid(float[] values)
+    {
+        if (!isReduced())
+        {
+            return values;
+        }
+        RegularGridExpansion expansion = getRegularGridExpansion();
+        float[] expanded = new float[expansion.weights.length];
+        for (int k = 0; k < expanded.length; k++)
+        {
+            float left = values[expansion.left[k]];
+            float weight = expansion.weights[k];
+            expanded[k] = weight == 0 ? left : left + weight * (values[expansion.right[k]] - left);
+        }
+        return expanded;
+    }
+
+    private RegularGridExpansion getRegularGridExpansion()
+    {
+        RegularGridExpansion expansion = regularGridExpansion;
+        if (expansion == null)
+        {
+            synchronized (this)
+            {
+                expansion = regularGridExpansion;
+                if (expansion == null)
+                {
+                    expansion = new RegularGridExpansion();
+                    regularGridExpansion = expansion;
+                }
+            }
+        }
+        return expansion;
+    }
+
+    /**
+     * For each point of the regular grid, the two neighbouring points along
+     * the same row of the quasi-regular grid and the interpolation weight of
+     * the second point.
+     */
+    private class RegularGridExpansion
+    {
+        private final int[] left;
+        private final int[] right;
+        private final float[] weights;
+
+        private RegularGridExpansion()
+        {
+            int nRows = quasiRegularGridPoints.length;
+            boolean periodic = isPeriodic();
+            left = new int[nRows * maxRowSize];
+            right = new int[left.length];
+            weights = new float[left.length];
+
+            int k = 0;
+            for (int j = 0; j < nRows; j++)
+            {
+                int n = quasiRegularGridPoints[j];
+                int offset = rowOffsets[j];
+                // Distance between consecutive points of the regular grid, in units of the row's spacing
+                double step;
+                if (periodic) step = (double) n / maxRowSize;
+                else step = maxRowSize > 1 ? (double) (n - 1) / (maxRowSize - 1) : 0;
+                for (int i = 0; i < maxRowSize; i++, k++)
+                {
+                    double x = i * step;
+                    int i0 = Math.min((int) x, n - 1);
+                    double weight = x - i0;
+                    int i1 = i0 + 1;
+                    if (i1 >= n)
+                    {
+                        i1 = periodic ? 0 : i0;
+                        if (!periodic) weight = 0;
+                    }
+                    left[k] = offset + i0;
+                    right[k] = offset + i1;
+                    weights[k] = (float) weight;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the index (within the data section) of the grid point at the
+     * given grid position, taking the scanning mode into account.
+     * @param i the index along the i-direction
+     * @param j the index along the j-direction
+     * @return the index of the grid point
+     */
+    protected int getDataIndex(int i, int j)
+    {
+        if (isReduced())
+        {
+            return rowOffsets[j] + i;
+        }
+        if (scanMode.iDirectionConsecutive)
+        {
+            return gridNi * j + i;
+        }
+        else
+        {
+            return gridNj * i + j;
+        }
+    }
+
+    /**
+     * Normalizes a longitude to the range [-180, 180[
+     * @param longitude the longitude (units: degrees)
+     * @return the normalized longitude (units: degrees)
+     */
+    protected static double normalizeLongitude(double longitude)
+    {
+        longitude %= 360.0;
+        if (longitude >= 180.0) longitude -= 360.0;
+        if (longitude < -180.0) longitude += 360.0;
+        return longitude;
+    }
+
     protected int getLength()
     {
         return length;
@@ -149,6 +526,44 @@ public abstract class Grib2RecordGDS
     {
         return nDataPoints;
     }
+
+    /**
+     * Returns a spatial index over the grid points of this GDS.
+     * The index is built from {@link #getGridCoords()} the first time it is
+     * needed and is then shared by all records using this GDS.
+     * @return the spatial index
+     */
+    public GribGridIndex getGridIndex()
+    {
+        GribGridIndex index = gridIndex;
+        if (index == null)
+        {
+            synchronized (this)
+            {
+                index = gridIndex;
+                if (index == null)
+                {
+                    index = GribGridIndex.fromCoords(getGridCoords());
+                    gridIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of the grid point closest to the given location.
+     * Grids which have a closed-form projection override this to compute the
+     * index directly instead of using the spatial index.
+     * @param latitude the latitude of the location (units: degrees)
+     * @param longitude the longitude of the location (units: degrees)
+     * @return the index of the closest grid point, or -1 if the location lies
+     * outside the grid
+     */
+    public int getNearestPointIndex(double latitude, double longitude)
+    {
+        return getGridIndex().nearest(latitude, longitude);
+    }
     
     protected abstract double[][] getGridCoords();
     protected abstract double[] getGridXCoords();
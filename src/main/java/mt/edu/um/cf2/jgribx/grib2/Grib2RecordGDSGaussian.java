@@ -0,0 +1,204 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx.grib2;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import mt.edu.um.cf2.jgribx.GribInputStream;
+import mt.edu.um.cf2.jgribx.NotSupportedException;
+
+/**
+ * Regular or reduced Gaussian latitude/longitude grid (Grid Definition Template 3.40).
+ * <p>
+ * The rows of a Gaussian grid lie on the Gaussian latitudes, i.e. the roots of
+ * the Legendre polynomial of degree 2N. These are computed once for each N and
+ * shared between all grids which use them.
+ * </p>
+ * In a reduced Gaussian grid, the number of points along each row is given by
+ * the optional list of numbers of points, and the points of each row are
+ * equally spaced between the first and last longitudes.
+ */
+public class Grib2RecordGDSGaussian extends Grib2RecordGDSLatLon
+{
+    /**
+     * Gaussian latitudes which have already been computed, keyed by N.
+     */
+    private static final ConcurrentMap<Integer, double[]> latitudesCache = new ConcurrentHashMap<>();
+
+    /**
+     * Number of parallels between a pole and the equator
+     */
+    protected int nParallels;
+
+    /**
+     * Latitude of each row, in the order in which rows are stored (units: degrees)
+     */
+    private double[] rowLatitudes;
+
+    public Grib2RecordGDSGaussian(GribInputStream in) throws IOException, NotSupportedException
+    {
+        super(in, true);
+        if (!scanMode.iDirectionConsecutive)
+        {
+            throw new NotSupportedException("Gaussian grids with consecutive points along a meridian are not supported");
+        }
+
+        double[] latitudes = getLatitudes(nParallels);
+        int first = findNearest(latitudes, lat1);
+        int step = scanMode.jDirectionPositive ? -1 : 1;    // Gaussian latitudes are stored from north to south
+        int last = first + step * (gridNj - 1);
+        if (last < 0 || last >= latitudes.length)
+        {
+            throw new NotSupportedException("Rows of Gaussian grid do not lie on the Gaussian latitudes (N=" + nParallels + ")");
+        }
+        rowLatitudes = new double[gridNj];
+        for (int j = 0; j < gridNj; j++)
+        {
+            rowLatitudes[j] = latitudes[first + step * j];
+        }
+    }
+
+    /**
+     * Octets 68-71 of a Gaussian grid hold the number of parallels between a
+     * pole and the equator instead of the j-direction increment.
+     */
+    @Override
+    protected void readJDirectionIncrement(GribInputStream in, boolean given, double angleUnit) throws IOException
+    {
+        nParallels = in.readUINT(4);
+    }
+
+    /**
+     * Returns the Gaussian latitudes for the given number of parallels between
+     * a pole and the equator.
+     * @param n the number of parallels between a pole and the equator
+     * @return the 2N Gaussian latitudes, from north to south (units: degrees)
+     */
+    public static double[] getGaussianLatitudes(int n)
+    {
+        return getLatitudes(n).clone();
+    }
+
+    private static double[] getLatitudes(int n)
+    {
+        if (n <= 0)
+        {
+            throw new IllegalArgumentException("Invalid number of parallels: " + n);
+        }
+        double[] latitudes = latitudesCache.get(n);
+        if (latitudes == null)
+        {
+            latitudes = computeLatitudes(n);
+            double[] existing = latitudesCache.putIfAbsent(n, latitudes);
+            if (existing != null) latitudes = existing;
+        }
+        return latitudes;
+    }
+
+    /**
+     * Computes the roots of the Legendre polynomial of degree 2N using Newton
+     * iteration, starting from an asymptotic approximation of each root.
+     */
+    private static double[] computeLatitudes(int n)
+    {
+        int degree = 2 * n;
+        double[] latitudes = new double[degree];
+        for (int k = 0; k < n; k++)
+        {
+            double x = Math.cos(Math.PI * (k + 0.75) / (degree + 0.5));
+            for (int iter = 0; iter < 100; iter++)
+            {
+                // Evaluate P(degree) and P(degree-1) using the three-term recurrence
+                double p0 = 1.0;
+                double p1 = x;
+                for (int l = 2; l <= degree; l++)
+                {
+                    double p2 = ((2 * l - 1) * x * p1 - (l - 1) * p0) / l;
+                    p0 = p1;
+                    p1 = p2;
+                }
+                double derivative = degree * (p0 - x * p1) / (1 - x * x);
+                double dx = p1 / derivative;
+                x -= dx;
+                if (Math.abs(dx) < 1e-15) break;
+            }
+            double latitude = Math.toDegrees(Math.asin(x));
+            latitudes[k] = latitude;
+            latitudes[degree - 1 - k] = -latitude;
+        }
+        return latitudes;
+    }
+
+    /**
+     * Returns the index of the value closest to the given value, using binary
+     * search over values sorted in ascending or descending order.
+     */
+    private static int findNearest(double[] values, double value)
+    {
+        int lo = 0;
+        int hi = values.length - 1;
+        if (hi == 0) return 0;
+        boolean ascending = values[hi] > values[0];
+        while (hi - lo > 1)
+        {
+            int mid = (lo + hi) >>> 1;
+            if ((values[mid] < value) == ascending) lo = mid;
+            else hi = mid;
+        }
+        return Math.abs(values[lo] - value) <= Math.abs(values[hi] - value) ? lo : hi;
+    }
+
+    @Override
+    protected int getNearestRow(double latitude)
+    {
+        int j = findNearest(rowLatitudes, latitude);
+        if (gridNj != 2 * nParallels)
+        {
+            // Regional grid: reject latitudes beyond half a row from the edge rows
+            double halfRow = gridNj > 1 ? Math.abs(rowLatitudes[1] - rowLatitudes[0]) / 2 : 0;
+            double min = Math.min(rowLatitudes[0], rowLatitudes[gridNj - 1]) - halfRow;
+            double max = Math.max(rowLatitudes[0], rowLatitudes[gridNj - 1]) + halfRow;
+            if (latitude < min || latitude > max) return -1;
+        }
+        return j;
+    }
+
+    @Override
+    protected double[][] getGridCoords()
+    {
+        double[][] coords = new double[nDataPoints][2];
+        for (int j = 0; j < gridNj; j++)
+        {
+            int n = getRowSize(j);
+            double di = getRowIncrement(j);
+            for (int i = 0; i < n; i++)
+            {
+                int k = getDataIndex(i, j);
+                coords[k][0] = normalizeLongitude(lon1 + i * di);
+                coords[k][1] = rowLatitudes[j];
+            }
+        }
+        return coords;
+    }
+
+    @Override
+    protected double[] getGridYCoords()
+    {
+        return rowLatitudes.clone();
+    }
+
+    @Override
+    protected double getGridDeltaY()
+    {
+        return gridNj > 1 ? (rowLatitudes[gridNj - 1] - rowLatitudes[0]) / (gridNj - 1) : 0;
+    }
+}
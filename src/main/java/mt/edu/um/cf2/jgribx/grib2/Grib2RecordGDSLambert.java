@@ -0,0 +1,144 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx.grib2;
+
+import java.io.IOException;
+import mt.edu.um.cf2.jgribx.Bytes2Number;
+import mt.edu.um.cf2.jgribx.GribInputStream;
+import mt.edu.um.cf2.jgribx.NotSupportedException;
+
+/**
+ * Lambert conformal grid (Grid Definition Template 3.30).
+ * <p>
+ * Both the secant (Latin1 &ne; Latin2) and tangent (Latin1 = Latin2) cones
+ * are supported, using the formulae in Snyder, "Map Projections - A Working
+ * Manual" (1987), p. 104-110. The projection plane has its origin at the apex
+ * of the cone, and is scaled so that the grid lengths are true at LaD, which
+ * is usually, but not necessarily, one of the standard parallels.
+ * </p>
+ */
+public class Grib2RecordGDSLambert extends Grib2RecordGDSProjected
+{
+    /**
+     * Latitude at which the grid lengths are specified (units: degrees)
+     */
+    protected double latD;
+
+    /**
+     * Orientation of the grid, i.e. the meridian parallel to the y-axis (units: degrees)
+     */
+    protected double lonV;
+
+    /**
+     * First latitude at which the cone cuts the Earth (units: degrees)
+     */
+    protected double latin1;
+
+    /**
+     * Second latitude at which the cone cuts the Earth (units: degrees)
+     */
+    protected double latin2;
+
+    /**
+     * Whether the projection is centred on the South Pole
+     */
+    protected boolean southPole;
+
+    /**
+     * Cone constant
+     */
+    private double n;
+
+    /**
+     * R * F / k, where F is the scaling constant of the projection and k its
+     * scale factor at LaD (units: m)
+     */
+    private double rf;
+
+    public Grib2RecordGDSLambert(GribInputStream in) throws IOException, NotSupportedException
+    {
+        super(in);
+        readShapeOfEarth(in);
+
+        /* [31-38] Number of points along the x- and y-axes */
+        gridNi = in.readUINT(4);
+        gridNj = in.readUINT(4);
+
+        /* [39-46] Latitude and longitude of the first grid point */
+        lat1 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+        lon1 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+
+        /* [47] Resolution and component flags */
+        in.skip(1);
+
+        /* [48-55] LaD and LoV */
+        latD = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+        lonV = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+
+        /* [56-63] Grid lengths (units: 10^-3 m) */
+        gridDi = in.readUINT(4) / 1.0e3;
+        gridDj = in.readUINT(4) / 1.0e3;
+
+        /* [64] Projection centre flag */
+        southPole = (in.readUINT(1) & 0x80) == 0x80;
+
+        /* [65] Scanning mode */
+        scanMode = new ScanMode((byte) in.readUINT(1));
+
+        /* [66-73] Latin1 and Latin2 */
+        latin1 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+        latin2 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+
+        /* [74-81] Latitude and longitude of the southern pole (not needed) */
+        in.skip(8);
+
+        double phi1 = Math.toRadians(latin1);
+        double phi2 = Math.toRadians(latin2);
+        if (Math.abs(latin1 - latin2) < 1.0e-6)
+        {
+            n = Math.sin(phi1);
+        }
+        else
+        {
+            n = Math.log(Math.cos(phi1) / Math.cos(phi2))
+                    / Math.log(Math.tan(Math.PI / 4 + phi2 / 2) / Math.tan(Math.PI / 4 + phi1 / 2));
+        }
+        rf = earthRadius * Math.cos(phi1) * Math.pow(Math.tan(Math.PI / 4 + phi1 / 2), n) / n;
+
+        // Scale the projection so that it is true at LaD, where the grid lengths are given
+        double phiD = Math.toRadians(latD);
+        if (Math.cos(phiD) > 1.0e-10)
+        {
+            rf /= n * rf / (earthRadius * Math.cos(phiD) * Math.pow(Math.tan(Math.PI / 4 + phiD / 2), n));
+        }
+
+        initProjection();
+    }
+
+    @Override
+    protected void project(double latitude, double longitude, double[] xy)
+    {
+        double rho = rf / Math.pow(Math.tan(Math.PI / 4 + Math.toRadians(latitude) / 2), n);
+        double theta = n * Math.toRadians(normalizeLongitude(longitude - lonV));
+        xy[0] = rho * Math.sin(theta);
+        xy[1] = -rho * Math.cos(theta);
+    }
+
+    @Override
+    protected void unproject(double x, double y, double[] latLon)
+    {
+        double sign = Math.signum(n);
+        double rho = sign * Math.sqrt(x * x + y * y);
+        double theta = Math.atan2(sign * x, -sign * y);
+        latLon[0] = Math.toDegrees(2 * Math.atan(Math.pow(rf / rho, 1 / n)) - Math.PI / 2);
+        latLon[1] = normalizeLongitude(lonV + Math.toDegrees(theta / n));
+    }
+}
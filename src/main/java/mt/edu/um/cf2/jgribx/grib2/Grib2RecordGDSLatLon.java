@@ -22,15 +22,23 @@ import mt.edu.um.cf2.jgribx.NotSupportedException;
 public class Grib2RecordGDSLatLon extends Grib2RecordGDS
 {    
     public Grib2RecordGDSLatLon(GribInputStream in) throws IOException, NotSupportedException
+    {
+        this(in, true);
+    }
+
+    /**
+     * Reads octets 15-72 of the GDS, which are common to the regular and
+     * rotated latitude/longitude templates.
+     * @param in
+     * @param readPointList whether the optional list of numbers of points
+     * directly follows octet 72
+     * @throws IOException
+     * @throws NotSupportedException
+     */
+    protected Grib2RecordGDSLatLon(GribInputStream in, boolean readPointList) throws IOException, NotSupportedException
     {
         super(in);
-        earthShape = in.readUINT(1);
-        int radiusScaleFactor = in.readUINT(1);
-        int radiusScaledValue = in.readUINT(4);
-        int majorScaleFactor = in.readUINT(1);
-        int majorScaledValue = in.readUINT(4);
-        int minorScaleFactor = in.readUINT(1);
-        int minorScaledValue = in.readUINT(4);
+        readShapeOfEarth(in);
         gridNi = in.readUINT(4);
         gridNj = in.readUINT(4);
 
@@ -39,44 +47,40 @@ public class Grib2RecordGDSLatLon extends Grib2RecordGDS
             throw new NotSupportedException("Quasi-regular grids with variable Nj is not yet supported");
         }
 
+        /* [39-46] Basic angle and its subdivisions, defining the unit of the angles below */
         int basicAngle = in.readUINT(4);
         int basicAngleSubdiv = in.readUINT(4);
-        if (basicAngle == 0)
+        double angleUnit = 1.0e-6;
+        if (basicAngle != 0 && basicAngle != -1 && basicAngleSubdiv != 0 && basicAngleSubdiv != -1)
         {
-            lat1 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
-            lon1 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+            angleUnit = (double) basicAngle / basicAngleSubdiv;
         }
+
+        /* [47-54] Latitude and longitude of the first grid point */
+        lat1 = in.readINT(4, Bytes2Number.INT_SM) * angleUnit;
+        lon1 = in.readINT(4, Bytes2Number.INT_SM) * angleUnit;
+
+        /* [55] Resolution and component flags */
         int flags = in.readUINT(1);
         boolean iDirectionIncrementsGiven = (flags & 0x20) == 0x20;
         boolean jDirectionIncrementsGiven = (flags & 0x10) == 0x10;
-        if (basicAngle == 0)
-        {
-            lat2 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
-            lon2 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
-        }
+
+        /* [56-63] Latitude and longitude of the last grid point */
+        lat2 = in.readINT(4, Bytes2Number.INT_SM) * angleUnit;
+        lon2 = in.readINT(4, Bytes2Number.INT_SM) * angleUnit;
+
         /* [64-67] i-Direction Increment Di */
+        int iIncrement = in.readUINT(4);
         if (iDirectionIncrementsGiven)
         {
-            if (basicAngle == 0)
-            {
-                gridDi = in.readUINT(4) / 1.0e6;
-            }
+            gridDi = iIncrement * angleUnit;
         }
+
         /* [68-71] j-Direction Increment Dj */
-        if (jDirectionIncrementsGiven)
-        {
-            if (basicAngle == 0)
-            {
-                gridDj = in.readUINT(4) / 1.0e6;
-            }
-        }
+        readJDirectionIncrement(in, jDirectionIncrementsGiven, angleUnit);
+
         /* [72] Scanning Mode */
-//        int scanMode = in.readUINT(1);
         scanMode = new ScanMode((byte) in.readUINT(1));
-//        boolean iPositiveDirection = (scanMode & 0x80) != 0x80;
-//        boolean jPositiveDirection = (scanMode & 0x40) == 0x40;
-//        iDirectionConsecutive = (scanMode & 0x20) != 0x20;
-//        rowsZigzag = (scanMode & 0x10) == 0x10;
         if (!scanMode.iDirectionPositive) gridDi *= -1;
         if (!scanMode.jDirectionPositive) gridDj *= -1;
         
@@ -85,20 +89,102 @@ public class Grib2RecordGDSLatLon extends Grib2RecordGDS
             throw new NotSupportedException("Unsupported scan mode found");
         }
 
-        if (gridNi == -1 || gridNj == -1)
+        if (readPointList && gridNi == -1)
         {
-            quasiRegularGridPoints = new int[this.length - 72];
-            for (int i = 0; i < quasiRegularGridPoints.length; i++)
-            {
-                quasiRegularGridPoints[i] = in.readUINT(1);
-            }
+            readPointList(in, gridNj);
         }
     }
-    
+
+    /**
+     * Reads octets 68-71 of the GDS, which hold the j-direction increment.
+     * @param in the input stream, positioned at octet 68
+     * @param given whether the increment is given
+     * @param angleUnit the unit of the increment (units: degrees)
+     * @throws IOException
+     */
+    protected void readJDirectionIncrement(GribInputStream in, boolean given, double angleUnit) throws IOException
+    {
+        int jIncrement = in.readUINT(4);
+        if (given)
+        {
+            gridDj = jIncrement * angleUnit;
+        }
+    }
+
+    @Override
+    public int getNearestPointIndex(double latitude, double longitude)
+    {
+        int j = getNearestRow(latitude);
+        if (j < 0) return -1;
+        int i = getLongitudeIndex(longitude, lon1, getRowIncrement(j), getRowSize(j));
+        if (i < 0) return -1;
+        return getDataIndex(i, j);
+    }
+
+    /**
+     * Returns the index of the row closest to the given latitude.
+     * @param latitude the latitude (units: degrees)
+     * @return the index of the closest row, or -1 if the latitude lies outside the grid
+     */
+    protected int getNearestRow(double latitude)
+    {
+        int j = (int) Math.round((latitude - lat1) / gridDj);     // j = index_closest_latitude
+        if (j < 0 || j >= gridNj) return -1;
+        return j;
+    }
+
+    /**
+     * Returns the (signed) longitude increment along the given row. The points
+     * of each row of a quasi-regular grid are equally spaced between the first
+     * and last longitudes, or around the whole parallel for global grids.
+     * @param j the row index
+     * @return the longitude increment (units: degrees)
+     */
+    protected double getRowIncrement(int j)
+    {
+        if (!isReduced())
+        {
+            return gridDi;
+        }
+        int n = getRowSize(j);
+        double di;
+        if (isPeriodic())
+        {
+            di = 360.0 / n;
+        }
+        else
+        {
+            di = n > 1 ? getLongitudeSpan() / (n - 1) : 0;
+        }
+        return scanMode.iDirectionPositive ? di : -di;
+    }
+
+    /**
+     * Returns the index of the point closest to the given longitude along a
+     * row of equally spaced points, taking wrapping around the Earth into account.
+     * @param longitude the longitude (units: degrees)
+     * @param lonStart the longitude of the first point of the row (units: degrees)
+     * @param di the (signed) increment between points (units: degrees)
+     * @param n the number of points along the row
+     * @return the index of the closest point, or -1 if the longitude lies outside the row
+     */
+    protected static int getLongitudeIndex(double longitude, double lonStart, double di, int n)
+    {
+        if (di == 0) return n > 0 ? 0 : -1;
+        double period = 360.0 / Math.abs(di);  // number of increments around a parallel
+        double x = ((longitude - lonStart) / di) % period;
+        if (x < 0) x += period;
+        if (x > period - 0.5) x -= period;   // closer to the first point when approached from the other side
+        int i = (int) Math.round(x);
+        if (i >= n && Math.abs(n - period) < 0.5) i -= n;
+        if (i < 0 || i >= n) return -1;
+        return i;
+    }
+
     @Override
     protected double[][] getGridCoords()
     {
-        if (gridNi == -1 || gridNj == -1) { return this.getQuasiRegularGridCoords(); }
+        if (isReduced()) { return this.getQuasiRegularGridCoords(); }
         double[][] coords = new double[gridNi*gridNj][2];
 
         int k = 0;
@@ -130,58 +216,37 @@ public class Grib2RecordGDSLatLon extends Grib2RecordGDS
         double[][] coords = new double[nDataPoints][2];
 
         // Assuming gridNj is fixed and gridNi is variable
-        int k = 0;
         for (int j = 0; j < gridNj; j++)
         {
-            int gridNi = quasiRegularGridPoints[j];
-            for (int i = 0; i < gridNi; i++)
+            int n = getRowSize(j);
+            int k = getRowOffset(j);
+            double di = getRowIncrement(j);
+            double lat = lat1 + j * gridDj;
+            for (int i = 0; i < n; i++, k++)
             {
-                double gridDi = (lat2 - lat1 + 1) / gridNi;
-
-                double lon = lon1 + i * gridDi;
-                double lat = lat1 + j * gridDj;
-
-                coords[k][0] = normalizeAngle(lon);
-                coords[k][1] = normalizeAngle(lat);
-                k++;
+                coords[k][0] = normalizeLongitude(lon1 + i * di);
+                coords[k][1] = lat;
             }
         }
         return coords;
     }
 
     /**
-     * Normalizes the specified angle to fit into the range ]-180, 180]
-     * @param angle The angle to normalize (units: degrees)
-     * @return The normalized angle (units: degrees)
-     * Adapted from: https://stackoverflow.com/questions/2320986/easy-way-to-keeping-angles-between-179-and-180-degrees
+     * Returns the longitudes of the grid columns. For quasi-regular grids, these
+     * are the columns of the regular grid returned by {@link #expandToRegularGrid(float[])}.
      */
-    private static double normalizeAngle(double angle)
-    {
-        // Reduce the angle
-        angle %= 360;
-
-        // Force it to become the positive remainder, so that it fits in the range [0, 360]
-        angle = (angle + 360) % 360;
-
-        // Force into the minimum absolute value residue class, so that -180 < angle <= 180
-        if (angle > 180)
-        {
-            angle -= 360;
-        }
-
-        return angle;
-    }
-    
     @Override
     protected double[] getGridXCoords()
     {
-        double[] coords = new double[gridNi];
+        int nColumns = getGridSizeX();
+        double di = getGridDeltaX();
+        double[] coords = new double[nColumns];
         int k = 0;
         boolean convertTo180 = true;
 
-        for (int x = 0; x < gridNi; x++)
+        for (int x = 0; x < nColumns; x++)
         {
-            double lon = lon1 + x * gridDi;
+            double lon = lon1 + x * di;
 
             if (convertTo180)
             {
@@ -216,6 +281,11 @@ public class Grib2RecordGDSLatLon extends Grib2RecordGDS
     @Override
     protected double getGridDeltaX()
     {
+        if (isReduced())
+        {
+            double di = isPeriodic() ? 360.0 / getMaxRowSize() : getLongitudeSpan() / Math.max(getMaxRowSize() - 1, 1);
+            return scanMode.iDirectionPositive ? di : -di;
+        }
         return gridDi;
     }
     
@@ -240,7 +310,7 @@ public class Grib2RecordGDSLatLon extends Grib2RecordGDS
     @Override
     protected int getGridSizeX()
     {
-        return gridNi;
+        return getMaxRowSize();
     }
     
     @Override
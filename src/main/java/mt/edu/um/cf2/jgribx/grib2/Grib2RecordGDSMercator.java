@@ -0,0 +1,99 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx.grib2;
+
+import java.io.IOException;
+import mt.edu.um.cf2.jgribx.Bytes2Number;
+import mt.edu.um.cf2.jgribx.GribInputStream;
+import mt.edu.um.cf2.jgribx.Logger;
+import mt.edu.um.cf2.jgribx.NotSupportedException;
+
+/**
+ * Mercator grid (Grid Definition Template 3.10).
+ * <p>
+ * The x-coordinate is measured from the first grid point, so that the grid
+ * can be located without knowing where the projection was centred.
+ * </p>
+ */
+public class Grib2RecordGDSMercator extends Grib2RecordGDSProjected
+{
+    /**
+     * Latitude at which the projection intersects the Earth (units: degrees)
+     */
+    protected double latD;
+
+    /**
+     * Radius of the latitude circle at which distances are true (units: m)
+     */
+    private double radiusD;
+
+    public Grib2RecordGDSMercator(GribInputStream in) throws IOException, NotSupportedException
+    {
+        super(in);
+        readShapeOfEarth(in);
+
+        /* [31-38] Number of points along a parallel and a meridian */
+        gridNi = in.readUINT(4);
+        gridNj = in.readUINT(4);
+
+        /* [39-46] Latitude and longitude of the first grid point */
+        lat1 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+        lon1 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+
+        /* [47] Resolution and component flags */
+        in.skip(1);
+
+        /* [48-51] LaD */
+        latD = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+
+        /* [52-59] Latitude and longitude of the last grid point */
+        lat2 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+        lon2 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+
+        /* [60] Scanning mode */
+        scanMode = new ScanMode((byte) in.readUINT(1));
+
+        /* [61-64] Orientation of the grid */
+        int orientation = in.readINT(4, Bytes2Number.INT_SM);
+        if (orientation != 0)
+        {
+            Logger.println("Rotated Mercator grids are not supported. The orientation of the grid is ignored.",
+                    Logger.WARNING);
+        }
+
+        /* [65-72] Grid increments (units: 10^-3 m) */
+        gridDi = in.readUINT(4) / 1.0e3;
+        gridDj = in.readUINT(4) / 1.0e3;
+
+        radiusD = earthRadius * Math.cos(Math.toRadians(latD));
+        initProjection();
+    }
+
+    @Override
+    protected void project(double latitude, double longitude, double[] xy)
+    {
+        xy[0] = radiusD * Math.toRadians(normalizeLongitude(longitude - lon1));
+        xy[1] = radiusD * Math.log(Math.tan(Math.PI / 4 + Math.toRadians(latitude) / 2));
+    }
+
+    @Override
+    protected void unproject(double x, double y, double[] latLon)
+    {
+        latLon[0] = Math.toDegrees(2 * Math.atan(Math.exp(y / radiusD)) - Math.PI / 2);
+        latLon[1] = normalizeLongitude(lon1 + Math.toDegrees(x / radiusD));
+    }
+
+    @Override
+    protected double getPeriodX()
+    {
+        return 2 * Math.PI * radiusD;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx.grib2;
+
+import java.io.IOException;
+import mt.edu.um.cf2.jgribx.Bytes2Number;
+import mt.edu.um.cf2.jgribx.GribInputStream;
+import mt.edu.um.cf2.jgribx.NotSupportedException;
+
+/**
+ * Polar stereographic grid (Grid Definition Template 3.20).
+ * <p>
+ * The projection plane has its origin at the pole, with the y-axis pointing
+ * away from the orientation meridian LoV.
+ * </p>
+ */
+public class Grib2RecordGDSPolarStereo extends Grib2RecordGDSProjected
+{
+    /**
+     * Latitude at which the grid increments are specified (units: degrees)
+     */
+    protected double latD;
+
+    /**
+     * Orientation of the grid, i.e. the meridian parallel to the y-axis (units: degrees)
+     */
+    protected double lonV;
+
+    /**
+     * Whether the projection is centred on the South Pole
+     */
+    protected boolean southPole;
+
+    /**
+     * Distance between the pole and the equator in the projection plane (units: m)
+     */
+    private double radiusEquator;
+
+    public Grib2RecordGDSPolarStereo(GribInputStream in) throws IOException, NotSupportedException
+    {
+        super(in);
+        readShapeOfEarth(in);
+
+        /* [31-38] Number of points along the x- and y-axes */
+        gridNi = in.readUINT(4);
+        gridNj = in.readUINT(4);
+
+        /* [39-46] Latitude and longitude of the first grid point */
+        lat1 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+        lon1 = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+
+        /* [47] Resolution and component flags */
+        in.skip(1);
+
+        /* [48-55] LaD and LoV */
+        latD = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+        lonV = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+
+        /* [56-63] Grid lengths (units: 10^-3 m) */
+        gridDi = in.readUINT(4) / 1.0e3;
+        gridDj = in.readUINT(4) / 1.0e3;
+
+        /* [64] Projection centre flag */
+        southPole = (in.readUINT(1) & 0x80) == 0x80;
+
+        /* [65] Scanning mode */
+        scanMode = new ScanMode((byte) in.readUINT(1));
+
+        radiusEquator = earthRadius * (1 + Math.sin(Math.toRadians(Math.abs(latD))));
+        initProjection();
+    }
+
+    @Override
+    protected void project(double latitude, double longitude, double[] xy)
+    {
+        double lat = Math.toRadians(latitude);
+        double dLon = Math.toRadians(normalizeLongitude(longitude - lonV));
+        if (southPole)
+        {
+            double rho = radiusEquator * Math.tan(Math.PI / 4 + lat / 2);
+            xy[0] = rho * Math.sin(dLon);
+            xy[1] = rho * Math.cos(dLon);
+        }
+        else
+        {
+            double rho = radiusEquator * Math.tan(Math.PI / 4 - lat / 2);
+            xy[0] = rho * Math.sin(dLon);
+            xy[1] = -rho * Math.cos(dLon);
+        }
+    }
+
+    @Override
+    protected void unproject(double x, double y, double[] latLon)
+    {
+        double rho = Math.sqrt(x * x + y * y);
+        double c = Math.PI / 2 - 2 * Math.atan(rho / radiusEquator);
+        if (southPole)
+        {
+            latLon[0] = -Math.toDegrees(c);
+            latLon[1] = normalizeLongitude(lonV + Math.toDegrees(Math.atan2(x, y)));
+        }
+        else
+        {
+            latLon[0] = Math.toDegrees(c);
+            latLon[1] = normalizeLongitude(lonV + Math.toDegrees(Math.atan2(x, -y)));
+        }
+    }
+}
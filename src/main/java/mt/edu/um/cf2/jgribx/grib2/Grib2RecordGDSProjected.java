@@ -0,0 +1,236 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx.grib2;
+
+import java.io.IOException;
+import mt.edu.um.cf2.jgribx.GribInputStream;
+import mt.edu.um.cf2.jgribx.Logger;
+import mt.edu.um.cf2.jgribx.NotSupportedException;
+
+/**
+ * Base class for grids whose points are equally spaced in the plane of a map
+ * projection (e.g. Mercator, polar stereographic and Lambert conformal).
+ * <p>
+ * Subclasses provide the closed-form forward and inverse projections, from
+ * which the grid index of any location can be computed directly.
+ * </p>
+ * The grid increments {@link #gridDi} and {@link #gridDj} are stored in
+ * metres and carry the sign of the scanning direction.
+ */
+public abstract class Grib2RecordGDSProjected extends Grib2RecordGDS
+{
+    /**
+     * x-coordinate of the first grid point in the projection plane (units: m)
+     */
+    protected double x1;
+
+    /**
+     * y-coordinate of the first grid point in the projection plane (units: m)
+     */
+    protected double y1;
+
+    public Grib2RecordGDSProjected(GribInputStream in) throws IOException
+    {
+        super(in);
+    }
+
+    /**
+     * Converts a location to coordinates in the projection plane.
+     * @param latitude the latitude of the location (units: degrees)
+     * @param longitude the longitude of the location (units: degrees)
+     * @param xy output array receiving the x and y coordinates (units: m)
+     */
+    protected abstract void project(double latitude, double longitude, double[] xy);
+
+    /**
+     * Converts coordinates in the projection plane to a location.
+     * @param x the x-coordinate (units: m)
+     * @param y the y-coordinate (units: m)
+     * @param latLon output array receiving the latitude and longitude (units: degrees)
+     */
+    protected abstract void unproject(double x, double y, double[] latLon);
+
+    /**
+     * Returns the width of the projection plane after which the x-coordinates
+     * wrap around (e.g. the circumference of a Mercator projection), or zero if
+     * they do not wrap around.
+     * @return the period of the x-coordinates (units: m)
+     */
+    protected double getPeriodX()
+    {
+        return 0;
+    }
+
+    /**
+     * Applies the scanning mode to the grid increments and determines the
+     * position of the first grid point in the projection plane. This must be
+     * called by subclasses once all the projection parameters have been read.
+     * @throws NotSupportedException if the scanning mode is not supported
+     */
+    protected void initProjection() throws NotSupportedException
+    {
+        if (scanMode.iDirectionEvenRowsOffset || scanMode.iDirectionOddRowsOffset || scanMode.jDirectionOffset || !scanMode.rowsNiNjPoints || scanMode.rowsZigzag)
+        {
+            throw new NotSupportedException("Unsupported scan mode found");
+        }
+        if (!scanMode.iDirectionPositive) gridDi *= -1;
+        if (!scanMode.jDirectionPositive) gridDj *= -1;
+
+        double[] xy = new double[2];
+        project(lat1, lon1, xy);
+        x1 = xy[0];
+        y1 = xy[1];
+    }
+
+    /**
+     * Returns the (fractional) grid indices of the given location, computed
+     * using the forward projection.
+     * @param latitude the latitude of the location (units: degrees)
+     * @param longitude the longitude of the location (units: degrees)
+     * @return the grid indices along the i- and j-directions
+     */
+    public double[] getGridIJ(double latitude, double longitude)
+    {
+        double[] xy = new double[2];
+        project(latitude, longitude, xy);
+        double i = (xy[0] - x1) / gridDi;
+        double j = (xy[1] - y1) / gridDj;
+
+        double period = getPeriodX() / Math.abs(gridDi);
+        if (period > 0 && (i < -0.5 || i >= gridNi - 0.5))
+        {
+            i -= period * Math.floor((i + 0.5) / period);
+        }
+        return new double[] {i, j};
+    }
+
+    /**
+     * Returns the location of the given (fractional) grid position, computed
+     * using the inverse projection.
+     * @param i the grid index along the i-direction
+     * @param j the grid index along the j-direction
+     * @return the latitude and longitude (units: degrees)
+     */
+    public double[] getLatLon(double i, double j)
+    {
+        double[] latLon = new double[2];
+        unproject(x1 + i * gridDi, y1 + j * gridDj, latLon);
+        return latLon;
+    }
+
+    @Override
+    public int getNearestPointIndex(double latitude, double longitude)
+    {
+        double[] ij = getGridIJ(latitude, longitude);
+        int i = (int) Math.round(ij[0]);
+        int j = (int) Math.round(ij[1]);
+        if (i < 0 || i >= gridNi || j < 0 || j >= gridNj)
+        {
+            return -1;
+        }
+        return getDataIndex(i, j);
+    }
+
+    /**
+     * Returns the coordinates of the grid points, in the order in which they
+     * are stored in the data section.
+     * @return longitude/latitude pairs (units: degrees)
+     */
+    @Override
+    protected double[][] getGridCoords()
+    {
+        double[][] coords = new double[gridNi * gridNj][2];
+        double[] latLon = new double[2];
+        for (int j = 0; j < gridNj; j++)
+        {
+            double y = y1 + j * gridDj;
+            for (int i = 0; i < gridNi; i++)
+            {
+                unproject(x1 + i * gridDi, y, latLon);
+                if (latLon[0] > 90.0 || latLon[0] < -90.0)
+                {
+                    Logger.println(() -> getClass().getSimpleName() + ".getGridCoords: latitude out of range (-90 to 90).",
+                            Logger.ERROR);
+                }
+                int k = getDataIndex(i, j);
+                coords[k][0] = latLon[1];
+                coords[k][1] = latLon[0];
+            }
+        }
+        return coords;
+    }
+
+    /**
+     * Returns the x-coordinates of the grid columns in the projection plane.
+     * @return the x-coordinates (units: km)
+     */
+    @Override
+    protected double[] getGridXCoords()
+    {
+        double[] coords = new double[gridNi];
+        for (int i = 0; i < gridNi; i++)
+        {
+            coords[i] = (x1 + i * gridDi) / 1000.0;
+        }
+        return coords;
+    }
+
+    /**
+     * Returns the y-coordinates of the grid rows in the projection plane.
+     * @return the y-coordinates (units: km)
+     */
+    @Override
+    protected double[] getGridYCoords()
+    {
+        double[] coords = new double[gridNj];
+        for (int j = 0; j < gridNj; j++)
+        {
+            coords[j] = (y1 + j * gridDj) / 1000.0;
+        }
+        return coords;
+    }
+
+    @Override
+    protected double getGridDeltaX()
+    {
+        return gridDi;
+    }
+
+    @Override
+    protected double getGridDeltaY()
+    {
+        return gridDj;
+    }
+
+    @Override
+    protected double getGridLatStart()
+    {
+        return lat1;
+    }
+
+    @Override
+    protected double getGridLonStart()
+    {
+        return lon1;
+    }
+
+    @Override
+    protected int getGridSizeX()
+    {
+        return gridNi;
+    }
+
+    @Override
+    protected int getGridSizeY()
+    {
+        return gridNj;
+    }
+}
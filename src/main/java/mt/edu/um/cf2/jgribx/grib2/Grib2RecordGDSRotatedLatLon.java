@@ -0,0 +1,151 @@
+/*
+ * ============================================================================
+ * JGribX
+ * ============================================================================
+ * Written by Andrew Spiteri <andrew.spiteri@um.edu.mt>
+ * Adapted from JGRIB: http://jgrib.sourceforge.net/
+ *
+ * Licensed under MIT: https://github.com/spidru/JGribX/blob/master/LICENSE
+ * ============================================================================
+ */
+package mt.edu.um.cf2.jgribx.grib2;
+
+import java.io.IOException;
+import mt.edu.um.cf2.jgribx.Bytes2Number;
+import mt.edu.um.cf2.jgribx.GribInputStream;
+import mt.edu.um.cf2.jgribx.NotSupportedException;
+
+/**
+ * Rotated latitude/longitude grid (Grid Definition Template 3.1).
+ * <p>
+ * The grid is regular in a coordinate system whose South Pole has been moved
+ * to the specified location, after which the system has been rotated about
+ * its polar axis by the specified angle. The grid coordinates ({@link #lat1},
+ * {@link #lon1}, etc.) are expressed in the rotated system.
+ * </p>
+ */
+public class Grib2RecordGDSRotatedLatLon extends Grib2RecordGDSLatLon
+{
+    /**
+     * Geographic latitude of the southern pole of the projection (units: degrees)
+     */
+    protected double southPoleLat;
+
+    /**
+     * Geographic longitude of the southern pole of the projection (units: degrees)
+     */
+    protected double southPoleLon;
+
+    /**
+     * Angle of rotation of the projection (units: degrees)
+     */
+    protected double rotationAngle;
+
+    private double sinTheta;
+    private double cosTheta;
+
+    public Grib2RecordGDSRotatedLatLon(GribInputStream in) throws IOException, NotSupportedException
+    {
+        super(in, false);
+        if (gridNi == -1)
+        {
+            throw new NotSupportedException("Quasi-regular rotated grids are not yet supported");
+        }
+
+        /* [73-80] Latitude and longitude of the southern pole of projection */
+        southPoleLat = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+        southPoleLon = in.readINT(4, Bytes2Number.INT_SM) / 1.0e6;
+
+        /* [81-84] Angle of rotation of projection */
+        rotationAngle = in.readFloat(4, Bytes2Number.FLOAT_IEEE754);
+
+        // Moving the South Pole to (southPoleLat, southPoleLon) is a rotation about the y-axis
+        double theta = Math.toRadians(90.0 + southPoleLat);
+        sinTheta = Math.sin(theta);
+        cosTheta = Math.cos(theta);
+    }
+
+    /**
+     * Converts a geographic location to the rotated coordinate system.
+     * @param latitude the geographic latitude (units: degrees)
+     * @param longitude the geographic longitude (units: degrees)
+     * @return the rotated latitude and longitude (units: degrees)
+     */
+    public double[] toRotated(double latitude, double longitude)
+    {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude - southPoleLon);
+        double x = Math.cos(lat) * Math.cos(lon);
+        double y = Math.cos(lat) * Math.sin(lon);
+        double z = Math.sin(lat);
+
+        double xr = cosTheta * x + sinTheta * z;
+        double zr = -sinTheta * x + cosTheta * z;
+        zr = Math.max(-1.0, Math.min(1.0, zr));
+
+        double rotatedLat = Math.toDegrees(Math.asin(zr));
+        double rotatedLon = normalizeLongitude(Math.toDegrees(Math.atan2(y, xr)) - rotationAngle);
+        return new double[] {rotatedLat, rotatedLon};
+    }
+
+    /**
+     * Converts a location in the rotated coordinate system to geographic coordinates.
+     * @param rotatedLat the rotated latitude (units: degrees)
+     * @param rotatedLon the rotated longitude (units: degrees)
+     * @return the geographic latitude and longitude (units: degrees)
+     */
+    public double[] toGeographic(double rotatedLat, double rotatedLon)
+    {
+        double lat = Math.toRadians(rotatedLat);
+        double lon = Math.toRadians(rotatedLon + rotationAngle);
+        double xr = Math.cos(lat) * Math.cos(lon);
+        double y = Math.cos(lat) * Math.sin(lon);
+        double zr = Math.sin(lat);
+
+        double x = cosTheta * xr - sinTheta * zr;
+        double z = sinTheta * xr + cosTheta * zr;
+        z = Math.max(-1.0, Math.min(1.0, z));
+
+        double latitude = Math.toDegrees(Math.asin(z));
+        double longitude = normalizeLongitude(Math.toDegrees(Math.atan2(y, x)) + southPoleLon);
+        return new double[] {latitude, longitude};
+    }
+
+    @Override
+    public int getNearestPointIndex(double latitude, double longitude)
+    {
+        double[] rotated = toRotated(latitude, longitude);
+        int j = (int) Math.round((rotated[0] - lat1) / gridDj);
+        double dLon = normalizeLongitude(rotated[1] - lon1);
+        if (gridDi > 0 && dLon < -gridDi / 2) dLon += 360.0;
+        if (gridDi < 0 && dLon > -gridDi / 2) dLon -= 360.0;
+        int i = (int) Math.round(dLon / gridDi);
+        if (i < 0 || i >= gridNi || j < 0 || j >= gridNj)
+        {
+            return -1;
+        }
+        return getDataIndex(i, j);
+    }
+
+    /**
+     * Returns the geographic coordinates of the grid points, in the order in
+     * which they are stored in the data section.
+     * @return longitude/latitude pairs (units: degrees)
+     */
+    @Override
+    protected double[][] getGridCoords()
+    {
+        double[][] coords = new double[gridNi * gridNj][2];
+        for (int j = 0; j < gridNj; j++)
+        {
+            for (int i = 0; i < gridNi; i++)
+            {
+                double[] latLon = toGeographic(lat1 + j * gridDj, lon1 + i * gridDi);
+                int k = getDataIndex(i, j);
+                coords[k][0] = latLon[1];
+                coords[k][1] = latLon[0];
+            }
+        }
+        return coords;
+    }
+}
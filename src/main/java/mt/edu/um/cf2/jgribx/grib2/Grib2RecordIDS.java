@@ -11,10 +11,8 @@
 package mt.edu.um.cf2.jgribx.grib2;
 
 import java.io.IOException;
-import java.util.Calendar;
-import java.util.GregorianCalendar;
-import java.util.TimeZone;
 import mt.edu.um.cf2.jgribx.GribInputStream;
+import mt.edu.um.cf2.jgribx.GribRecord;
 import mt.edu.um.cf2.jgribx.Logger;
 
 /**
@@ -23,7 +21,10 @@ import mt.edu.um.cf2.jgribx.Logger;
  */
 public class Grib2RecordIDS
 {
-    protected Calendar referenceTime;
+    /**
+     * Reference time (units: milliseconds since 1970-01-01T00:00:00Z)
+     */
+    protected long referenceTime;
     private int length;
     private int number;
     private int origCentreId;
@@ -77,8 +78,7 @@ public class Grib2RecordIDS
         /* [19] Second */
         int second = in.readUINT(1);
         
-        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
-        ids.referenceTime = new GregorianCalendar(year, month-1, day, hour, minute, second);
+        ids.referenceTime = GribRecord.toEpochMillis(year, month, day, hour, minute, second);
         
         /* Data Production Status */
         ids.dataProdStatus = in.readUINT(1);
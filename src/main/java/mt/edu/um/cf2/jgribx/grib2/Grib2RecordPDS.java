@@ -12,11 +12,15 @@ package mt.edu.um.cf2.jgribx.grib2;
 
 import mt.edu.um.cf2.jgribx.GribCodes;
 import mt.edu.um.cf2.jgribx.GribInputStream;
+import mt.edu.um.cf2.jgribx.GribRecord;
 import mt.edu.um.cf2.jgribx.Logger;
 import mt.edu.um.cf2.jgribx.NotSupportedException;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A class representing the product definition section (PDS) of a GRIB record.
@@ -46,6 +50,10 @@ public class Grib2RecordPDS
 
         public float[] getValues()
         {
+            if (isSingleLayer())
+            {
+                return new float[] {level1.getValue()};
+            }
             return new float[] {level1.getValue(), level2.getValue()};
         }
 
@@ -61,9 +69,9 @@ public class Grib2RecordPDS
         }
     }
     /**
-     * The time at which the forecast applies.
+     * The time at which the forecast applies (units: milliseconds since 1970-01-01T00:00:00Z).
      */
-    private Calendar forecastTime;
+    private long forecastTime;
     
     /**
      * Length in bytes of this PDS.
@@ -107,12 +115,12 @@ public class Grib2RecordPDS
      *
      * @param in bit input stream with PDS content
      * @param discipline
-     * @param referenceTime
+     * @param referenceTime the reference time (units: milliseconds since 1970-01-01T00:00:00Z)
      *
      * @throws IOException if stream can not be opened etc.
      * @throws NotSupportedException
      */
-    public Grib2RecordPDS(GribInputStream in, ProductDiscipline discipline, Calendar referenceTime) throws NotSupportedException, IOException
+    public Grib2RecordPDS(GribInputStream in, ProductDiscipline discipline, long referenceTime) throws NotSupportedException, IOException
     {
         /* [1-4] Section Length */
         length = in.readUINT(4);
@@ -142,9 +150,6 @@ public class Grib2RecordPDS
                 /* [11] Parameter number */
                 paramNumber = in.readUINT(1);
                 
-                if (!Grib2Parameter.isDefaultLoaded())
-                    Grib2Parameter.loadDefaultParameters();
-                
                 parameter = Grib2Parameter.getParameter(discipline, paramCategory, paramNumber);
                 if (parameter == null)
                 {
@@ -173,56 +178,55 @@ public class Grib2RecordPDS
                 /* [19-22] Forecast time in units defined in octet 18 */
                 int forecastTimeAhead = in.readUINT(4);
                 
-                forecastTime = (Calendar) referenceTime.clone();
                 switch (timeRangeUnitIndicator)
                 {
                     case 0:
                         // Minute
-                        forecastTime.add(Calendar.MINUTE, forecastTimeAhead);
+                        forecastTime = referenceTime + TimeUnit.MINUTES.toMillis(forecastTimeAhead);
                         break;
                     case 1:
                         // Hour
-                        forecastTime.add(Calendar.HOUR_OF_DAY, forecastTimeAhead);
+                        forecastTime = referenceTime + TimeUnit.HOURS.toMillis(forecastTimeAhead);
                         break;
                     case 2:
                         // Day
-                        forecastTime.add(Calendar.DAY_OF_MONTH, forecastTimeAhead);
+                        forecastTime = referenceTime + TimeUnit.DAYS.toMillis(forecastTimeAhead);
                         break;
                     case 3:
                         // Month
-                        forecastTime.add(Calendar.MONTH, forecastTimeAhead);
+                        forecastTime = addMonths(referenceTime, forecastTimeAhead);
                         break;
                     case 4:
                         // Year
-                        forecastTime.add(Calendar.YEAR, forecastTimeAhead);
+                        forecastTime = addMonths(referenceTime, forecastTimeAhead * 12L);
                         break;
                     case 5:
                         // Decade
-                        forecastTime.add(Calendar.YEAR, forecastTimeAhead*10);
+                        forecastTime = addMonths(referenceTime, forecastTimeAhead * 120L);
                         break;
                     case 6:
                         // Normal (30 years)
-                        forecastTime.add(Calendar.YEAR, forecastTimeAhead*30);
+                        forecastTime = addMonths(referenceTime, forecastTimeAhead * 360L);
                         break;
                     case 7:
                         // Century
-                        forecastTime.add(Calendar.YEAR, forecastTimeAhead*100);
+                        forecastTime = addMonths(referenceTime, forecastTimeAhead * 1200L);
                         break;
                     case 10:
                         // 3 Hours
-                        forecastTime.add(Calendar.HOUR_OF_DAY, forecastTimeAhead*3);
+                        forecastTime = referenceTime + TimeUnit.HOURS.toMillis(forecastTimeAhead * 3L);
                         break;
                     case 11:
                         // 6 Hours
-                        forecastTime.add(Calendar.HOUR_OF_DAY, forecastTimeAhead*6);
+                        forecastTime = referenceTime + TimeUnit.HOURS.toMillis(forecastTimeAhead * 6L);
                         break;
                     case 12:
                         // 12 Hours
-                        forecastTime.add(Calendar.HOUR_OF_DAY, forecastTimeAhead*12);
+                        forecastTime = referenceTime + TimeUnit.HOURS.toMillis(forecastTimeAhead * 12L);
                         break;
                     case 13:
                         // Second
-                        forecastTime.add(Calendar.SECOND, forecastTimeAhead);
+                        forecastTime = referenceTime + TimeUnit.SECONDS.toMillis(forecastTimeAhead);
                         break;
                     default:
                         throw new NotSupportedException("Time range " + timeRangeUnitIndicator + " is not supported yet");
@@ -272,12 +276,31 @@ public class Grib2RecordPDS
     
     /**
      * Returns the forecast time.
-     * @return 
+     * @return a new UTC calendar holding the forecast time
      */
     public Calendar getForecastTime()
+    {
+        return GribRecord.toCalendar(forecastTime);
+    }
+
+    /**
+     * Returns the forecast time.
+     * @return the forecast time (units: milliseconds since 1970-01-01T00:00:00Z)
+     */
+    public long getForecastTimeMillis()
     {
         return forecastTime;
     }
+
+    /**
+     * Adds a number of calendar months to a UTC time.
+     */
+    private static long addMonths(long millis, long months)
+    {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1000000, ZoneOffset.UTC)
+                .plusMonths(months)
+                .toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
     
     public String getGeneratingProcessType()
     {
@@ -89,7 +89,7 @@ public abstract class ParameterCategory
             List<ParameterCategory> list = new ArrayList<>();
             for (Integer key : entries.keySet())
             {
-                Logger.println("Adding Meteorological category: " + key, Logger.DEBUG);
+                Logger.println(Logger.DEBUG, "Adding Meteorological category: %d", key);
                 list.add(new ParameterCategory.Meteorological(key));
             }
             return list;
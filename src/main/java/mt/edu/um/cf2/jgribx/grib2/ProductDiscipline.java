@@ -25,6 +25,11 @@ public class ProductDiscipline
         categories = ParameterCategory.getCategories(discipline);
     }
 
+    public int getValue()
+    {
+        return value;
+    }
+
     public List<ParameterCategory> getParameterCategories()
     {
         return categories;
@@ -50,6 +55,12 @@ public class ProductDiscipline
         return value == ((ProductDiscipline) obj).value;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return value;
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,91 @@
+package mt.edu.um.cf2.jgribx;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import mt.edu.um.cf2.jgribx.grib1.Grib1Parameter;
+import mt.edu.um.cf2.jgribx.grib2.Grib2Parameter;
+import mt.edu.um.cf2.jgribx.grib2.ProductDiscipline;
+
+/**
+ * Measures the time taken by a fresh JVM to load the parameter tables and open
+ * its first GRIB file, with and without the precompiled table bundle.
+ * <p>
+ * Each run is made in a new JVM, so that class initialisation and table loading
+ * are included. Run with {@code gradlew coldStartBenchmark}, optionally passing
+ * the GRIB files to open with {@code --args}.
+ * </p>
+ */
+public class ColdStartBenchmark
+{
+    private static final int RUNS = 15;
+
+    public static void main(String[] args) throws Exception
+    {
+        long[] text = new long[RUNS];
+        long[] bundle = new long[RUNS];
+        for (int i = 0; i < RUNS; i++)
+        {
+            // Alternate between modes so that both see the same disk cache state
+            text[i] = runProbe(true, args);
+            bundle[i] = runProbe(false, args);
+        }
+        Arrays.sort(text);
+        Arrays.sort(bundle);
+        System.out.printf("Text tables:  median %.2f ms, min %.2f ms%n", text[RUNS / 2] / 1e6, text[0] / 1e6);
+        System.out.printf("Table bundle: median %.2f ms, min %.2f ms%n", bundle[RUNS / 2] / 1e6, bundle[0] / 1e6);
+    }
+
+    private static long runProbe(boolean disableBundle, String[] files) throws Exception
+    {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-D" + GribTableBundle.DISABLE_PROPERTY + "=" + disableBundle);
+        command.add(Probe.class.getName());
+        command.addAll(Arrays.asList(files));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream())))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                result = line;
+            }
+        }
+        if (process.waitFor() != 0 || result == null)
+        {
+            throw new IllegalStateException("Probe failed: " + result);
+        }
+        return Long.parseLong(result.trim());
+    }
+
+    /**
+     * Loads the tables and opens the given files, then prints the elapsed time
+     * in nanoseconds as the last line of output.
+     */
+    public static class Probe
+    {
+        public static void main(String[] args) throws Exception
+        {
+            Logger.setLoggingMode(Logger.LoggingMode.CONSOLE);
+            Logger.setLevel(Logger.FATAL);
+
+            long start = System.nanoTime();
+            Grib1Parameter.getParameter(2, 11, 7);
+            Grib2Parameter.getParameter(ProductDiscipline.getValues().get(0), 0, 0);
+            for (String file : args)
+            {
+                new GribFile(file);
+            }
+            System.out.println(System.nanoTime() - start);
+        }
+    }
+}
@@ -8,14 +8,33 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.Random;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import mt.edu.um.cf2.jgribx.grib1.Grib1Parameter;
+import mt.edu.um.cf2.jgribx.grib1.Grib1RecordGDS;
+import mt.edu.um.cf2.jgribx.grib1.GribGDSLambert;
+import mt.edu.um.cf2.jgribx.grib1.GribGDSPolarStereo;
+import mt.edu.um.cf2.jgribx.grib1.GribPDSParamTable;
+import mt.edu.um.cf2.jgribx.grib2.Grib2Parameter;
+import mt.edu.um.cf2.jgribx.grib2.Grib2Record;
+import mt.edu.um.cf2.jgribx.grib2.Grib2RecordGDS;
+import mt.edu.um.cf2.jgribx.grib2.Grib2RecordGDSGaussian;
+import mt.edu.um.cf2.jgribx.grib2.Grib2RecordGDSProjected;
+import mt.edu.um.cf2.jgribx.grib2.Grib2RecordGDSRotatedLatLon;
+import mt.edu.um.cf2.jgribx.grib2.ProductDiscipline;
+
 import static org.junit.Assert.*;
 
 public class GribTest
@@ -150,7 +169,10 @@ public class GribTest
         final int[] WEATHER_CENTRES = {7};
         final int[] GENERATING_PROCESSES = {81};
         List<Calendar> refTimes = new ArrayList<Calendar>();
-        refTimes.add(new GregorianCalendar(2017, Calendar.MAY, 12, 0, 0, 0));
+        Calendar refTime = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        refTime.clear();
+        refTime.set(2017, Calendar.MAY, 12, 0, 0, 0);
+        refTimes.add(refTime);
 
         URL url = GribTest.class.getResource(FILENAME);
         GribFile file = new GribFile(url.openStream());
@@ -162,6 +184,22 @@ public class GribTest
         assertEquals("Records read successfully", N_RECORDS_EXPECTED, file.getRecordCount());
     }
 
+    @Test
+    public void testGrib2GdsShared() throws IOException, NoValidGribException, NotSupportedException
+    {
+        final String FILENAME = "/gfsanl_3_20170512_0000_000.grb2";
+
+        URL url = GribTest.class.getResource(FILENAME);
+        GribFile file = new GribFile(url.openStream());
+
+        // All records in this file are defined on the same grid
+        Object gds = ((Grib2Record) file.getRecords().get(0)).getGDS().get(0);
+        for (GribRecord record : file.getRecords())
+        {
+            assertSame("GDS instance", gds, ((Grib2Record) record).getGDS().get(0));
+        }
+    }
+
     @Test
     public void testGrib2QuasiRegularGrid() throws IOException, NoValidGribException, NotSupportedException
     {
@@ -207,6 +245,1316 @@ public class GribTest
         }
     }
 
+    @Test
+    public void testGridIndexNearest()
+    {
+        // Compare nearest-point lookups against a brute-force search over a scattered grid
+        Random random = new Random(1);
+        double[] lons = new double[5000];
+        double[] lats = new double[lons.length];
+        for (int i = 0; i < lons.length; i++)
+        {
+            lons[i] = random.nextDouble() * 360 - 180;
+            lats[i] = Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1));
+        }
+        GribGridIndex index = new GribGridIndex(lons, lats);
+
+        for (int k = 0; k < 1000; k++)
+        {
+            double lon = random.nextDouble() * 360 - 180;
+            double lat = random.nextDouble() * 180 - 90;
+            int expected = 0;
+            double minDist = Double.MAX_VALUE;
+            for (int i = 0; i < lons.length; i++)
+            {
+                double dist = getGreatCircleDistance(lat, lon, lats[i], lons[i]);
+                if (dist < minDist)
+                {
+                    minDist = dist;
+                    expected = i;
+                }
+            }
+            assertEquals("Nearest point to " + lat + "," + lon, expected, index.nearest(lat, lon));
+        }
+    }
+
+    @Test
+    public void testGrib1LambertProjection() throws IOException, NoValidGribException, NotSupportedException
+    {
+        // NCEP grid 218 (12 km Lambert conformal, as used by NAM)
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeInt(out, 42, 3, false);                // length
+        out.write(0); out.write(255); out.write(3); // NV, PV, data representation type
+        writeInt(out, 614, 2, false);               // Nx
+        writeInt(out, 428, 2, false);               // Ny
+        writeInt(out, 12190, 3, true);              // La1
+        writeInt(out, -133459, 3, true);            // Lo1
+        out.write(8);                               // resolution and component flags
+        writeInt(out, 265000, 3, true);             // LoV
+        writeInt(out, 12191, 3, true);              // Dx
+        writeInt(out, 12191, 3, false);             // Dy
+        out.write(0);                               // projection centre flag
+        out.write(64);                              // scanning mode
+        writeInt(out, 25000, 3, true);              // Latin1
+        writeInt(out, 25000, 3, true);              // Latin2
+        writeInt(out, -90000, 3, true);             // latitude of southern pole
+        writeInt(out, 0, 3, true);                  // longitude of southern pole
+        out.write(0); out.write(0);                 // reserved
+
+        GribInputStream in = new GribInputStream(new ByteArrayInputStream(out.toByteArray()));
+        GribGDSLambert gds = (GribGDSLambert) Grib1RecordGDS.readFromStream(in);
+
+        double[] ij = gds.getGridIJ(12.190, -133.459);
+        assertEquals("First point i", 0, ij[0], 0.01);
+        assertEquals("First point j", 0, ij[1], 0.01);
+        // NCEP defines this grid on a sphere of radius 6371.2 km rather than 6367.47 km, hence the tolerance
+        ij = gds.getGridIJ(57.328, -49.420);
+        assertEquals("Last point i", 613, ij[0], 0.5);
+        assertEquals("Last point j", 427, ij[1], 0.5);
+        assertEquals("Last point index", 614 * 428 - 1, gds.getNearestPointIndex(57.328, -49.420));
+        assertEquals("Point outside grid", -1, gds.getNearestPointIndex(-30, 0));
+
+        double[] latLon = gds.getLatLon(300.25, 200.75);
+        ij = gds.getGridIJ(latLon[0], latLon[1]);
+        assertEquals("Round trip i", 300.25, ij[0], 1e-6);
+        assertEquals("Round trip j", 200.75, ij[1], 1e-6);
+    }
+
+    @Test
+    public void testGrib1PolarStereoProjection() throws IOException, NoValidGribException, NotSupportedException
+    {
+        // NCEP grid 104 (polar stereographic, 90.755 km at 60N)
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeInt(out, 32, 3, false);                // length
+        out.write(0); out.write(255); out.write(5); // NV, PV, data representation type
+        writeInt(out, 147, 2, false);               // Nx
+        writeInt(out, 110, 2, false);               // Ny
+        writeInt(out, -268, 3, true);               // La1
+        writeInt(out, -139475, 3, true);            // Lo1
+        out.write(8);                               // resolution and component flags
+        writeInt(out, 255000, 3, true);             // LoV
+        writeInt(out, 90755, 3, true);              // Dx
+        writeInt(out, 90755, 3, false);             // Dy
+        out.write(0);                               // projection centre flag
+        out.write(64);                              // scanning mode
+        out.write(new byte[4]);                     // reserved
+
+        GribInputStream in = new GribInputStream(new ByteArrayInputStream(out.toByteArray()));
+        GribGDSPolarStereo gds = (GribGDSPolarStereo) Grib1RecordGDS.readFromStream(in);
+
+        double[] latLon = gds.getLatLon(0, 0);
+        assertEquals("First point latitude", -0.268, latLon[0], 1e-6);
+        assertEquals("First point longitude", -139.475, latLon[1], 1e-6);
+
+        // Grid lengths are true at 60N
+        double[] ij = gds.getGridIJ(60, -105);
+        double[] next = gds.getLatLon(ij[0] + 1, ij[1]);
+        double distance = getGreatCircleDistance(60, -105, next[0], next[1]) * 6367470;
+        assertEquals("Grid length at 60N", 90755, distance, 50);
+
+        double[] coords = gds.getGridCoords();
+        int index = gds.getNearestPointIndex(coords[2 * 5000 + 1], coords[2 * 5000]);
+        assertEquals("Index of grid point", 5000, index);
+        assertEquals("Spatial index agrees", index, gds.getGridIndex().nearest(coords[2 * 5000 + 1], coords[2 * 5000]));
+    }
+
+    @Test
+    public void testGrib1LatLonNearestPoint() throws IOException, NoValidGribException, NotSupportedException
+    {
+        // NCEP grid 2 (global 2.5 degree lat/lon grid, scanning southwards)
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeInt(out, 32, 3, false);                // length
+        out.write(0); out.write(255); out.write(0); // NV, PV, data representation type
+        writeInt(out, 144, 2, false);               // Ni
+        writeInt(out, 73, 2, false);                // Nj
+        writeInt(out, 90000, 3, true);              // La1
+        writeInt(out, 0, 3, true);                  // Lo1
+        out.write(128);                             // resolution and component flags
+        writeInt(out, -90000, 3, true);             // La2
+        writeInt(out, 357500, 3, true);             // Lo2
+        writeInt(out, 2500, 2, false);              // Di
+        writeInt(out, 2500, 2, false);              // Dj
+        out.write(0);                               // scanning mode
+        out.write(new byte[4]);                     // reserved
+
+        GribInputStream in = new GribInputStream(new ByteArrayInputStream(out.toByteArray()));
+        Grib1RecordGDS gds = Grib1RecordGDS.readFromStream(in);
+
+        assertEquals("First point", 0, gds.getNearestPointIndex(90, 0));
+        assertEquals("Last point", 144 * 73 - 1, gds.getNearestPointIndex(-90, 357.5));
+        assertEquals("Negative longitude", 144 * 36 + 143, gds.getNearestPointIndex(0, -2.5));
+        assertEquals("Across the date line", 144 * 36, gds.getNearestPointIndex(0, 359));
+        assertEquals("Longitude above 360", 144 * 36 + 4, gds.getNearestPointIndex(0, 370));
+        assertEquals("Point outside grid", -1, gds.getNearestPointIndex(91.5, 0));
+        assertEquals("Point outside grid", -1, gds.getNearestPointIndex(-92, 0));
+    }
+
+    @Test
+    public void testGrib2LambertProjection() throws IOException, NotSupportedException
+    {
+        // 3 km Lambert conformal grid used by HRRR
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeGrib2GdsHeader(out, 81, 1799 * 1059, 30);
+        out.write(6);                               // shape of the Earth (sphere of radius 6371229 m)
+        out.write(new byte[15]);                    // radius and axes
+        writeInt(out, 1799, 4, false);              // Nx
+        writeInt(out, 1059, 4, false);              // Ny
+        writeInt(out, 21138123, 4, true);           // La1
+        writeInt(out, 237280472, 4, true);          // Lo1
+        out.write(0);                               // resolution and component flags
+        writeInt(out, 38500000, 4, true);           // LaD
+        writeInt(out, 262500000, 4, true);          // LoV
+        writeInt(out, 3000000, 4, false);           // Dx
+        writeInt(out, 3000000, 4, false);           // Dy
+        out.write(0);                               // projection centre flag
+        out.write(64);                              // scanning mode
+        writeInt(out, 38500000, 4, true);           // Latin1
+        writeInt(out, 38500000, 4, true);           // Latin2
+        writeInt(out, -90000000, 4, true);          // latitude of southern pole
+        writeInt(out, 0, 4, true);                  // longitude of southern pole
+
+        GribInputStream in = new GribInputStream(new ByteArrayInputStream(out.toByteArray()));
+        Grib2RecordGDSProjected gds = (Grib2RecordGDSProjected) Grib2RecordGDS.readFromStream(in);
+
+        double[] ij = gds.getGridIJ(21.138123, 237.280472);
+        assertEquals("First point i", 0, ij[0], 1e-6);
+        assertEquals("First point j", 0, ij[1], 1e-6);
+        ij = gds.getGridIJ(47.842195, 299.083019);
+        assertEquals("Last point i", 1798, ij[0], 0.01);
+        assertEquals("Last point j", 1058, ij[1], 0.01);
+        assertEquals("Last point index", 1799 * 1059 - 1, gds.getNearestPointIndex(47.842195, -60.916981));
+        assertEquals("Point outside grid", -1, gds.getNearestPointIndex(-30, 0));
+
+        double[] latLon = gds.getLatLon(900.25, 500.75);
+        ij = gds.getGridIJ(latLon[0], latLon[1]);
+        assertEquals("Round trip i", 900.25, ij[0], 1e-6);
+        assertEquals("Round trip j", 500.75, ij[1], 1e-6);
+
+        // Grid lengths given at 60N rather than at the standard parallels
+        out = new ByteArrayOutputStream();
+        writeGrib2GdsHeader(out, 81, 100 * 100, 30);
+        out.write(6);                               // shape of the Earth (sphere of radius 6371229 m)
+        out.write(new byte[15]);                    // radius and axes
+        writeInt(out, 100, 4, false);               // Nx
+        writeInt(out, 100, 4, false);               // Ny
+        writeInt(out, 50000000, 4, true);           // La1
+        writeInt(out, 250000000, 4, true);          // Lo1
+        out.write(0);                               // resolution and component flags
+        writeInt(out, 60000000, 4, true);           // LaD
+        writeInt(out, 265000000, 4, true);          // LoV
+        writeInt(out, 10000000, 4, false);          // Dx
+        writeInt(out, 10000000, 4, false);          // Dy
+        out.write(0);                               // projection centre flag
+        out.write(64);                              // scanning mode
+        writeInt(out, 30000000, 4, true);           // Latin1
+        writeInt(out, 45000000, 4, true);           // Latin2
+        writeInt(out, -90000000, 4, true);          // latitude of southern pole
+        writeInt(out, 0, 4, true);                  // longitude of southern pole
+
+        in = new GribInputStream(new ByteArrayInputStream(out.toByteArray()));
+        gds = (Grib2RecordGDSProjected) Grib2RecordGDS.readFromStream(in);
+        ij = gds.getGridIJ(60, 265);
+        latLon = gds.getLatLon(ij[0] + 1, ij[1]);
+        double distance = getGreatCircleDistance(60, 265, latLon[0], latLon[1]) * 6371229;
+        assertEquals("Grid length at LaD", 10000, distance, 1);
+    }
+
+    @Test
+    public void testGrib2RotatedLatLon() throws IOException, NotSupportedException
+    {
+        // Rotated grid with the southern pole at 40S 10E, i.e. centred on 50N 10E
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeGrib2GdsHeader(out, 84, 100 * 80, 1);
+        out.write(6);                               // shape of the Earth
+        out.write(new byte[15]);                    // radius and axes
+        writeInt(out, 100, 4, false);               // Ni
+        writeInt(out, 80, 4, false);                // Nj
+        writeInt(out, 0, 4, false);                 // basic angle
+        writeInt(out, 0, 4, false);                 // subdivisions of basic angle
+        writeInt(out, -5000000, 4, true);           // La1
+        writeInt(out, -5000000, 4, true);           // Lo1
+        out.write(0x30);                            // resolution and component flags
+        writeInt(out, 2900000, 4, true);            // La2
+        writeInt(out, 4900000, 4, true);            // Lo2
+        writeInt(out, 100000, 4, false);            // Di
+        writeInt(out, 100000, 4, false);            // Dj
+        out.write(64);                              // scanning mode
+        writeInt(out, -40000000, 4, true);          // latitude of southern pole
+        writeInt(out, 10000000, 4, true);           // longitude of southern pole
+        writeInt(out, 0, 4, false);                 // angle of rotation
+
+        GribInputStream in = new GribInputStream(new ByteArrayInputStream(out.toByteArray()));
+        Grib2RecordGDSRotatedLatLon gds = (Grib2RecordGDSRotatedLatLon) Grib2RecordGDS.readFromStream(in);
+
+        double[] latLon = gds.toGeographic(0, 0);
+        assertEquals("Centre latitude", 50, latLon[0], 1e-9);
+        assertEquals("Centre longitude", 10, latLon[1], 1e-9);
+        assertEquals("Southern pole", -90, gds.toRotated(-40, 10)[0], 1e-9);
+
+        double[] rotated = gds.toRotated(48.2, 16.37);
+        latLon = gds.toGeographic(rotated[0], rotated[1]);
+        assertEquals("Round trip latitude", 48.2, latLon[0], 1e-9);
+        assertEquals("Round trip longitude", 16.37, latLon[1], 1e-9);
+
+        // Grid point 1234 lies at i = 34, j = 12
+        latLon = gds.toGeographic(-5 + 12 * 0.1, -5 + 34 * 0.1);
+        assertEquals("Index of grid point", 1234, gds.getNearestPointIndex(latLon[0], latLon[1]));
+        assertEquals("Point outside grid", -1, gds.getNearestPointIndex(0, 0));
+    }
+
+    @Test
+    public void testGrib2ReducedGaussianGrid() throws IOException, NotSupportedException
+    {
+        double[] latitudes = Grib2RecordGDSGaussian.getGaussianLatitudes(80);
+        assertEquals("Number of Gaussian latitudes", 160, latitudes.length);
+        assertEquals("First Gaussian latitude (N=80)", 89.141519426, latitudes[0], 1e-8);
+        assertEquals("Last Gaussian latitude (N=80)", -89.141519426, latitudes[159], 1e-8);
+
+        Grib2RecordGDSGaussian gds = readReducedGaussianGds();
+        assertTrue("Reduced grid", gds.isReduced());
+        assertEquals("Point in third row", 4 + 8 + 2, gds.getNearestPointIndex(-15, 100));
+        assertEquals("Point wrapping around", 4 + 8, gds.getNearestPointIndex(-15, 350));
+        assertEquals("Point near the pole", 4 + 8 + 8 + 1, gds.getNearestPointIndex(-90, 80));
+        assertEquals("Spatial index agrees", 4 + 8 + 2, gds.getGridIndex().nearest(-15, 100));
+    }
+
+    @Test
+    public void testGrib2ReducedGridExpansion() throws IOException, NotSupportedException
+    {
+        Grib2RecordGDSGaussian gds = readReducedGaussianGds();
+        assertEquals("Offset of last row", 4 + 8 + 8, gds.getRowOffset(3));
+        assertEquals("Longest row", 8, gds.getMaxRowSize());
+
+        float[] values = new float[24];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = i;
+        }
+        float[] expanded = gds.expandToRegularGrid(values);
+        assertEquals("Number of expanded values", 4 * 8, expanded.length);
+        float[] firstRow = {0, 0.5f, 1, 1.5f, 2, 2.5f, 3, 1.5f};
+        for (int i = 0; i < 8; i++)
+        {
+            assertEquals("Interpolated value " + i, firstRow[i], expanded[i], 1e-6);
+            assertEquals("Unchanged value " + i, values[4 + i], expanded[8 + i], 1e-6);
+        }
+    }
+
+    private static Grib2RecordGDSGaussian readReducedGaussianGds() throws IOException, NotSupportedException
+    {
+        // Global reduced Gaussian grid with N=2 and 4, 8, 8 and 4 points along each row
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeInt(out, 76, 4, false);                // length
+        out.write(3);                               // section number
+        out.write(0);                               // grid definition source
+        writeInt(out, 24, 4, false);                // number of data points
+        out.write(1); out.write(1);                 // optional list of numbers of points
+        writeInt(out, 40, 2, false);                // grid definition template number
+        out.write(6);                               // shape of the Earth
+        out.write(new byte[15]);                    // radius and axes
+        out.write(new byte[] {-1, -1, -1, -1});     // Ni (missing)
+        writeInt(out, 4, 4, false);                 // Nj
+        writeInt(out, 0, 4, false);                 // basic angle
+        writeInt(out, 0, 4, false);                 // subdivisions of basic angle
+        writeInt(out, 59444393, 4, true);           // La1
+        writeInt(out, 0, 4, true);                  // Lo1
+        out.write(0);                               // resolution and component flags
+        writeInt(out, -59444393, 4, true);          // La2
+        writeInt(out, 315000000, 4, true);          // Lo2
+        out.write(new byte[] {-1, -1, -1, -1});     // Di (missing)
+        writeInt(out, 2, 4, false);                 // N
+        out.write(0);                               // scanning mode
+        out.write(new byte[] {4, 8, 8, 4});         // number of points along each row
+
+        GribInputStream in = new GribInputStream(new ByteArrayInputStream(out.toByteArray()));
+        return (Grib2RecordGDSGaussian) Grib2RecordGDS.readFromStream(in);
+    }
+
+    @Test
+    public void testGribDatasetTimeSeries() throws IOException, NoValidGribException, NotSupportedException
+    {
+        File directory = createGrib2Dataset();
+        try (GribDataset dataset = new GribDataset(directory, "forecast_*.grb2"))
+        {
+            assertEquals("Number of files", 3, dataset.getFiles().size());
+            assertEquals("Number of records", 6, dataset.getRecordCount());
+            assertEquals("Number of forecast times", 3, dataset.getForecastTimes().size());
+
+            List<GribDataset.Entry> entries = dataset.getEntries("TMP", "ISBL:850");
+            assertEquals("Number of matching records", 3, entries.size());
+            for (int i = 0; i < entries.size(); i++)
+            {
+                assertEquals("Forecast time " + i, 3 * i,
+                        TimeUnit.MILLISECONDS.toHours(entries.get(i).getForecastTimeMillis()
+                                - entries.get(i).getReferenceTimeMillis()));
+            }
+
+            assertEquals("Records at any pressure", 3, dataset.getEntries("TMP", "ISBL").size());
+            assertTrue("Records at 700 hPa", dataset.getEntries("TMP", "ISBL:700").isEmpty());
+            assertTrue("Unknown parameter", dataset.getEntries("UGRD", "ISBL:850").isEmpty());
+            assertEquals("Parameters", Arrays.asList("TMP"), dataset.getParameterCodes());
+
+            GribRecord record = dataset.getRecord(entries.get(2));
+            assertEquals("Decoded value", 250 + 6 + 4, record.getValue(11, 21), 1e-3);
+
+            GribTimeSeries[] series = dataset.extractTimeSeries("TMP", "ISBL:850",
+                    new double[] {11, 45}, new double[] {21, 21});
+            assertEquals("Time series length", 3, series[0].size());
+            for (int i = 0; i < series[0].size(); i++)
+            {
+                assertEquals("Time step " + i, TimeUnit.HOURS.toMillis(3 * i),
+                        series[0].getTime(i) - series[0].getTime(0));
+                assertEquals("Time series value " + i, 250 + 3 * i + 4, series[0].getValue(i), 1e-3);
+                assertTrue("Value outside grid", Float.isNaN(series[1].getValue(i)));
+            }
+            series[0].getTimes()[0] = 0;
+            series[0].getValues()[0] = 0;
+            assertTrue("Time copies", series[0].getTime(0) != 0 && series[1].getTime(0) != 0);
+            assertEquals("Value copies", 250 + 4, series[0].getValue(0), 1e-3);
+        }
+        finally
+        {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    public void testLoggerLazyMessages()
+    {
+        try
+        {
+            JGribX.setLoggingLevel(Logger.WARNING);
+            assertTrue("Warnings enabled", Logger.isEnabled(Logger.WARNING));
+            assertFalse("Debug disabled", Logger.isEnabled(Logger.DEBUG));
+            Logger.println(() -> { throw new AssertionError("Message built for disabled level"); }, Logger.DEBUG);
+
+            Logger.setLoggingMode(Logger.LoggingMode.OFF);
+            assertFalse("Logging off", Logger.isEnabled(Logger.FATAL));
+        }
+        finally
+        {
+            Logger.setLoggingMode(Logger.LoggingMode.CONSOLE);
+            JGribX.setLoggingLevel(Logger.DEBUG);
+        }
+    }
+
+    @Test
+    public void testGrib1ParameterLookup() throws IOException
+    {
+        Grib1Parameter temperature = Grib1Parameter.getParameter(2, 11, 7);
+        assertEquals("Temperature", "TMP", temperature.getAbbreviation());
+        assertEquals("Parameter number", 11, temperature.getNumber());
+        assertSame("Shared parameter", temperature, Grib1Parameter.getParameter(3, 11, 98));
+        assertNull("Centre-specific parameter", Grib1Parameter.getParameter(2, 130, 98));
+        assertEquals("NCEP parameter", "MSLET", Grib1Parameter.getParameter(2, 130, 7).getAbbreviation());
+
+        Grib1Parameter land = GribPDSParamTable.getParameterFromFile(7, 0, 2, 81);
+        assertEquals("Description containing commas", "Land cover (land=1, sea=0) (see note)", land.getDescription());
+        assertEquals("Units", "proportion", land.getUnits());
+
+        GribPDSParamTable.registerParameterTable(250, 0, 1,
+                new ByteArrayInputStream("001,Custom parameter,m,CUST\n".getBytes("UTF-8")));
+        assertEquals("User-supplied table", "CUST", GribPDSParamTable.getParameterFromFile(250, 0, 1, 1).getAbbreviation());
+    }
+
+    @Test
+    public void testGribTableBundle() throws IOException
+    {
+        String[] names = {"grib1-table2.gpt", "7_0_2.gpt", "METEOROLOGICAL-TEMPERATURE.txt", "OCEANOGRAPHIC-ICE.txt"};
+        for (String name : names)
+        {
+            GribTableBundle.Table bundled = GribTableBundle.getTable(name);
+            assertNotNull("Bundled table " + name, bundled);
+            try (InputStream in = GribTest.class.getResourceAsStream("/" + name))
+            {
+                assertEquals("Bundled table " + name, GribTableBundle.readTextTable(name, in), bundled);
+            }
+        }
+        assertNull("Unknown table", GribTableBundle.getTable("unknown.gpt"));
+    }
+
+    @Test
+    public void testGrib2ParameterLookup()
+    {
+        ProductDiscipline meteorological = new ProductDiscipline(0);
+        Grib2Parameter temperature = Grib2Parameter.getParameter(meteorological, 0, 0);
+        assertEquals("Temperature", "TMP", temperature.getCode());
+        assertSame("Shared parameter", temperature, Grib2Parameter.getParameter(meteorological, 0, 0));
+        assertNull("Unknown parameter", Grib2Parameter.getParameter(meteorological, 0, 254));
+    }
+
+    @Test
+    public void testEpochTimes() throws IOException, NoValidGribException, NotSupportedException
+    {
+        Calendar referenceTime = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        referenceTime.clear();
+        referenceTime.set(2020, Calendar.DECEMBER, 31, 0, 0, 0);
+        assertEquals("Epoch time", referenceTime.getTimeInMillis(), GribRecord.toEpochMillis(2020, 12, 31, 0, 0, 0));
+        assertEquals("Lenient epoch time", referenceTime.getTimeInMillis() + TimeUnit.HOURS.toMillis(30),
+                GribRecord.toEpochMillis(2020, 12, 31, 30, 0, 0));
+
+        byte[] octets = createGrib2Record(referenceTime, 6, 850, 250);
+        GribRecord record = GribRecord.readFromStream(new GribInputStream(new ByteArrayInputStream(octets)));
+        assertEquals("Reference time", referenceTime.getTimeInMillis(), record.getReferenceTimeMillis());
+        assertEquals("Forecast time", referenceTime.getTimeInMillis() + TimeUnit.HOURS.toMillis(6),
+                record.getForecastTimeMillis());
+        assertEquals("Forecast calendar", record.getForecastTimeMillis(), record.getForecastTime().getTimeInMillis());
+        assertNotSame("Calendar copies", record.getForecastTime(), record.getForecastTime());
+
+        GribRecord header = GribRecord.readFromStream(new GribInputStream(new ByteArrayInputStream(octets)), false);
+        assertEquals("Header forecast time", record.getForecastTimeMillis(), header.getForecastTimeMillis());
+        assertNull("Header values", header.getValues());
+        IllegalStateException error = null;
+        try
+        {
+            header.getValue(11, 21);
+        }
+        catch (IllegalStateException e)
+        {
+            error = e;
+        }
+        assertTrue("Header value", error != null);
+    }
+
+    @Test
+    public void testGribFieldCache() throws IOException, NoValidGribException, NotSupportedException
+    {
+        GribFieldCache cache = GribFieldCache.getInstance();
+        long maxBytes = cache.getMaxBytes();
+        File directory = createGrib2Dataset();
+        try (GribDataset dataset = new GribDataset(directory, "forecast_*.grb2"))
+        {
+            cache.clear();
+            List<GribDataset.Entry> entries = dataset.getEntries();
+            GribRecord record = dataset.getRecord(entries.get(0));
+            assertSame("Cached record", record, dataset.getRecord(entries.get(0)));
+            assertEquals("Hits", 1, cache.getHitCount());
+            assertEquals("Misses", 1, cache.getMissCount());
+            assertEquals("Size", 6 * 4, cache.getSize());
+
+            // Room for two fields only
+            cache.setMaxBytes(2 * 6 * 4);
+            dataset.getRecord(entries.get(1));
+            dataset.getRecord(entries.get(2));
+            assertEquals("Records", 2, cache.getRecordCount());
+            assertEquals("Evictions", 1, cache.getEvictionCount());
+            assertNotSame("Evicted record", record, dataset.getRecord(entries.get(0)));
+        }
+        finally
+        {
+            cache.setMaxBytes(maxBytes);
+            cache.clear();
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    public void testGribSectionCache()
+    {
+        GribSectionCache<String> cache = new GribSectionCache<>(2);
+        assertEquals("Interned", "a", cache.intern(new byte[] {1}, "a"));
+        assertEquals("Existing section", "a", cache.intern(new byte[] {1}, "a2"));
+        cache.intern(new byte[] {2}, "b");
+        cache.get(new byte[] {1});
+        cache.intern(new byte[] {3}, "c");
+        assertEquals("Size", 2, cache.size());
+        assertNull("Least recently used evicted", cache.get(new byte[] {2}));
+        assertEquals("Recently used kept", "a", cache.get(new byte[] {1}));
+    }
+
+    @Test
+    public void testGribDatasetConcurrentReads() throws Exception
+    {
+        File directory = createGrib2Dataset();
+        GribFieldCache cache = GribFieldCache.getInstance();
+        long maxBytes = cache.getMaxBytes();
+        cache.clear();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            try (final GribDataset dataset = new GribDataset(directory, "forecast_*.grb2"))
+            {
+                final GribDataset.Entry entry = dataset.getEntries("TMP", "ISBL:850").get(1);
+                List<Future<GribRecord>> futures = new ArrayList<>();
+                for (int i = 0; i < 32; i++)
+                {
+                    futures.add(executor.submit(new Callable<GribRecord>()
+                    {
+                        @Override
+                        public GribRecord call() throws Exception
+                        {
+                            return dataset.getRecord(entry);
+                        }
+                    }));
+                }
+                GribRecord record = futures.get(0).get();
+                for (Future<GribRecord> future : futures)
+                {
+                    assertSame("Record decoded once", record, future.get());
+                }
+                assertEquals("Value", 250 + 3 + 4, record.getValue(11, 21), 1e-3);
+            }
+
+            // Concurrent reads from files which are evicted from a pool of one open file
+            cache.setMaxBytes(0);
+            List<File> files = new ArrayList<>(java.util.Arrays.asList(directory.listFiles()));
+            java.util.Collections.sort(files);
+            try (final GribDataset dataset = new GribDataset(files, 1))
+            {
+                List<GribDataset.Entry> entries = new ArrayList<>();
+                List<Future<GribRecord>> futures = new ArrayList<>();
+                for (int i = 0; i < 200; i++)
+                {
+                    final GribDataset.Entry entry = dataset.getEntries().get(i % dataset.getRecordCount());
+                    entries.add(entry);
+                    futures.add(executor.submit(() -> dataset.getRecord(entry)));
+                }
+                for (int i = 0; i < futures.size(); i++)
+                {
+                    GribDataset.Entry entry = entries.get(i);
+                    int hour = (int) ((entry.getForecastTimeMillis() - entry.getReferenceTimeMillis()) / 3600000);
+                    int base = entry.getLevelValues()[0] == 850 ? 250 : 230;
+                    assertEquals("Value", base + hour + 4, futures.get(i).get().getValue(11, 21), 1e-3);
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+            cache.setMaxBytes(maxBytes);
+            cache.clear();
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    public void testHyperCube() throws IOException, NoValidGribException, NotSupportedException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int hour = 0; hour <= 6; hour += 3)
+        {
+            out.write(createGrib2Record(hour, 850, 250 + hour));
+            out.write(createGrib2Record(hour, 500, 230 + hour));
+        }
+        GribFile gribFile = new GribFile(new ByteArrayInputStream(out.toByteArray()));
+
+        for (boolean offHeap : new boolean[] {false, true})
+        {
+            HyperCube cube = gribFile.getHyperCube("TMP", "ISBL", offHeap);
+            assertEquals("Number of times", 3, cube.getSizeT());
+            assertArrayEquals("Levels", new float[] {500, 850}, cube.getLevels(), 0);
+            assertEquals("Number of rows", 2, cube.getSizeY());
+            assertEquals("Number of columns", 3, cube.getSizeX());
+            assertEquals("Time stride", 12, cube.getTimeStride());
+            assertEquals("Value", 250 + 6 + 4, cube.get(2, 1, 1, 1), 1e-3);
+            assertEquals("Value in buffer", 230 + 3 + 5, cube.getBuffer().get(cube.getIndex(1, 0, 1, 2)), 1e-3);
+            assertArrayEquals("Profile", new float[] {233, 253}, cube.getProfile(1, 0, 0), 1e-3f);
+            cube.getTimes()[0] = 0;
+            cube.getLevels()[0] = 0;
+            assertEquals("Time step", TimeUnit.HOURS.toMillis(3), cube.getTime(1) - cube.getTime(0));
+            assertEquals("Level copies", 500, cube.getLevel(0), 0);
+        }
+    }
+
+    @Test
+    public void testInMemoryMetrics() throws IOException, NoValidGribException, NotSupportedException
+    {
+        byte[] record = createGrib2Record(0, 850, 250);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(record);
+        out.write(record);
+
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        JGribX.setMetrics(metrics);
+        try
+        {
+            new GribFile(new ByteArrayInputStream(out.toByteArray()));
+        }
+        finally
+        {
+            JGribX.setMetrics(null);
+        }
+        assertSame("Default metrics", JGribXMetrics.NOOP, JGribX.getMetrics());
+
+        assertEquals("Records scanned", 2, metrics.getCount(JGribXMetrics.Stage.SCAN));
+        assertEquals("Records unpacked", 2, metrics.getCount(JGribXMetrics.Stage.UNPACK));
+        assertEquals("Bytes read", 2L * record.length, metrics.getBytesRead());
+        assertEquals("Decoded with simple packing", Long.valueOf(2), metrics.getDecodedByPackingType().get("5.0"));
+        assertEquals("Grid types", 1, metrics.getDecodedByGridType().size());
+        assertTrue("Skipped records", metrics.getSkippedByReason().isEmpty());
+        long p99 = metrics.getPercentileNanos(JGribXMetrics.Stage.HEADER, 99);
+        assertTrue("Percentile bounds", p99 >= metrics.getPercentileNanos(JGribXMetrics.Stage.HEADER, 1) && p99 > 0);
+    }
+
+    @Test
+    public void testGribResync() throws IOException, NoValidGribException, NotSupportedException
+    {
+        Random random = new Random(1);
+        byte[] bytes = new byte[100000];
+        random.nextBytes(bytes);
+        byte[] pattern = "GRIB".getBytes("US-ASCII");
+        for (int i = 0; i < 50; i++)
+        {
+            System.arraycopy(pattern, 0, bytes, random.nextInt(bytes.length - pattern.length), pattern.length);
+        }
+        for (int from = 0; from < bytes.length; )
+        {
+            int expected = -1;
+            for (int i = from; i <= bytes.length - pattern.length && expected < 0; i++)
+            {
+                if (bytes[i] == 'G' && bytes[i + 1] == 'R' && bytes[i + 2] == 'I' && bytes[i + 3] == 'B') expected = i;
+            }
+            assertEquals("Pattern position", expected, GribScanner.indexOf(bytes, from, bytes.length, pattern));
+            if (expected < 0) break;
+            from = expected + 1;
+        }
+
+        // Records separated by padding spanning several chunks, holding a start code with an invalid header
+        byte[] padding = new byte[3 * GribScanner.CHUNK_SIZE / 2];
+        System.arraycopy("GRIB\0\0\0\2\0\0\0\0\0\0\0\100".getBytes("US-ASCII"), 0, padding, 1000, 16);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(createGrib2Record(0, 850, 250));
+        out.write(padding);
+        out.write(createGrib2Record(3, 850, 253));
+        byte[] file = out.toByteArray();
+
+        GribFile gribFile = new GribFile(new ByteArrayInputStream(file));
+        assertEquals("Records", 2, gribFile.getRecordCount());
+        assertEquals("Skipped records", 0, gribFile.getRecordsSkippedCount());
+
+        File temp = File.createTempFile("jgribx", ".grb2");
+        try
+        {
+            java.nio.file.Files.write(temp.toPath(), file);
+            try (RandomAccessFile raf = new RandomAccessFile(temp, "r"))
+            {
+                long second = file.length - createGrib2Record(3, 850, 253).length;
+                assertEquals("First record", 0, GribScanner.findRecordStart(raf, 0));
+                assertEquals("Record after padding", second, GribScanner.findRecordStart(raf, 1));
+                assertEquals("No further record", -1, GribScanner.findRecordStart(raf, second + 1));
+            }
+        }
+        finally
+        {
+            temp.delete();
+        }
+    }
+
+    @Test
+    public void testGribScanBoundaries() throws IOException
+    {
+        byte[] record = createGrib2Record(0, 850, 250);
+        File temp = File.createTempFile("jgribx", ".grb2");
+        try
+        {
+            // Adjacent records, followed by a record whose end has not been written
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(record);
+            out.write(createGrib2Record(3, 850, 253));
+            out.write(createGrib2Record(6, 850, 256), 0, record.length / 2);
+            java.nio.file.Files.write(temp.toPath(), out.toByteArray());
+
+            List<GribScanner.Boundary> boundaries = GribScanner.scanBoundaries(temp);
+            assertEquals("Boundaries before truncated record", 2, boundaries.size());
+            assertEquals("First offset", 0, boundaries.get(0).getOffset());
+            assertEquals("First length", record.length, boundaries.get(0).getLength());
+            assertEquals("Edition", 2, boundaries.get(0).getEdition());
+            assertEquals("Second offset", record.length, boundaries.get(1).getOffset());
+
+            // Records separated by garbage holding a start code with an invalid header
+            byte[] garbage = new byte[3 * GribScanner.CHUNK_SIZE / 2];
+            new Random(1).nextBytes(garbage);
+            System.arraycopy("GRIB\0\0\0\2\0\0\0\0\0\0\0\100".getBytes("US-ASCII"), 0, garbage, 1000, 16);
+            out = new ByteArrayOutputStream();
+            out.write(record);
+            out.write(garbage);
+            out.write(createGrib2Record(3, 850, 253));
+            out.write(record);
+            java.nio.file.Files.write(temp.toPath(), out.toByteArray());
+
+            boundaries = GribScanner.scanBoundaries(temp);
+            assertEquals("Boundaries after resync", 3, boundaries.size());
+            assertEquals("Offset after garbage", record.length + garbage.length, boundaries.get(1).getOffset());
+            assertEquals("Offset of last record", 2 * record.length + garbage.length, boundaries.get(2).getOffset());
+            assertEquals("Last length", record.length, boundaries.get(2).getLength());
+        }
+        finally
+        {
+            temp.delete();
+        }
+    }
+
+    @Test
+    public void testCompressedGrib() throws IOException, NoValidGribException, NotSupportedException
+    {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        int nRecords = 50;
+        for (int i = 0; i < nRecords; i++)
+        {
+            raw.write(createGrib2Record(i, 850, 200 + i));
+            // Padding, so that records are split across decompressed blocks
+            if (i % 10 == 9) raw.write(new byte[GribDecompressor.BLOCK_SIZE / 2 + 7]);
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (java.util.zip.GZIPOutputStream gzip = new java.util.zip.GZIPOutputStream(compressed))
+        {
+            gzip.write(raw.toByteArray());
+        }
+        assertTrue("Spans several blocks", raw.size() > 2 * GribDecompressor.BLOCK_SIZE);
+
+        InputStream detecting = new ByteArrayInputStream(compressed.toByteArray());
+        assertEquals("Format", GribDecompressor.Format.GZIP, GribDecompressor.detect(detecting));
+        assertEquals("Stream reset", 0x1F, detecting.read());
+
+        GribFile expected = new GribFile(new ByteArrayInputStream(raw.toByteArray()));
+        GribFile gribFile = new GribFile(new ByteArrayInputStream(compressed.toByteArray()));
+        assertEquals("Records", nRecords, gribFile.getRecordCount());
+        for (int i = 0; i < nRecords; i += 7)
+        {
+            GribRecord record = gribFile.getRecords().get(i);
+            assertEquals("Forecast time", expected.getRecords().get(i).getForecastTimeMillis(), record.getForecastTimeMillis());
+            assertEquals("Value", 200 + i + 4, record.getValue(11, 21), 1e-3);
+        }
+
+        File temp = File.createTempFile("jgribx", ".grb2.gz");
+        try
+        {
+            java.nio.file.Files.write(temp.toPath(), compressed.toByteArray());
+            assertEquals("Records from file", nRecords, new GribFile(temp.getPath()).getRecordCount());
+        }
+        finally
+        {
+            temp.delete();
+        }
+
+        byte[] bzip2 = {'B', 'Z', 'h', '9', 0x31, 0x41, 0x59, 0x26};
+        assertEquals("Bzip2 format", GribDecompressor.Format.BZIP2, GribDecompressor.detect(new ByteArrayInputStream(bzip2)));
+    }
+
+    @Test
+    public void testUnsupportedCompressionClosesFile() throws IOException, NoValidGribException, InterruptedException
+    {
+        byte[] bzip2 = {'B', 'Z', 'h', '9', 0x31, 0x41, 0x59, 0x26};
+        File temp = File.createTempFile("jgribx", ".grb2.bz2");
+        int depth = JGribX.getPrefetchDepth();
+        try
+        {
+            // Longer than the read-ahead queue, so that its thread would wait for space
+            byte[] file = java.util.Arrays.copyOf(bzip2, 4 * ReadAheadInputStream.DEFAULT_BLOCK_SIZE);
+            java.nio.file.Files.write(temp.toPath(), file);
+            JGribX.setPrefetchDepth(2);
+            String error = null;
+            try
+            {
+                new GribFile(temp.getPath());
+            }
+            catch (NotSupportedException e)
+            {
+                error = e.getMessage();
+            }
+            // Without Apache Commons Compress on the class path
+            assertNotNull("Not supported", error);
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (isReadAheadRunning() && System.currentTimeMillis() < deadline)
+            {
+                Thread.sleep(10);
+            }
+            assertFalse("Read-ahead thread stopped", isReadAheadRunning());
+        }
+        finally
+        {
+            JGribX.setPrefetchDepth(depth);
+            temp.delete();
+        }
+    }
+
+    private static boolean isReadAheadRunning()
+    {
+        for (Thread thread : Thread.getAllStackTraces().keySet())
+        {
+            if (thread.getName().equals("jgribx-read-ahead") && thread.isAlive()) return true;
+        }
+        return false;
+    }
+
+    @Test
+    public void testReadAheadStream() throws IOException, NoValidGribException, NotSupportedException
+    {
+        byte[] bytes = new byte[100000];
+        new Random(2).nextBytes(bytes);
+        try (InputStream in = new ReadAheadInputStream(new ByteArrayInputStream(bytes), 4096, 2, "test"))
+        {
+            assertEquals("First byte", bytes[0] & 0xFF, in.read());
+            assertEquals("Skipped", 99, in.skip(99));
+            byte[] rest = new byte[bytes.length - 100];
+            int n = 0;
+            int read;
+            while ((read = in.read(rest, n, rest.length - n)) > 0)
+            {
+                n += read;
+            }
+            assertEquals("Bytes read", rest.length, n);
+            assertArrayEquals("Content", java.util.Arrays.copyOfRange(bytes, 100, bytes.length), rest);
+            assertEquals("End of stream", -1, in.read());
+            assertEquals("Available at end", 0, in.available());
+        }
+
+        // Errors are thrown after the data read before them
+        InputStream failing = new SequenceInputStream(new ByteArrayInputStream(bytes, 0, 10000), new InputStream()
+        {
+            @Override
+            public int read() throws IOException
+            {
+                throw new IOException("Read failed");
+            }
+        });
+        try (InputStream in = new ReadAheadInputStream(failing, 4096, 2, "test"))
+        {
+            byte[] buffer = new byte[10000];
+            int n = 0;
+            int read;
+            String error = null;
+            try
+            {
+                while ((read = in.read(buffer, n, buffer.length - n)) > 0)
+                {
+                    n += read;
+                }
+                in.read();
+            }
+            catch (IOException e)
+            {
+                error = e.getMessage();
+            }
+            assertEquals("Bytes before error", 10000, n);
+            assertEquals("Error", "Read failed", error);
+        }
+
+        File temp = createGrib2Dataset();
+        int depth = JGribX.getPrefetchDepth();
+        try
+        {
+            File file = temp.listFiles()[0];
+            JGribX.setPrefetchDepth(0);
+            GribFile expected = new GribFile(file.getPath());
+            JGribX.setPrefetchDepth(3);
+            GribFile gribFile = new GribFile(file.getPath());
+            assertEquals("Records", expected.getRecordCount(), gribFile.getRecordCount());
+            assertEquals("Value", expected.getRecords().get(1).getValue(11, 21), gribFile.getRecords().get(1).getValue(11, 21), 1e-3);
+        }
+        finally
+        {
+            JGribX.setPrefetchDepth(depth);
+            for (File file : temp.listFiles()) file.delete();
+            temp.delete();
+        }
+    }
+
+    @Test
+    public void testHttpRangeReader() throws IOException, NoValidGribException, NotSupportedException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<ByteRange> ranges = new ArrayList<>();
+        for (int hour = 0; hour < 6; hour++)
+        {
+            byte[] record = createGrib2Record(hour, 850, 250 + hour);
+            ranges.add(new ByteRange(out.size(), record.length));
+            out.write(record);
+        }
+        byte[] file = out.toByteArray();
+
+        // Records 0 and 1 are adjacent, while record 4 is separate
+        List<List<ByteRange>> groups = ByteRange.coalesce(
+                java.util.Arrays.asList(ranges.get(4), ranges.get(1), ranges.get(0)), 0, Long.MAX_VALUE);
+        assertEquals("Groups", 2, groups.size());
+        assertEquals("First group", java.util.Arrays.asList(ranges.get(0), ranges.get(1)), groups.get(0));
+
+        java.util.concurrent.atomic.AtomicInteger requests = new java.util.concurrent.atomic.AtomicInteger();
+        com.sun.net.httpserver.HttpServer server = com.sun.net.httpserver.HttpServer.create(
+                new java.net.InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/data.grb2", exchange ->
+        {
+            requests.incrementAndGet();
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (exchange.getRequestMethod().equals("HEAD"))
+            {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(file.length));
+                exchange.sendResponseHeaders(200, -1);
+            }
+            else
+            {
+                Matcher m = Pattern.compile("bytes=(\\d+)-(\\d+)").matcher(range);
+                assertTrue("Range header", m.matches());
+                int start = Integer.parseInt(m.group(1));
+                int end = Math.min(Integer.parseInt(m.group(2)), file.length - 1);
+                exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + file.length);
+                exchange.sendResponseHeaders(206, end - start + 1);
+                exchange.getResponseBody().write(file, start, end - start + 1);
+            }
+            exchange.close();
+        });
+        // A server answering with another part of the file
+        server.createContext("/shifted.grb2", exchange ->
+        {
+            exchange.getResponseHeaders().set("Content-Range", "bytes 1-" + file.length / 2 + "/" + file.length);
+            exchange.sendResponseHeaders(206, file.length / 2);
+            exchange.getResponseBody().write(file, 1, file.length / 2);
+            exchange.close();
+        });
+        server.start();
+        try
+        {
+            URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/data.grb2");
+            GribRecordFetcher fetcher = new GribRecordFetcher(new HttpRangeReader(url), 2, 0, Long.MAX_VALUE);
+            List<GribRecord> records = fetcher.fetch(java.util.Arrays.asList(ranges.get(4), ranges.get(0), ranges.get(1)));
+            assertEquals("Requests", 2, requests.get());
+            assertEquals("Records", 3, records.size());
+            assertEquals("Record 4", 250 + 4 + 4, records.get(0).getValue(11, 21), 1e-3);
+            assertEquals("Record 0", 250 + 4, records.get(1).getValue(11, 21), 1e-3);
+            assertEquals("Record 1", 250 + 1 + 4, records.get(2).getValue(11, 21), 1e-3);
+
+            // A HEAD request for the length, then the indicator section and the record
+            GribRecord record = fetcher.fetch(ranges.get(5).getOffset());
+            assertEquals("Requests for one record", 5, requests.get());
+            assertEquals("Record 5", 250 + 5 + 4, record.getValue(11, 21), 1e-3);
+
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try
+            {
+                fetcher = new GribRecordFetcher(new HttpRangeReader(url), executor, 0, Long.MAX_VALUE);
+                records = fetcher.fetch(java.util.Arrays.asList(ranges.get(5), ranges.get(2)));
+                assertEquals("Record 2 with a shared executor", 250 + 2 + 4, records.get(1).getValue(11, 21), 1e-3);
+            }
+            finally
+            {
+                executor.shutdown();
+            }
+
+            IOException error = null;
+            try
+            {
+                new HttpRangeReader(new URL(url, "/shifted.grb2")).read(0, file.length / 2);
+            }
+            catch (IOException e)
+            {
+                error = e;
+            }
+            assertTrue("Mismatched Content-Range", error != null && error.getMessage().contains("answered with"));
+        }
+        finally
+        {
+            server.stop(0);
+        }
+
+        File temp = File.createTempFile("jgribx", ".grb2");
+        java.nio.file.Files.write(temp.toPath(), file);
+        try (FileRangeReader reader = new FileRangeReader(temp))
+        {
+            List<GribRecord> records = new GribRecordFetcher(reader).fetch(ranges);
+            assertEquals("Records from file", 6, records.size());
+            assertEquals("Record 3", 250 + 3 + 4, records.get(3).getValue(11, 21), 1e-3);
+        }
+        finally
+        {
+            temp.delete();
+        }
+    }
+
+    @Test
+    public void testGribInventory() throws IOException, NoValidGribException, NotSupportedException
+    {
+        File directory = createGrib2Dataset();
+        try
+        {
+            File file = new File(directory, "forecast_003.grb2");
+            GribInventory inventory = GribInventory.create(file);
+            long length = inventory.getEntries().get(0).getLength();
+            StringWriter idx = new StringWriter();
+            inventory.write(idx);
+            assertEquals("Inventory",
+                    "1:0:d=2020010100:TMP:850 mb:3 hour fcst:\n"
+                    + "2:" + length + ":d=2020010100:TMP:500 mb:3 hour fcst:\n", idx.toString());
+
+            GribInventory parsed = GribInventory.read(
+                    new ByteArrayInputStream(idx.toString().getBytes("US-ASCII")), file.length());
+            List<GribInventory.Entry> selected = parsed.select("TMP", "500 mb");
+            assertEquals("Selected", 1, selected.size());
+            assertEquals("Last length", file.length() - length, selected.get(0).getLength());
+            try (FileRangeReader reader = new FileRangeReader(file))
+            {
+                List<GribRecord> records = new GribRecordFetcher(reader).fetch(GribInventory.getRanges(selected));
+                assertEquals("Value", 230 + 3 + 4, records.get(0).getValue(11, 21), 1e-3);
+            }
+
+            // A layer between 30 and 0 hPa above ground, whose pressures GRIB-2 gives in Pa
+            byte[] record = createGrib2Record(3, 850, 250);
+            byte[] isobaric = {100, 0, 0, 1, 0x4c, 0x08, (byte) 255, 0};
+            byte[] layer = {108, 0, 0, 0, 0x0b, (byte) 0xb8, 108, 0};
+            int position = GribScanner.indexOf(record, 0, record.length, isobaric);
+            System.arraycopy(layer, 0, record, position, layer.length);
+            File spdl = new File(directory, "spdl.grb2");
+            java.nio.file.Files.write(spdl.toPath(), record);
+            StringWriter spdlIdx = new StringWriter();
+            GribInventory.create(spdl).write(spdlIdx);
+            assertEquals("Layer inventory", "1:0:d=2020010100:TMP:30-0 mb above ground:3 hour fcst:\n",
+                    spdlIdx.toString());
+        }
+        finally
+        {
+            for (File file : directory.listFiles()) file.delete();
+            directory.delete();
+        }
+
+        // Fields of one record share its offset, and the last length is unknown without the file length
+        String noaa = "1:0:d=2021061500:PRMSL:mean sea level:anl:\n"
+                + "2:990093:d=2021061500:UGRD:10 m above ground:6 hour fcst:\n"
+                + "2.1:990093:d=2021061500:VGRD:10 m above ground:6 hour fcst:\n"
+                + "3:1820330:d=2021061500:APCP:surface:0-6 hour acc fcst:\n";
+        GribInventory inventory = GribInventory.read(new ByteArrayInputStream(noaa.getBytes("US-ASCII")), -1);
+        assertEquals("Entries", 4, inventory.getEntries().size());
+        GribInventory.Entry vgrd = inventory.select("VGRD", null).get(0);
+        assertEquals("Field number", "2.1", vgrd.getNumber());
+        assertEquals("Field length", 1820330 - 990093, vgrd.getLength());
+        assertEquals("Unknown length", -1, inventory.getEntries().get(3).getLength());
+        assertEquals("Forecast", "0-6 hour acc fcst", inventory.getEntries().get(3).getForecast());
+        assertEquals("Reference time", 1623715200000L, vgrd.getReferenceTimeMillis());
+        assertEquals("Line", "2.1:990093:d=2021061500:VGRD:10 m above ground:6 hour fcst:", vgrd.toString());
+    }
+
+    @Test
+    public void testGribFollower() throws IOException
+    {
+        byte[] first = createGrib2Record(0, 850, 250);
+        byte[] second = createGrib2Record(3, 850, 253);
+        byte[] third = createGrib2Record(6, 850, 256);
+
+        File temp = File.createTempFile("jgribx", ".grb2");
+        List<Long> offsets = new ArrayList<>();
+        List<GribRecord> records = new ArrayList<>();
+        GribFollower follower = new GribFollower(temp, (record, offset) ->
+        {
+            records.add(record);
+            offsets.add(offset);
+        });
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw"))
+        {
+            assertEquals("Empty file", 0, follower.poll());
+
+            // A record and part of the next
+            raf.write(first);
+            raf.write(second, 0, second.length / 2);
+            assertEquals("First poll", 1, follower.poll());
+            assertEquals("Offset after first", first.length, follower.getOffset());
+
+            raf.write(second, second.length / 2, second.length - second.length / 2);
+            assertEquals("Second poll", 1, follower.poll());
+            assertEquals("Second offset", (long) first.length, (long) offsets.get(1));
+
+            // A record whose end section has not been written yet
+            raf.write(third, 0, third.length - 4);
+            raf.write(new byte[4]);
+            assertEquals("Missing end section", 0, follower.poll());
+            raf.seek(raf.length() - 4);
+            raf.write(third, third.length - 4, 4);
+            assertEquals("Third poll", 1, follower.poll());
+            assertEquals("Nothing new", 0, follower.poll());
+            assertEquals("Offset at end", raf.length(), follower.getOffset());
+
+            // A damaged record followed by a valid one
+            raf.write(first, 0, first.length - 4);
+            raf.write(new byte[4]);
+            raf.write(second);
+            assertEquals("After damaged record", 1, follower.poll());
+            assertEquals("Offset after damaged record", raf.length(), follower.getOffset());
+
+            // A damaged header giving a length beyond the end of the file
+            byte[] damaged = first.clone();
+            damaged[12] = 0x7f;
+            raf.write(damaged);
+            assertEquals("Damaged length", 0, follower.poll());
+            raf.write(third);
+            assertEquals("After damaged length", 1, follower.poll());
+            assertEquals("Offset after damaged length", raf.length(), follower.getOffset());
+        }
+        finally
+        {
+            temp.delete();
+        }
+        assertEquals("Records", 5, records.size());
+        assertEquals("Value", 256 + 4, records.get(2).getValue(11, 21), 1e-3);
+        assertEquals("Value after damaged record", 253 + 4, records.get(3).getValue(11, 21), 1e-3);
+        assertEquals("Value after damaged length", 256 + 4, records.get(4).getValue(11, 21), 1e-3);
+    }
+
+    /**
+     * Creates a directory holding three GRIB-2 files (forecast hours 0, 3 and 6),
+     * each containing temperature at 850 hPa and 500 hPa.
+     */
+    private static File createGrib2Dataset() throws IOException
+    {
+        File directory = java.nio.file.Files.createTempDirectory("jgribx").toFile();
+        for (int hour = 0; hour <= 6; hour += 3)
+        {
+            try (FileOutputStream out = new FileOutputStream(new File(directory, String.format("forecast_%03d.grb2", hour))))
+            {
+                out.write(createGrib2Record(hour, 850, 250 + hour));
+                out.write(createGrib2Record(hour, 500, 230 + hour));
+            }
+        }
+        return directory;
+    }
+
+    /**
+     * Returns the reference time of the records created by
+     * {@link #createGrib2Record(int, int, int)}, which is 2020-01-01T00:00:00Z.
+     */
+    static Calendar getReferenceTime()
+    {
+        Calendar referenceTime = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        referenceTime.clear();
+        referenceTime.set(2020, Calendar.JANUARY, 1, 0, 0, 0);
+        return referenceTime;
+    }
+
+    /**
+     * Creates a GRIB-2 record as in {@link #createGrib2Record(Calendar, int, int, int)},
+     * with the reference time given by {@link #getReferenceTime()}.
+     */
+    static byte[] createGrib2Record(int forecastHours, int pressure, int baseValue) throws IOException
+    {
+        return createGrib2Record(getReferenceTime(), forecastHours, pressure, baseValue);
+    }
+
+    /**
+     * Creates a GRIB-2 record holding temperature on a 3x2 lat/lon grid starting
+     * at 10N 20E, with values increasing by 1 from {@code baseValue}.
+     */
+    static byte[] createGrib2Record(Calendar referenceTime, int forecastHours, int pressure, int baseValue) throws IOException
+    {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        // IDS
+        writeInt(body, 21, 4, false);
+        body.write(1);
+        writeInt(body, 7, 2, false);                // originating centre
+        writeInt(body, 0, 2, false);                // sub-centre
+        body.write(2); body.write(1);               // table versions
+        body.write(1);                              // significance of reference time
+        writeInt(body, referenceTime.get(Calendar.YEAR), 2, false);
+        body.write(referenceTime.get(Calendar.MONTH) + 1);
+        body.write(referenceTime.get(Calendar.DAY_OF_MONTH));
+        body.write(referenceTime.get(Calendar.HOUR_OF_DAY));
+        body.write(0); body.write(0);
+        body.write(0); body.write(1);               // production status, data type
+
+        // GDS
+        writeGrib2GdsHeader(body, 72, 6, 0);
+        body.write(6);
+        body.write(new byte[15]);
+        writeInt(body, 3, 4, false);                // Ni
+        writeInt(body, 2, 4, false);                // Nj
+        writeInt(body, 0, 4, false);                // basic angle
+        writeInt(body, 0, 4, false);                // subdivisions of basic angle
+        writeInt(body, 10000000, 4, true);          // La1
+        writeInt(body, 20000000, 4, true);          // Lo1
+        body.write(0x30);                           // resolution and component flags
+        writeInt(body, 11000000, 4, true);          // La2
+        writeInt(body, 22000000, 4, true);          // Lo2
+        writeInt(body, 1000000, 4, false);          // Di
+        writeInt(body, 1000000, 4, false);          // Dj
+        body.write(0x40);                           // scanning mode
+
+        // PDS
+        writeInt(body, 34, 4, false);
+        body.write(4);
+        writeInt(body, 0, 2, false);                // number of coordinates
+        writeInt(body, 0, 2, false);                // template 4.0
+        body.write(0); body.write(0);               // temperature
+        body.write(2); body.write(0); body.write(96);
+        writeInt(body, 0, 2, false); body.write(0); // observational data cut-off
+        body.write(1);                              // unit of time range: hour
+        writeInt(body, forecastHours, 4, false);
+        body.write(100); body.write(0);             // isobaric surface
+        writeInt(body, pressure * 100, 4, false);
+        body.write(255); body.write(0);             // no second surface
+        writeInt(body, 0, 4, false);
+
+        // DRS (simple packing, 8 bits, reference value = baseValue)
+        writeInt(body, 21, 4, false);
+        body.write(5);
+        writeInt(body, 6, 4, false);
+        writeInt(body, 0, 2, false);
+        writeInt(body, Float.floatToIntBits(baseValue), 4, false);
+        writeInt(body, 0, 2, false);                // binary scale factor
+        writeInt(body, 0, 2, false);                // decimal scale factor
+        body.write(8); body.write(0);
+
+        // BMS
+        writeInt(body, 7, 4, false);
+        body.write(6); body.write(0); body.write(0xFF);
+
+        // DS
+        writeInt(body, 5 + 6, 4, false);
+        body.write(7);
+        for (int i = 0; i < 6; i++)
+        {
+            body.write(i);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('G'); out.write('R'); out.write('I'); out.write('B');
+        out.write(0); out.write(0); out.write(0); out.write(2);
+        writeInt(out, 0, 4, false);
+        writeInt(out, 16 + body.size() + 4, 4, false);
+        out.write(body.toByteArray(), 0, body.size());
+        out.write('7'); out.write('7'); out.write('7'); out.write('7');
+        return out.toByteArray();
+    }
+
+    private static void deleteDirectory(File directory)
+    {
+        File[] files = directory.listFiles();
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private static void writeGrib2GdsHeader(ByteArrayOutputStream out, int length, int nDataPoints, int template)
+    {
+        writeInt(out, length, 4, false);            // length
+        out.write(3);                               // section number
+        out.write(0);                               // grid definition source
+        writeInt(out, nDataPoints, 4, false);       // number of data points
+        out.write(0); out.write(0);                 // optional list of numbers of points
+        writeInt(out, template, 2, false);          // grid definition template number
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value, int nBytes, boolean signed)
+    {
+        int magnitude = Math.abs(value);
+        for (int i = nBytes - 1; i >= 0; i--)
+        {
+            int b = (magnitude >> (8 * i)) & 0xFF;
+            if (signed && value < 0 && i == nBytes - 1) b |= 0x80;
+            out.write(b);
+        }
+    }
+
+    private static double getGreatCircleDistance(double lat1, double lon1, double lat2, double lon2)
+    {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * Math.asin(Math.sqrt(a));
+    }
+
     private static float getMaxValue(float[] values)
     {
         float max = values[0];